@@ -0,0 +1,88 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import com.epam.reportportal.service.Launch;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import io.reactivex.Maybe;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.mockito.stubbing.Answer;
+import org.openjdk.jcstress.annotations.*;
+import org.openjdk.jcstress.infra.results.II_Result;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * A child item is started while its parent is being started: the child's computeIfAbsent looks the parent up in the same map.
+ */
+@JCStressTest
+@Description("Start of a child races with the start of its parent")
+@Outcome(id = "1, 1", expect = Expect.ACCEPTABLE, desc = "The child is attached to its parent")
+@Outcome(id = "1, 0", expect = Expect.ACCEPTABLE_INTERESTING, desc = "The child started before the parent was registered, so it became a root item")
+@Outcome(expect = Expect.FORBIDDEN, desc = "The parent is started more than once or the child got a foreign parent")
+@State
+public class ItemHierarchyStressTest {
+
+	private static final ExtensionContext PARENT = StressSupport.context("[engine:stress]/[class:Parent]", "Parent", null);
+	private static final ExtensionContext CHILD = StressSupport.context("[engine:stress]/[class:Parent]/[nested-class:Child]",
+			"Child",
+			PARENT
+	);
+
+	private final AtomicInteger parentStarts = new AtomicInteger();
+	private final Maybe<String> parentId = Maybe.just("parent");
+	private volatile int childAttached = -1;
+
+	private final ReportPortalExtension extension;
+
+	public ItemHierarchyStressTest() {
+		Launch launch = StressSupport.launch();
+		when(launch.startTestItem(any())).thenAnswer((Answer<Maybe<String>>) invocation -> {
+			StartTestItemRQ rq = invocation.getArgument(0);
+			if (PARENT.getUniqueId().equals(rq.getUniqueId())) {
+				parentStarts.incrementAndGet();
+				return parentId;
+			}
+			childAttached = 0;
+			return Maybe.just("child");
+		});
+		when(launch.startTestItem(any(), any())).thenAnswer((Answer<Maybe<String>>) invocation -> {
+			childAttached = invocation.getArgument(0) == parentId ? 1 : 2;
+			return Maybe.just("child");
+		});
+		extension = new StressSupport.StressExtension(launch);
+	}
+
+	@Actor
+	public void actor1() {
+		extension.beforeAll(PARENT);
+	}
+
+	@Actor
+	public void actor2() {
+		extension.beforeAll(CHILD);
+	}
+
+	@Arbiter
+	public void arbiter(II_Result r) {
+		r.r1 = parentStarts.get();
+		r.r2 = childAttached;
+	}
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import com.epam.reportportal.service.Launch;
+import io.reactivex.Maybe;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.openjdk.jcstress.annotations.*;
+import org.openjdk.jcstress.infra.results.I_Result;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Two threads start the same container item, e.g. a class shared by parallel methods.
+ */
+@JCStressTest
+@Description("Concurrent starts of the same context send one start request")
+@Outcome(id = "1", expect = Expect.ACCEPTABLE, desc = "The item is started once")
+@Outcome(expect = Expect.FORBIDDEN, desc = "The item is started more than once or not at all")
+@State
+public class ItemStartStressTest {
+
+	private static final ExtensionContext CLASS = StressSupport.context("[engine:stress]/[class:Suite]", "Suite", null);
+	private static final Launch LAUNCH = StressSupport.launch();
+
+	static {
+		when(LAUNCH.startTestItem(any())).thenReturn(Maybe.just("suite"));
+	}
+
+	private final AtomicInteger starts = new AtomicInteger();
+	private final ReportPortalExtension extension = new StressSupport.StressExtension(LAUNCH) {
+		@Override
+		protected TestItem getTestItem(ExtensionContext context, boolean isRetry) {
+			starts.incrementAndGet();
+			return super.getTestItem(context, isRetry);
+		}
+	};
+
+	@Actor
+	public void actor1() {
+		extension.beforeAll(CLASS);
+	}
+
+	@Actor
+	public void actor2() {
+		extension.beforeAll(CLASS);
+	}
+
+	@Arbiter
+	public void arbiter(I_Result r) {
+		r.r1 = starts.get();
+	}
+}
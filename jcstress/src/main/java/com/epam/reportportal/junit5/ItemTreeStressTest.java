@@ -0,0 +1,74 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import com.epam.reportportal.service.Launch;
+import com.epam.reportportal.service.tree.TestItemTree;
+import io.reactivex.Maybe;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.openjdk.jcstress.annotations.*;
+import org.openjdk.jcstress.infra.results.II_Result;
+
+import java.util.UUID;
+
+import static com.epam.reportportal.junit5.ReportPortalExtension.TEST_ITEM_TREE;
+import static com.epam.reportportal.junit5.utils.ItemTreeUtils.createItemTreeKey;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Two items are started concurrently with callback reporting on, so both of them write into the static {@code TEST_ITEM_TREE}.
+ */
+@JCStressTest
+@Description("Concurrent item starts do not lose TEST_ITEM_TREE leaves")
+@Outcome(id = "1, 1", expect = Expect.ACCEPTABLE, desc = "Both leaves are registered")
+@Outcome(expect = Expect.FORBIDDEN, desc = "A leaf is lost")
+@State
+public class ItemTreeStressTest {
+
+	private static final Launch LAUNCH = StressSupport.launch();
+
+	static {
+		when(LAUNCH.startTestItem(any())).thenReturn(Maybe.just("item"));
+	}
+
+	private final String name1 = UUID.randomUUID().toString();
+	private final String name2 = UUID.randomUUID().toString();
+	private final ExtensionContext context1 = StressSupport.context("[engine:stress]/[class:" + name1 + "]", name1, null);
+	private final ExtensionContext context2 = StressSupport.context("[engine:stress]/[class:" + name2 + "]", name2, null);
+	private final ReportPortalExtension extension = new StressSupport.StressExtension(LAUNCH, StressSupport.CALLBACK_REPORTER);
+
+	@Actor
+	public void actor1() {
+		extension.beforeAll(context1);
+	}
+
+	@Actor
+	public void actor2() {
+		extension.beforeAll(context2);
+	}
+
+	@Arbiter
+	public void arbiter(II_Result r) {
+		TestItemTree.ItemTreeKey key1 = createItemTreeKey(name1);
+		TestItemTree.ItemTreeKey key2 = createItemTreeKey(name2);
+		r.r1 = TEST_ITEM_TREE.getTestItems().containsKey(key1) ? 1 : 0;
+		r.r2 = TEST_ITEM_TREE.getTestItems().containsKey(key2) ? 1 : 0;
+		TEST_ITEM_TREE.getTestItems().remove(key1);
+		TEST_ITEM_TREE.getTestItems().remove(key2);
+	}
+}
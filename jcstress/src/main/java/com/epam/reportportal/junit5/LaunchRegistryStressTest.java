@@ -0,0 +1,77 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import com.epam.reportportal.service.Launch;
+import org.openjdk.jcstress.annotations.*;
+import org.openjdk.jcstress.infra.results.III_Result;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Two threads request the launch of the same test run while a third one requests a launch of another run, like the first tests of
+ * parallel workers do.
+ */
+@JCStressTest
+@Description("Concurrent LaunchRegistry calls start every launch once and share it")
+@Outcome(id = "1, 1, 1", expect = Expect.ACCEPTABLE, desc = "Each launch is started once and both callers got the same launch")
+@Outcome(expect = Expect.FORBIDDEN, desc = "A launch is started twice or callers got different launches")
+@State
+public class LaunchRegistryStressTest {
+
+	private static final String LAUNCH_ID = "[engine:junit-jupiter]";
+	private static final String OTHER_LAUNCH_ID = "[engine:junit-vintage]";
+	private static final Launch[] LAUNCHES = { StressSupport.launch(), StressSupport.launch() };
+
+	private final LaunchRegistry registry = new LaunchRegistry();
+	private final AtomicInteger starts = new AtomicInteger();
+	private final AtomicInteger otherStarts = new AtomicInteger();
+
+	private Launch first;
+	private Launch second;
+
+	private Launch start(String launchId) {
+		return LAUNCHES[starts.getAndIncrement() % LAUNCHES.length];
+	}
+
+	private Launch startOther(String launchId) {
+		otherStarts.incrementAndGet();
+		return StressSupport.OTHER_LAUNCH;
+	}
+
+	@Actor
+	public void actor1() {
+		first = registry.getLaunch(LAUNCH_ID, this::start);
+	}
+
+	@Actor
+	public void actor2() {
+		second = registry.getLaunch(LAUNCH_ID, this::start);
+	}
+
+	@Actor
+	public void actor3() {
+		registry.getLaunch(OTHER_LAUNCH_ID, this::startOther);
+	}
+
+	@Arbiter
+	public void arbiter(III_Result r) {
+		r.r1 = starts.get();
+		r.r2 = first == second ? 1 : 0;
+		r.r3 = otherStarts.get();
+	}
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import com.epam.reportportal.listeners.ListenerParameters;
+import com.epam.reportportal.service.Launch;
+import com.epam.reportportal.service.ReportPortal;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Shared fixtures for the stress tests: stub-only mocks which do not record invocations and an extension bound to a given launch.
+ */
+final class StressSupport {
+
+	static final ReportPortal REPORTER = reporter(false);
+	static final ReportPortal CALLBACK_REPORTER = reporter(true);
+	static final Launch OTHER_LAUNCH = launch();
+
+	private static final ExtensionContext.Store STORE = mock(ExtensionContext.Store.class, withSettings().stubOnly());
+
+	private StressSupport() {
+		//static only
+	}
+
+	private static ReportPortal reporter(boolean callbackReporting) {
+		ListenerParameters parameters = mock(ListenerParameters.class, withSettings().stubOnly());
+		when(parameters.isCallbackReportingEnabled()).thenReturn(callbackReporting);
+		ReportPortal reporter = mock(ReportPortal.class, withSettings().stubOnly());
+		when(reporter.getParameters()).thenReturn(parameters);
+		return reporter;
+	}
+
+	static ExtensionContext context(String uniqueId, String displayName, ExtensionContext parent) {
+		ExtensionContext context = mock(ExtensionContext.class, withSettings().stubOnly());
+		when(context.getUniqueId()).thenReturn(uniqueId);
+		when(context.getDisplayName()).thenReturn(displayName);
+		when(context.getParent()).thenReturn(Optional.ofNullable(parent));
+		when(context.getStore(any())).thenReturn(STORE);
+		return context;
+	}
+
+	static Launch launch() {
+		return mock(Launch.class, withSettings().stubOnly());
+	}
+
+	static class StressExtension extends ReportPortalExtension {
+		private final Launch launch;
+		private final ReportPortal reporter;
+
+		StressExtension(Launch launch, ReportPortal reporter) {
+			this.launch = launch;
+			this.reporter = reporter;
+		}
+
+		StressExtension(Launch launch) {
+			this(launch, REPORTER);
+		}
+
+		@Override
+		ReportPortal getReporter() {
+			return reporter;
+		}
+
+		@Override
+		protected Launch getLaunch(ExtensionContext context) {
+			return launch;
+		}
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import com.epam.reportportal.service.Launch;
+import com.epam.ta.reportportal.ws.model.OperationCompletionRS;
+import io.reactivex.Maybe;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.mockito.stubbing.Answer;
+import org.openjdk.jcstress.annotations.*;
+import org.openjdk.jcstress.infra.results.II_Result;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Two containers finish at the same time and both try to finish the same pending test templates.
+ */
+@JCStressTest
+@Description("Concurrent finishTestTemplates() calls finish every template exactly once")
+@Outcome(id = "2, 2", expect = Expect.ACCEPTABLE, desc = "Both templates are finished once")
+@Outcome(expect = Expect.FORBIDDEN, desc = "A template is lost, finished twice or finished with a missing ID")
+@State
+public class TemplateFinishStressTest {
+
+	private static final String TEMPLATE_1 = "[engine:stress]/[class:Suite]/[test-template:first()]";
+	private static final String TEMPLATE_2 = "[engine:stress]/[class:Suite]/[test-template:second()]";
+	private static final ExtensionContext CLASS_1 = StressSupport.context("[engine:stress]/[class:Suite1]", "Suite1", null);
+	private static final ExtensionContext CLASS_2 = StressSupport.context("[engine:stress]/[class:Suite2]", "Suite2", null);
+	private static final Field TEST_TEMPLATES;
+
+	static {
+		try {
+			TEST_TEMPLATES = ReportPortalExtension.class.getDeclaredField("testTemplates");
+			TEST_TEMPLATES.setAccessible(true);
+		} catch (NoSuchFieldException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private final Maybe<String> template1 = Maybe.just("template1");
+	private final Maybe<String> template2 = Maybe.just("template2");
+	private final AtomicInteger templateFinishes = new AtomicInteger();
+	private final Set<Maybe<String>> finishedTemplates = ConcurrentHashMap.newKeySet();
+
+	private final ReportPortalExtension extension;
+
+	@SuppressWarnings("unchecked")
+	public TemplateFinishStressTest() {
+		Launch launch = StressSupport.launch();
+		when(launch.finishTestItem(any(), any())).thenAnswer((Answer<Maybe<OperationCompletionRS>>) invocation -> {
+			Maybe<String> id = invocation.getArgument(0);
+			if (id == template1 || id == template2) {
+				templateFinishes.incrementAndGet();
+				finishedTemplates.add(id);
+			}
+			return Maybe.empty();
+		});
+		extension = new StressSupport.StressExtension(launch);
+		try {
+			Map<String, Maybe<String>> templates = (Map<String, Maybe<String>>) TEST_TEMPLATES.get(extension);
+			templates.put(TEMPLATE_1, template1);
+			templates.put(TEMPLATE_2, template2);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Actor
+	public void actor1() {
+		extension.afterAll(CLASS_1);
+	}
+
+	@Actor
+	public void actor2() {
+		extension.afterAll(CLASS_2);
+	}
+
+	@Arbiter
+	public void arbiter(II_Result r) {
+		r.r1 = templateFinishes.get();
+		r.r2 = finishedTemplates.size();
+	}
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.history;
+
+import com.epam.reportportal.junit5.Status;
+import org.junit.jupiter.api.ClassDescriptor;
+import org.junit.jupiter.api.ClassOrderer;
+import org.junit.jupiter.api.ClassOrdererContext;
+
+import java.util.Comparator;
+
+/**
+ * Orders test classes by the {@link LaunchHistory}: classes which failed in the previous launch go first, then skipped ones, then
+ * classes without history, then passed ones. Classes with the same history keep their default order.
+ * <p>
+ * Requires JUnit Jupiter 5.8 or later. Use with {@code junit.jupiter.testclass.order.default} configuration parameter, or with
+ * {@code @TestClassOrder(FailingFirstClassOrderer.class)} for nested classes.
+ */
+public class FailingFirstClassOrderer implements ClassOrderer {
+
+	private final LaunchHistory history;
+
+	public FailingFirstClassOrderer() {
+		this(LaunchHistory.getShared());
+	}
+
+	FailingFirstClassOrderer(LaunchHistory history) {
+		this.history = history;
+	}
+
+	private int getRank(ClassDescriptor descriptor) {
+		return history.get(descriptor.getTestClass()).map(LaunchHistory.Record::getStatus).map(status -> {
+			if (Status.FAILED == status) {
+				return 0;
+			}
+			return Status.SKIPPED == status ? 1 : 3;
+		}).orElse(2);
+	}
+
+	@Override
+	public void orderClasses(ClassOrdererContext context) {
+		context.getClassDescriptors().sort(Comparator.comparingInt(this::getRank));
+	}
+}
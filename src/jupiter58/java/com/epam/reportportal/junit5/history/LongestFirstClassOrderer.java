@@ -0,0 +1,52 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.history;
+
+import org.junit.jupiter.api.ClassDescriptor;
+import org.junit.jupiter.api.ClassOrderer;
+import org.junit.jupiter.api.ClassOrdererContext;
+
+import java.util.Comparator;
+
+/**
+ * Orders test classes by their duration in the {@link LaunchHistory}, the longest first, which packs classes better when they are
+ * executed concurrently. Classes without history go last and keep their default order.
+ * <p>
+ * Requires JUnit Jupiter 5.8 or later. Use with {@code junit.jupiter.testclass.order.default} configuration parameter, or with
+ * {@code @TestClassOrder(LongestFirstClassOrderer.class)} for nested classes.
+ */
+public class LongestFirstClassOrderer implements ClassOrderer {
+
+	private final LaunchHistory history;
+
+	public LongestFirstClassOrderer() {
+		this(LaunchHistory.getShared());
+	}
+
+	LongestFirstClassOrderer(LaunchHistory history) {
+		this.history = history;
+	}
+
+	private long getDuration(ClassDescriptor descriptor) {
+		return history.get(descriptor.getTestClass()).map(LaunchHistory.Record::getDuration).orElse(-1L);
+	}
+
+	@Override
+	public void orderClasses(ClassOrdererContext context) {
+		context.getClassDescriptors().sort(Comparator.comparingLong(descriptor -> -getDuration(descriptor)));
+	}
+}
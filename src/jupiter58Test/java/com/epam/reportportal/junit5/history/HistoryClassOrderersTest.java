@@ -0,0 +1,116 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.history;
+
+import com.epam.reportportal.junit5.Status;
+import com.epam.reportportal.junit5.features.order.FailedTest;
+import com.epam.reportportal.junit5.features.order.NewTest;
+import com.epam.reportportal.junit5.features.order.PassedTest;
+import com.epam.reportportal.junit5.features.order.SkippedTest;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.core.LauncherConfig;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+
+public class HistoryClassOrderersTest {
+
+	private static final Class<?>[] CLASSES = { PassedTest.class, NewTest.class, FailedTest.class, SkippedTest.class };
+
+	private static LaunchHistory history;
+
+	/**
+	 * JUnit creates orderers with their default constructors, so these pass the history written by the test instead of the shared one.
+	 */
+	public static class TestFailingFirstClassOrderer extends FailingFirstClassOrderer {
+		public TestFailingFirstClassOrderer() {
+			super(history);
+		}
+	}
+
+	public static class TestLongestFirstClassOrderer extends LongestFirstClassOrderer {
+		public TestLongestFirstClassOrderer() {
+			super(history);
+		}
+	}
+
+	@BeforeAll
+	public static void setupHistory() throws IOException {
+		Path file = Files.createTempDirectory("history").resolve("history.txt");
+		Map<String, LaunchHistory.Record> results = new HashMap<>();
+		results.put(classId(PassedTest.class), new LaunchHistory.Record(Status.PASSED, 100));
+		results.put(classId(FailedTest.class), new LaunchHistory.Record(Status.FAILED, 10));
+		results.put(classId(SkippedTest.class), new LaunchHistory.Record(Status.SKIPPED, 1000));
+		LaunchHistory.update(file, results);
+		history = LaunchHistory.load(file);
+	}
+
+	private static String classId(Class<?> testClass) {
+		return "[engine:junit-jupiter]/[class:" + testClass.getName() + "]";
+	}
+
+	/**
+	 * @return test classes in the order they were executed with the given class orderer
+	 */
+	private static List<Class<?>> run(Class<?> orderer) {
+		LauncherDiscoveryRequestBuilder builder = LauncherDiscoveryRequestBuilder.request()
+				.configurationParameter("junit.jupiter.testclass.order.default", orderer.getName());
+		for (Class<?> testClass : CLASSES) {
+			builder.selectors(selectClass(testClass));
+		}
+		LauncherDiscoveryRequest request = builder.build();
+		List<Class<?>> executed = new CopyOnWriteArrayList<>();
+		TestExecutionListener listener = new TestExecutionListener() {
+			@Override
+			public void executionStarted(TestIdentifier identifier) {
+				identifier.getSource()
+						.filter(source -> source instanceof ClassSource)
+						.map(source -> ((ClassSource) source).getJavaClass())
+						.ifPresent(executed::add);
+			}
+		};
+		LauncherFactory.create(LauncherConfig.builder().enableTestExecutionListenerAutoRegistration(false).build())
+				.execute(request, listener);
+		return executed;
+	}
+
+	@Test
+	public void verify_failing_first_orderer_runs_failed_then_skipped_then_new_then_passed_classes() {
+		assertThat(run(TestFailingFirstClassOrderer.class), contains(FailedTest.class, SkippedTest.class, NewTest.class, PassedTest.class));
+	}
+
+	@Test
+	public void verify_longest_first_orderer_runs_classes_by_duration_and_new_ones_last() {
+		assertThat(run(TestLongestFirstClassOrderer.class), contains(SkippedTest.class, PassedTest.class, FailedTest.class, NewTest.class));
+	}
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import java.lang.annotation.*;
+
+/**
+ * Reports only the first invocations of a test template as separate items. Later invocations are counted in the statistics attached to
+ * the template item on its finish, and only failed ones of them are reported as separate items.
+ * <p>
+ * Overrides the threshold set with {@code aggregateInvocationsAfter} system property for the annotated method.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AggregateInvocations {
+
+	/**
+	 * @return number of invocations which are reported as separate items, zero or less turns the aggregation off
+	 */
+	int value();
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Detects retried tests by annotations of a test method. Annotations are matched by name, so retry extensions need not be on the
+ * classpath of the agent.
+ */
+public class AnnotationRetryDetector implements RetryDetector {
+
+	private static final Set<String> DEFAULT_ANNOTATIONS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+			"org.junit.jupiter.api.RepeatedTest",
+			"org.junitpioneer.jupiter.RetryingTest"
+	)));
+
+	private final Set<String> annotations;
+	private final Map<Method, Boolean> retries = new ConcurrentHashMap<>();
+
+	public AnnotationRetryDetector() {
+		this(DEFAULT_ANNOTATIONS);
+	}
+
+	/**
+	 * @param annotations fully qualified names of annotations which mark retried tests
+	 */
+	public AnnotationRetryDetector(Set<String> annotations) {
+		this.annotations = annotations;
+	}
+
+	@Override
+	public boolean isRetry(ExtensionContext context) {
+		return context.getTestMethod().map(m -> retries.computeIfAbsent(m, this::isAnnotated)).orElse(false);
+	}
+
+	private boolean isAnnotated(Method method) {
+		for (Annotation annotation : method.getAnnotations()) {
+			if (annotations.contains(annotation.annotationType().getName())) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
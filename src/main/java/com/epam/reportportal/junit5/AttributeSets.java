@@ -0,0 +1,84 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import com.epam.reportportal.annotations.attribute.Attributes;
+import com.epam.reportportal.utils.AttributeParser;
+import com.epam.ta.reportportal.ws.model.attribute.ItemAttributesRQ;
+
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Canonical attribute sets of test items. A suite has only a few distinct tag sets and {@link Attributes} annotations, so each of them
+ * is converted once and the same immutable set is shared by start requests of all items which have it.
+ */
+class AttributeSets {
+
+	private final Map<Set<String>, Set<ItemAttributesRQ>> tags = new ConcurrentHashMap<>();
+	private final Map<Method, Set<ItemAttributesRQ>> annotations = new ConcurrentHashMap<>();
+	private final Map<Set<ItemAttributesRQ>, Set<ItemAttributesRQ>> values = new ConcurrentHashMap<>();
+	private final Map<List<Set<ItemAttributesRQ>>, Set<ItemAttributesRQ>> unions = new ConcurrentHashMap<>();
+
+	/**
+	 * @param tagSet JUnit tags of an item
+	 * @return an immutable set of value-only attributes, one per tag
+	 */
+	Set<ItemAttributesRQ> fromTags(Set<String> tagSet) {
+		if (tagSet.isEmpty()) {
+			return Collections.emptySet();
+		}
+		return tags.computeIfAbsent(tagSet, t -> intern(t.stream().map(tag -> new ItemAttributesRQ(null, tag)).collect(Collectors.toSet())));
+	}
+
+	/**
+	 * @param method a test method
+	 * @return an immutable set of attributes declared with {@link Attributes} annotation on the method
+	 */
+	Set<ItemAttributesRQ> fromAnnotation(Method method) {
+		return annotations.computeIfAbsent(method, m -> ofNullable(m.getAnnotation(Attributes.class)).map(AttributeParser::retrieveAttributes)
+				.map(this::intern)
+				.orElse(Collections.emptySet()));
+	}
+
+	/**
+	 * @param first  a set returned by this cache
+	 * @param second a set returned by this cache
+	 * @return an immutable set which contains attributes of both sets
+	 */
+	Set<ItemAttributesRQ> union(Set<ItemAttributesRQ> first, Set<ItemAttributesRQ> second) {
+		if (first.isEmpty() || first == second) {
+			return second;
+		}
+		if (second.isEmpty()) {
+			return first;
+		}
+		return unions.computeIfAbsent(Arrays.asList(first, second), k -> {
+			Set<ItemAttributesRQ> result = new HashSet<>(first);
+			result.addAll(second);
+			return intern(result);
+		});
+	}
+
+	private Set<ItemAttributesRQ> intern(Set<ItemAttributesRQ> attributes) {
+		return values.computeIfAbsent(attributes, Collections::unmodifiableSet);
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import com.epam.reportportal.junit5.cache.ResultCache;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.annotation.Testable;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.junit.platform.commons.support.HierarchyTraversalMode;
+
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Collects outcomes of top-level test classes for the {@link ResultCache}. A class is recorded as passed only if all of its test methods,
+ * including the ones of nested classes, ran or were disabled by their own conditions, and none of its tests failed or was aborted.
+ */
+class CachedResults {
+
+	private final ResultCache resultCache = ResultCache.getShared();
+	private final Set<String> unsuccessfulClasses = ConcurrentHashMap.newKeySet();
+	private final Map<String, Set<Method>> completedTests = new ConcurrentHashMap<>();
+
+	boolean isEnabled() {
+		return resultCache.isEnabled();
+	}
+
+	/**
+	 * @return true if the class passed before, and neither it nor its dependencies changed since
+	 */
+	boolean isUnchanged(Class<?> testClass) {
+		return resultCache.isUnchanged(testClass);
+	}
+
+	/**
+	 * Remembers that a test of a class did not pass, so the class result is not cached.
+	 */
+	void markUnsuccessful(ExtensionContext context) {
+		if (resultCache.isEnabled()) {
+			unsuccessfulClasses.add(ReportPortalExtension.getTopLevelClass(context).getUniqueId());
+		}
+	}
+
+	/**
+	 * Remembers that a test method of a class ran, or was disabled by its condition.
+	 */
+	void markCompleted(ExtensionContext context) {
+		if (!resultCache.isEnabled()) {
+			return;
+		}
+		context.getTestMethod()
+				.ifPresent(method -> completedTests.computeIfAbsent(ReportPortalExtension.getTopLevelClass(context).getUniqueId(),
+						k -> ConcurrentHashMap.newKeySet()
+				).add(method));
+	}
+
+	/**
+	 * Records the result of a finished top-level class.
+	 *
+	 * @param failed the class item is failed
+	 */
+	void record(ExtensionContext context, boolean failed) {
+		if (!resultCache.isEnabled()) {
+			return;
+		}
+		boolean passed = !unsuccessfulClasses.remove(context.getUniqueId());
+		Set<Method> completed = ofNullable(completedTests.remove(context.getUniqueId())).orElse(Collections.emptySet());
+		// a class which ran partially, like with method selectors, rerun filters or fail-fast, did not pass as a whole
+		boolean success = passed && !failed && !context.getExecutionException().isPresent()
+				&& completed.containsAll(getTestMethods(context.getRequiredTestClass()));
+		resultCache.record(context.getRequiredTestClass(), success);
+	}
+
+	/**
+	 * @return test methods of a class and its nested classes
+	 */
+	private static Set<Method> getTestMethods(Class<?> testClass) {
+		Set<Method> methods = new HashSet<>(AnnotationSupport.findAnnotatedMethods(testClass, Testable.class, HierarchyTraversalMode.TOP_DOWN));
+		Arrays.stream(testClass.getDeclaredClasses())
+				.filter(nested -> AnnotationSupport.isAnnotated(nested, Nested.class))
+				.forEach(nested -> methods.addAll(getTestMethods(nested)));
+		return methods;
+	}
+
+	void addRetainedEntries(Map<String, Integer> entries) {
+		entries.put("unsuccessfulClasses", unsuccessfulClasses.size());
+		entries.put("completedTests", completedTests.size());
+	}
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * A journal of a launch kept in a local file: the launch UUID, UUIDs of started items and of items which finishes were sent, and test
+ * classes which items were finished. Lines are appended as the launch goes, so the journal survives a crash or a kill of the JVM.
+ * <p>
+ * A run in resume mode reads the journal of the previous run: completed classes are skipped, items which were started but not
+ * finished, test steps and nested containers as well as classes, are finished as interrupted, and the launch is continued as a rerun.
+ * A run without resume mode starts a new journal.
+ */
+class Checkpoint {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(Checkpoint.class);
+
+	static final String CHECKPOINT_FILE_PROPERTY = "checkpointFile";
+	static final String RESUME_PROPERTY = "resume";
+
+	private static final String LAUNCH = "launch";
+	private static final String START = "start";
+	private static final String FINISH = "finish";
+	private static final String DONE = "done";
+
+	private static final Checkpoint DISABLED = new Checkpoint(null, false);
+	private static final Map<Path, Checkpoint> SHARED = new ConcurrentHashMap<>();
+
+	private final Path file;
+	private final boolean resume;
+	private final String launchUuid;
+	private final Set<String> completed = new HashSet<>();
+	private final Set<String> dangling = new LinkedHashSet<>();
+	private Writer writer;
+
+	Checkpoint(Path file, boolean resume) {
+		this.file = file;
+		this.resume = resume;
+		String uuid = null;
+		if (file != null && resume && Files.exists(file)) {
+			try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					String[] fields = line.split("\t");
+					if (LAUNCH.equals(fields[0]) && fields.length == 2) {
+						uuid = fields[1];
+					} else if (START.equals(fields[0]) && fields.length == 2) {
+						dangling.add(fields[1]);
+					} else if (FINISH.equals(fields[0]) && fields.length == 2) {
+						dangling.remove(fields[1]);
+					} else if (DONE.equals(fields[0]) && fields.length == 2) {
+						completed.add(fields[1]);
+					}
+				}
+			} catch (IOException e) {
+				LOGGER.warn("Unable to read checkpoint from {}", file, e);
+			}
+		}
+		launchUuid = uuid;
+	}
+
+	/**
+	 * @return the checkpoint of this JVM for the file set with {@code checkpointFile} system property, a disabled one if it is not set
+	 */
+	static Checkpoint getShared() {
+		return ofNullable(System.getProperty(CHECKPOINT_FILE_PROPERTY)).filter(f -> !f.trim().isEmpty())
+				.map(Paths::get)
+				.map(file -> SHARED.computeIfAbsent(file, f -> new Checkpoint(f, Boolean.getBoolean(RESUME_PROPERTY))))
+				.orElse(DISABLED);
+	}
+
+	boolean isEnabled() {
+		return file != null;
+	}
+
+	/**
+	 * @return UUID of the launch to continue in resume mode
+	 */
+	Optional<String> getLaunchUuid() {
+		return ofNullable(launchUuid);
+	}
+
+	/**
+	 * @return UUIDs of items which were started but not finished before the resume, children before their parents
+	 */
+	List<String> getDanglingItems() {
+		List<String> items = new ArrayList<>(dangling);
+		Collections.reverse(items);
+		return items;
+	}
+
+	boolean isCompleted(String className) {
+		return completed.contains(className);
+	}
+
+	void launchStarted(String uuid) {
+		write(LAUNCH + "\t" + uuid);
+	}
+
+	void itemStarted(String itemUuid) {
+		write(START + "\t" + itemUuid);
+	}
+
+	void itemFinished(String itemUuid) {
+		write(FINISH + "\t" + itemUuid);
+	}
+
+	void classCompleted(String className) {
+		write(DONE + "\t" + className);
+	}
+
+	private synchronized void write(String line) {
+		try {
+			if (writer == null) {
+				ofNullable(file.toAbsolutePath().getParent()).ifPresent(dir -> dir.toFile().mkdirs());
+				// a resumed run continues the journal, otherwise it is started anew
+				writer = resume ?
+						Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND) :
+						Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+			}
+			writer.write(line);
+			writer.write('\n');
+			writer.flush();
+		} catch (IOException e) {
+			LOGGER.warn("Unable to write checkpoint to {}", file, e);
+		}
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import com.epam.reportportal.listeners.ListenerParameters;
+import com.epam.reportportal.service.Launch;
+import com.epam.reportportal.service.LoggingContext;
+import com.epam.reportportal.service.ReportPortal;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import io.reactivex.Maybe;
+import io.reactivex.schedulers.Schedulers;
+import io.reactivex.subjects.MaybeSubject;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A test item whose start request is held back until the item finishes, so the start and the finish requests are sent back-to-back.
+ * <p>
+ * The ID returned by {@link #getItemId()} can be handed out before the start is sent: it resolves to the real item ID as soon as
+ * {@link #start()} is called. The client binds its logging context to the thread which starts an item, so an item bound with
+ * {@link #bindLogs(ReportPortal, Maybe)} opens its own logging context on the thread which runs it and drops the one the client opens
+ * on start. Such an item can be started from any thread, e.g. by the flush timer of {@link #flushAfter(long)}.
+ */
+class DeferredItem {
+
+	private static volatile ScheduledExecutorService executor;
+
+	private final Launch launch;
+	private final Maybe<String> parentId;
+	private final StartTestItemRQ rq;
+	private final MaybeSubject<Maybe<String>> started = MaybeSubject.create();
+	private final Maybe<String> itemId = started.flatMap(id -> id).cache();
+	private volatile Maybe<String> startedId;
+	private volatile Thread boundThread;
+	private volatile ScheduledFuture<?> flush;
+
+	DeferredItem(Launch launch, Maybe<String> parentId, StartTestItemRQ rq) {
+		this.launch = launch;
+		this.parentId = parentId;
+		this.rq = rq;
+	}
+
+	Maybe<String> getItemId() {
+		return itemId;
+	}
+
+	/**
+	 * Opens a logging context of the item on the current thread, so logs emitted by the item are attached to it even while its start is
+	 * held back. The logs are sent as soon as the item ID resolves.
+	 *
+	 * @param rp         the reporter of the launch
+	 * @param launchUuid the launch UUID as it was returned on the launch start
+	 */
+	void bindLogs(ReportPortal rp, Maybe<String> launchUuid) {
+		ListenerParameters params = rp.getParameters();
+		LoggingContext.init(launchUuid, itemId, rp.getClient(), Schedulers.io(), params.getBatchLogsSize(), params.isConvertImage());
+		boundThread = Thread.currentThread();
+	}
+
+	/**
+	 * Schedules the start request to be sent if the item is still running after the given time. Only an item bound with
+	 * {@link #bindLogs(ReportPortal, Maybe)} is scheduled: the client would leave the logging context of an unbound item on the flush
+	 * timer, and the finish on the thread which runs the item would close the logging context of its parent instead.
+	 *
+	 * @param timeout the time in milliseconds after which the start is sent
+	 */
+	void flushAfter(long timeout) {
+		if (boundThread != null) {
+			flush = getExecutor().schedule(this::start, timeout, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Sends the start request if it has not been sent yet.
+	 *
+	 * @return the item ID returned by the launch, which should be used to finish the item
+	 */
+	synchronized Maybe<String> start() {
+		if (startedId == null) {
+			startedId = parentId == null ? launch.startTestItem(rq) : launch.startTestItem(parentId, rq);
+			Thread thread = boundThread;
+			if (thread != null) {
+				// the item already has its logging context on the thread which runs it
+				LoggingContext.complete();
+				if (thread != Thread.currentThread()) {
+					launch.getStepReporter().removeParent(startedId);
+				}
+			}
+			started.onSuccess(startedId);
+		}
+		return startedId;
+	}
+
+	/**
+	 * Sends the start request if it has not been sent yet and cancels the scheduled flush, to be called on the item finish.
+	 *
+	 * @return the item ID returned by the launch, which should be used to finish the item
+	 */
+	Maybe<String> release() {
+		ScheduledFuture<?> scheduled = flush;
+		if (scheduled != null) {
+			scheduled.cancel(false);
+		}
+		return start();
+	}
+
+	private static ScheduledExecutorService getExecutor() {
+		if (executor == null) {
+			synchronized (DeferredItem.class) {
+				if (executor == null) {
+					executor = Executors.newSingleThreadScheduledExecutor(r -> {
+						Thread thread = new Thread(r, "rp-deferred-start");
+						thread.setDaemon(true);
+						return thread;
+					});
+				}
+			}
+		}
+		return executor;
+	}
+}
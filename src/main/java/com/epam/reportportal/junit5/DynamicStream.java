@@ -0,0 +1,137 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import io.reactivex.Maybe;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Reported items of a test factory in streaming mode. A reported container is started by its first dynamic test and finished when its
+ * extension context is closed, after all of its dynamic tests, so only containers with running tests are kept. Passed tests are not
+ * reported, they are counted in the statistics of the nearest reported container.
+ * <p>
+ * The stream is kept in the store of the test factory and finishes the factory when the factory context is closed: dynamic tests of a
+ * concurrent execution can run after the factory method returns.
+ */
+class DynamicStream implements ExtensionContext.Store.CloseableResource {
+
+	static class Node implements ExtensionContext.Store.CloseableResource {
+		private final Node parent;
+		private final ExtensionContext context;
+		private final Maybe<String> itemId;
+		private final InvocationStatistics statistics = new InvocationStatistics();
+		private final Consumer<Node> finish;
+		private volatile boolean failed;
+
+		Node(Node parent, ExtensionContext context, Maybe<String> itemId, Consumer<Node> finish) {
+			this.parent = parent;
+			this.context = context;
+			this.itemId = itemId;
+			this.finish = finish;
+		}
+
+		ExtensionContext getContext() {
+			return context;
+		}
+
+		Maybe<String> getItemId() {
+			return itemId;
+		}
+
+		InvocationStatistics getStatistics() {
+			return statistics;
+		}
+
+		boolean isFailed() {
+			return failed;
+		}
+
+		@Override
+		public void close() {
+			finish.accept(this);
+		}
+	}
+
+	private final ExtensionContext.Namespace namespace;
+	private final Node factory;
+	private volatile Consumer<Node> factoryFinish;
+
+	/**
+	 * @param namespace a namespace of the extension, containers keep their nodes in their stores under it
+	 * @param factory   a context of the test factory
+	 * @param factoryId an item ID of the test factory
+	 */
+	DynamicStream(ExtensionContext.Namespace namespace, ExtensionContext factory, Maybe<String> factoryId) {
+		this.namespace = namespace;
+		this.factory = new Node(null, factory, factoryId, node -> {
+		});
+	}
+
+	/**
+	 * Returns the node of the innermost container of a dynamic test, starting the containers which have no node yet.
+	 *
+	 * @param containers      reported containers of a dynamic test, from the outermost one
+	 * @param startContainer  starts an item for a container under the given parent node and returns its ID
+	 * @param finishContainer finishes an item of a container, called when the container context is closed
+	 * @return the innermost node, a parent for the test
+	 */
+	Node enter(List<ExtensionContext> containers, BiFunction<Node, ExtensionContext, Maybe<String>> startContainer,
+			Consumer<Node> finishContainer) {
+		Node parent = factory;
+		for (ExtensionContext container : containers) {
+			Node containerParent = parent;
+			// keyed by the context: a lookup in the store of a container falls back to the stores of outer containers
+			parent = container.getStore(namespace)
+					.getOrComputeIfAbsent(container,
+							k -> new Node(containerParent, container, startContainer.apply(containerParent, container), finishContainer),
+							Node.class
+					);
+		}
+		return parent;
+	}
+
+	synchronized void record(Node node, Status status, long durationNanos) {
+		node.statistics.record(status, durationNanos);
+		if (Status.FAILED == status) {
+			// only the containers of the failed test, others may run concurrently
+			for (Node n = node; n != null; n = n.parent) {
+				n.failed = true;
+			}
+		}
+	}
+
+	/**
+	 * Holds back the finish of the test factory until the factory context is closed.
+	 *
+	 * @param finish finishes the item of the factory with the statistics of its node
+	 */
+	void finishOnClose(Consumer<Node> finish) {
+		factoryFinish = finish;
+	}
+
+	@Override
+	public void close() {
+		Consumer<Node> finish = factoryFinish;
+		if (finish != null) {
+			finish.accept(factory);
+		}
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Counts failed tests of each launch and disables the rest of the launch once {@code failFastAfter} failures are reached. Disabled
+ * tests are counted in their class, so they can be reported with a single item when the class finishes.
+ */
+class FailureBudget {
+
+	private static final String FAIL_FAST_AFTER_PROPERTY = "failFastAfter";
+	private static final String FAIL_FAST_SKIPPED = "FAIL_FAST_SKIPPED";
+	private static final String FAIL_FAST_REASON = "Failure budget exceeded: ";
+	private static final Map<String, AtomicInteger> LAUNCH_FAILURES = new ConcurrentHashMap<>();
+
+	private final ExtensionContext.Namespace namespace;
+	private final Function<ExtensionContext, String> launchIds;
+	private final int failFastAfter = Integer.getInteger(FAIL_FAST_AFTER_PROPERTY, 0);
+
+	/**
+	 * @param namespace a store namespace of the extension
+	 * @param launchIds IDs of launches which tests belong to
+	 */
+	FailureBudget(ExtensionContext.Namespace namespace, Function<ExtensionContext, String> launchIds) {
+		this.namespace = namespace;
+		this.launchIds = launchIds;
+	}
+
+	void countFailure(ExtensionContext context) {
+		if (failFastAfter > 0) {
+			getLaunchFailures(context).incrementAndGet();
+		}
+	}
+
+	/**
+	 * @param context        an extension context of a test or a container
+	 * @param retryOfFailure the test retries a failure which is already counted, and should not be disabled because of it
+	 * @return true if the test or the container should be disabled
+	 */
+	boolean isExceeded(ExtensionContext context, boolean retryOfFailure) {
+		return failFastAfter > 0 && getLaunchFailures(context).get() - (retryOfFailure ? 1 : 0) >= failFastAfter;
+	}
+
+	private AtomicInteger getLaunchFailures(ExtensionContext context) {
+		String launchId = launchIds.apply(context);
+		AtomicInteger failures = LAUNCH_FAILURES.get(launchId);
+		return failures == null ? LAUNCH_FAILURES.computeIfAbsent(launchId, k -> new AtomicInteger()) : failures;
+	}
+
+	/**
+	 * Disables a test or a container, a test is counted in its class.
+	 */
+	ConditionEvaluationResult disable(ExtensionContext context) {
+		if (context.getTestMethod().isPresent()) {
+			ExtensionContext testClass = context;
+			while (testClass.getTestMethod().isPresent() && testClass.getParent().isPresent()) {
+				testClass = testClass.getParent().get();
+			}
+			testClass.getStore(namespace).getOrComputeIfAbsent(FAIL_FAST_SKIPPED, k -> new AtomicInteger(), AtomicInteger.class)
+					.incrementAndGet();
+		}
+		return ConditionEvaluationResult.disabled(getReason());
+	}
+
+	/**
+	 * @return the number of disabled tests of a class, which is reset
+	 */
+	int removeDisabledTests(ExtensionContext context) {
+		return Optional.ofNullable(context.getStore(namespace).remove(FAIL_FAST_SKIPPED, AtomicInteger.class)).map(AtomicInteger::get).orElse(0);
+	}
+
+	String getReason() {
+		return FAIL_FAST_REASON + failFastAfter + " failures";
+	}
+
+	/**
+	 * @param reason a reason a test was disabled for
+	 * @return true if the test was disabled because the budget was exceeded
+	 */
+	static boolean isDisabledBy(Optional<String> reason) {
+		return reason.filter(r -> r.startsWith(FAIL_FAST_REASON)).isPresent();
+	}
+}
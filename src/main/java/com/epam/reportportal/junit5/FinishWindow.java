@@ -0,0 +1,47 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import io.reactivex.Maybe;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Limits the number of finished items whose requests are still queued by the client. Each finish holds a permit until its request is
+ * sent, so a thread which finishes an item waits only while the window is full, until one of the queued requests is sent. This keeps
+ * the queued requests in bounded memory on suites which produce items faster than they can be reported.
+ */
+class FinishWindow {
+
+	private final Semaphore permits;
+
+	/**
+	 * @param size number of finishes which can be queued at the same time, zero or less turns the limit off
+	 */
+	FinishWindow(int size) {
+		permits = size > 0 ? new Semaphore(size) : null;
+	}
+
+	void add(Maybe<?> finish) {
+		if (permits == null || finish == null) {
+			return;
+		}
+		permits.acquireUninterruptibly();
+		// errors are logged by the client, the window only waits for the request to complete
+		finish.onErrorComplete().doFinally(permits::release).subscribe();
+	}
+}
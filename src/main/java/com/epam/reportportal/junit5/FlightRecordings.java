@@ -0,0 +1,151 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.PlatformManagedObject;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A continuous Java Flight Recorder recording with the low-overhead {@code default} settings, from which the time of a test is dumped
+ * when the test turns out to be slow.
+ * <p>
+ * The recording keeps the last {@link #MAX_AGE} of events on disk, so longer tests are dumped from that age only. Flight Recorder is
+ * available since Java 11 and 8u262, the agent is built for Java 8, so the recorder is accessed by reflection and on other JVMs nothing
+ * is recorded.
+ */
+class FlightRecordings {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(FlightRecordings.class);
+
+	static final Duration MAX_AGE = Duration.ofMinutes(5);
+
+	private static final String RECORDING_CLASS = "jdk.jfr.Recording";
+	private static final String CONFIGURATION_CLASS = "jdk.jfr.Configuration";
+	private static final String MX_BEAN_CLASS = "jdk.management.jfr.FlightRecorderMXBean";
+	private static final String CONTENT_TYPE = "application/octet-stream";
+
+	private static volatile Object recording;
+	private static volatile Boolean started;
+
+	/**
+	 * Starts the recording once per JVM.
+	 *
+	 * @return {@code true} if the recording is running
+	 */
+	static boolean start() {
+		Boolean result = started;
+		if (result == null) {
+			synchronized (FlightRecordings.class) {
+				result = started;
+				if (result == null) {
+					result = startRecording();
+					started = result;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Dumps the events recorded between the given times. The recorder streams the dump in blocks, which are copied straight into the
+	 * attachment, so neither a temporary file nor the rest of the recording is read.
+	 *
+	 * @param name  a prefix of the attachment name
+	 * @param begin start of the test
+	 * @param end   finish of the test
+	 * @return the attachment with the recording, or empty if the recording is not running, cannot be dumped or has no events of the time
+	 */
+	static Optional<SaveLogRQ.File> dump(String name, Instant begin, Instant end) {
+		if (!Boolean.TRUE.equals(started)) {
+			return Optional.empty();
+		}
+		try {
+			byte[] content = dump(begin, end);
+			if (content.length == 0) {
+				return Optional.empty();
+			}
+			SaveLogRQ.File attachment = new SaveLogRQ.File();
+			attachment.setName("rp-" + name.replaceAll("[^\\w.-]", "_") + "-" + begin.toEpochMilli() + ".jfr");
+			attachment.setContentType(CONTENT_TYPE);
+			attachment.setContent(content);
+			return Optional.of(attachment);
+		} catch (Exception e) {
+			LOGGER.warn("Unable to dump the flight recording", e);
+			return Optional.empty();
+		}
+	}
+
+	private static boolean startRecording() {
+		try {
+			Class<?> recordingClass = Class.forName(RECORDING_CLASS);
+			Class<?> configurationClass = Class.forName(CONFIGURATION_CLASS);
+			Object configuration = configurationClass.getMethod("getConfiguration", String.class).invoke(null, "default");
+			Object newRecording = recordingClass.getConstructor(configurationClass).newInstance(configuration);
+			recordingClass.getMethod("setName", String.class).invoke(newRecording, "ReportPortal slow tests");
+			recordingClass.getMethod("setToDisk", boolean.class).invoke(newRecording, true);
+			recordingClass.getMethod("setMaxAge", Duration.class).invoke(newRecording, MAX_AGE);
+			recordingClass.getMethod("start").invoke(newRecording);
+			recording = newRecording;
+			return true;
+		} catch (ClassNotFoundException e) {
+			LOGGER.warn("Flight Recorder is not available in the JVM, slow tests will be reported without recordings");
+			return false;
+		} catch (LinkageError | Exception e) {
+			LOGGER.warn("Unable to start a flight recording, slow tests will be reported without it", e);
+			return false;
+		}
+	}
+
+	private static byte[] dump(Instant begin, Instant end) throws Exception {
+		Class<?> recordingClass = recording.getClass();
+		Class<? extends PlatformManagedObject> beanClass = Class.forName(MX_BEAN_CLASS).asSubclass(PlatformManagedObject.class);
+		Object bean = ManagementFactory.getPlatformMXBean(beanClass);
+		// a stopped copy is dumped, so its events are flushed and the recording itself keeps running
+		Object copy = recordingClass.getMethod("copy", boolean.class).invoke(recording, true);
+		Method close = recordingClass.getMethod("close");
+		try {
+			Map<String, String> options = new HashMap<>();
+			options.put("startTime", begin.toString());
+			options.put("endTime", end.toString());
+			long id = (Long) recordingClass.getMethod("getId").invoke(copy);
+			long stream = (Long) beanClass.getMethod("openStream", long.class, Map.class).invoke(bean, id, options);
+			Method read = beanClass.getMethod("readStream", long.class);
+			try {
+				ByteArrayOutputStream content = new ByteArrayOutputStream();
+				for (byte[] block = (byte[]) read.invoke(bean, stream); block != null; block = (byte[]) read.invoke(bean, stream)) {
+					content.write(block);
+				}
+				return content.toByteArray();
+			} finally {
+				beanClass.getMethod("closeStream", long.class).invoke(bean, stream);
+			}
+		} finally {
+			close.invoke(copy);
+		}
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import com.epam.reportportal.service.ReportPortal;
+import com.epam.ta.reportportal.ws.model.attribute.ItemAttributesRQ;
+import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.Optional;
+
+/**
+ * Opens a {@link GcPauses.Tracker} for each class and test while {@code gcPauseThreshold} system property is set: the long pauses are
+ * logged into steps, and suites get the total time of all pauses.
+ */
+class GcPauseMonitor {
+
+	private static final String GC_PAUSE_THRESHOLD_PROPERTY = "gcPauseThreshold";
+	private static final String GC_TRACKER = "GC_TRACKER";
+
+	private final ExtensionContext.Namespace namespace;
+	private final long threshold = Long.getLong(GC_PAUSE_THRESHOLD_PROPERTY, -1L);
+
+	GcPauseMonitor(ExtensionContext.Namespace namespace) {
+		this.namespace = namespace;
+	}
+
+	void track(ExtensionContext context) {
+		if (threshold >= 0 && GcPauses.isSupported()) {
+			context.getStore(namespace).put(GC_TRACKER, GcPauses.track(threshold));
+		}
+	}
+
+	/**
+	 * Closes the tracker of an item before it finishes. Called from the test thread, so the logs of the pauses go to the step.
+	 *
+	 * @return the total time attribute of a suite
+	 */
+	Optional<ItemAttributesRQ> finish(ExtensionContext context) {
+		GcPauses.Tracker tracker = context.getStore(namespace).remove(GC_TRACKER, GcPauses.Tracker.class);
+		if (tracker == null) {
+			return Optional.empty();
+		}
+		tracker.stop();
+		if (context.getTestMethod().isPresent()) {
+			tracker.getPauses().forEach(GcPauseMonitor::sendGcPauseToRP);
+			return Optional.empty();
+		}
+		return Optional.of(new ItemAttributesRQ(GcPauses.GC_TIME_ATTRIBUTE, tracker.getTotalTime() + " ms"));
+	}
+
+	/**
+	 * Closes the tracker of a test which is not reported as an item.
+	 */
+	void stop(ExtensionContext context) {
+		Optional.ofNullable(context.getStore(namespace).remove(GC_TRACKER, GcPauses.Tracker.class)).ifPresent(GcPauses.Tracker::stop);
+	}
+
+	private static void sendGcPauseToRP(final GcPauses.Pause pause) {
+		ReportPortal.emitLog(itemUuid -> {
+			SaveLogRQ rq = new SaveLogRQ();
+			rq.setItemUuid(itemUuid);
+			rq.setLevel("WARN");
+			rq.setLogTime(pause.getTime());
+			rq.setMessage(pause.getDescription());
+			return rq;
+		});
+	}
+}
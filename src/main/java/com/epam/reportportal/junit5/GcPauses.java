@@ -0,0 +1,174 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Garbage collection pauses which happened while test items were running.
+ * <p>
+ * The pauses come from notifications of {@link GarbageCollectorMXBean}s, which the JVM sends from its own thread shortly after each
+ * collection, and are added to every {@link Tracker} open at that moment. Concurrent phases of collectors are not pauses and are
+ * skipped. Listeners are added by the nested {@code Notifications} class, which decodes the notifications with
+ * {@code GarbageCollectionNotificationInfo}; if the JVM cannot link it, a warning is logged and trackers stay empty.
+ */
+class GcPauses {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(GcPauses.class);
+
+	static final String GC_TIME_ATTRIBUTE = "gcTime";
+
+	private static final Set<Tracker> TRACKERS = ConcurrentHashMap.newKeySet();
+	private static final boolean SUPPORTED = subscribe();
+
+	/**
+	 * A collection pause.
+	 */
+	static class Pause {
+		private final Date time;
+		private final long duration;
+		private final String description;
+
+		Pause(Date time, long duration, String description) {
+			this.time = time;
+			this.duration = duration;
+			this.description = description;
+		}
+
+		Date getTime() {
+			return time;
+		}
+
+		/**
+		 * @return the pause duration in milliseconds
+		 */
+		long getDuration() {
+			return duration;
+		}
+
+		String getDescription() {
+			return description;
+		}
+	}
+
+	/**
+	 * Collects the pauses from its creation till {@link #stop()}: the total time of all pauses and the pauses not shorter than the
+	 * threshold.
+	 */
+	static class Tracker {
+		private final long threshold;
+		private final AtomicLong totalTime = new AtomicLong();
+		private final Queue<Pause> pauses = new ConcurrentLinkedQueue<>();
+
+		private Tracker(long threshold) {
+			this.threshold = threshold;
+		}
+
+		private void add(Pause pause) {
+			totalTime.addAndGet(pause.getDuration());
+			if (pause.getDuration() >= threshold) {
+				pauses.add(pause);
+			}
+		}
+
+		Tracker stop() {
+			TRACKERS.remove(this);
+			return this;
+		}
+
+		/**
+		 * @return the total time of the pauses in milliseconds
+		 */
+		long getTotalTime() {
+			return totalTime.get();
+		}
+
+		List<Pause> getPauses() {
+			return new ArrayList<>(pauses);
+		}
+	}
+
+	static boolean isSupported() {
+		return SUPPORTED;
+	}
+
+	/**
+	 * @param threshold the minimal duration of pauses kept by the tracker, in milliseconds
+	 * @return an open tracker
+	 */
+	static Tracker track(long threshold) {
+		Tracker tracker = new Tracker(threshold);
+		TRACKERS.add(tracker);
+		return tracker;
+	}
+
+	static void onPause(Pause pause) {
+		TRACKERS.forEach(tracker -> tracker.add(pause));
+	}
+
+	private static boolean subscribe() {
+		try {
+			return Notifications.subscribe();
+		} catch (LinkageError e) {
+			LOGGER.warn("Garbage collection notifications are not supported by the JVM", e);
+			return false;
+		}
+	}
+
+	private static final class Notifications {
+		private static boolean subscribe() {
+			boolean subscribed = false;
+			for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+				if (collector instanceof NotificationEmitter) {
+					((NotificationEmitter) collector).addNotificationListener(Notifications::onNotification, null, null);
+					subscribed = true;
+				}
+			}
+			return subscribed;
+		}
+
+		private static void onNotification(Notification notification, Object handback) {
+			if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+				return;
+			}
+			GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+			String name = info.getGcName();
+			String action = info.getGcAction();
+			if (name.endsWith(" Cycles") || action.toLowerCase(Locale.US).contains("concurrent")) {
+				return;
+			}
+			long duration = info.getGcInfo().getDuration();
+			Date time = new Date(ManagementFactory.getRuntimeMXBean().getStartTime() + info.getGcInfo().getStartTime());
+			onPause(new Pause(time,
+					duration,
+					String.format("GC pause of %d ms: %s, %s, cause: %s", duration, name, action, info.getGcCause())
+			));
+		}
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import com.epam.reportportal.junit5.history.LaunchHistory;
+import com.epam.reportportal.service.ReportPortal;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.Calendar;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Puts each test under a {@link HangWatchdog} watch: with {@code hangThreshold} system property a hung test gets its thread dump, and
+ * is interrupted if {@code interruptHungTests} is set. With {@code adaptiveTimeoutFactor} a test with a passed history is interrupted
+ * after its adaptive timeout, if that comes before the hang threshold.
+ */
+class HangMonitor {
+
+	private static final String HANG_THRESHOLD_PROPERTY = "hangThreshold";
+	private static final String INTERRUPT_HUNG_TESTS_PROPERTY = "interruptHungTests";
+	private static final String ADAPTIVE_TIMEOUT_FACTOR_PROPERTY = "adaptiveTimeoutFactor";
+	private static final String ADAPTIVE_TIMEOUT_FLOOR_PROPERTY = "adaptiveTimeoutFloor";
+	private static final double ADAPTIVE_TIMEOUT_PERCENTILE = 99;
+	private static final String HANG_WATCH = "HANG_WATCH";
+
+	private final ExtensionContext.Namespace namespace;
+	private final Supplier<LaunchHistory> history;
+	private final long hangThreshold = Long.getLong(HANG_THRESHOLD_PROPERTY, 0L);
+	private final boolean interruptHungTests = Boolean.getBoolean(INTERRUPT_HUNG_TESTS_PROPERTY);
+	private final double adaptiveTimeoutFactor = Double.parseDouble(System.getProperty(ADAPTIVE_TIMEOUT_FACTOR_PROPERTY, "0"));
+	private final long adaptiveTimeoutFloor = Long.getLong(ADAPTIVE_TIMEOUT_FLOOR_PROPERTY, 5000L);
+
+	HangMonitor(ExtensionContext.Namespace namespace, Supplier<LaunchHistory> history) {
+		this.namespace = namespace;
+		this.history = history;
+	}
+
+	void watch(ExtensionContext context) {
+		long timeout = getAdaptiveTimeout(context);
+		if (timeout > 0 && (hangThreshold <= 0 || timeout < hangThreshold)) {
+			context.getStore(namespace).put(HANG_WATCH, HangWatchdog.watch(context.getDisplayName(), timeout, true));
+		} else if (hangThreshold > 0) {
+			context.getStore(namespace).put(HANG_WATCH, HangWatchdog.watch(context.getDisplayName(), hangThreshold, interruptHungTests));
+		}
+	}
+
+	/**
+	 * A timeout of a test is the 99th percentile of its durations in recent passed launches multiplied by the factor, but not less
+	 * than the floor. The durations are kept whatever the last status is, so a test failed by the timeout keeps it in the next launch.
+	 * Tests without a passed result in the history and invocations of test templates, whose history is summed over all invocations,
+	 * get no timeout.
+	 * <p>
+	 * The timeout interrupts the test thread, so a test which ignores interruptions, like a CPU-bound loop, fails only when it
+	 * completes, and one which never completes is not stopped.
+	 *
+	 * @return the timeout in milliseconds, or 0 if the test has no timeout
+	 */
+	private long getAdaptiveTimeout(ExtensionContext context) {
+		if (adaptiveTimeoutFactor <= 0 || context.getParent().flatMap(ExtensionContext::getTestMethod).isPresent()) {
+			return 0;
+		}
+		OptionalDouble duration = history.get()
+				.get(context.getUniqueId())
+				.map(record -> record.getPassedDurationPercentile(ADAPTIVE_TIMEOUT_PERCENTILE))
+				.orElseGet(OptionalDouble::empty);
+		return duration.isPresent() ? Math.max(adaptiveTimeoutFloor, (long) (duration.getAsDouble() * adaptiveTimeoutFactor)) : 0;
+	}
+
+	/**
+	 * Fails a test interrupted by the watchdog with a timeout, the failure of the test itself, if any, becomes the cause.
+	 */
+	void failIfInterrupted(ExtensionContext context, Throwable cause) throws TimeoutException {
+		HangWatchdog.Watch watch = context.getStore(namespace).get(HANG_WATCH, HangWatchdog.Watch.class);
+		if (watch != null && watch.isInterrupted()) {
+			String message = context.getDisplayName() + " timed out after " + watch.getThreshold() + " milliseconds";
+			TimeoutException timeout = new TimeoutException(message);
+			timeout.initCause(cause);
+			throw timeout;
+		}
+	}
+
+	/**
+	 * Stops the watch of a test before its item finishes, and logs the thread dump of a hung test to it.
+	 */
+	void finish(ExtensionContext context) {
+		Optional.ofNullable(context.getStore(namespace).remove(HANG_WATCH, HangWatchdog.Watch.class))
+				.map(HangWatchdog.Watch::stop)
+				.map(HangWatchdog.Watch::getReport)
+				.ifPresent(report -> ReportPortal.emitLog(report, "ERROR", Calendar.getInstance().getTime()));
+	}
+
+	/**
+	 * Stops the watch of a test which is not reported as an item.
+	 */
+	void stop(ExtensionContext context) {
+		Optional.ofNullable(context.getStore(namespace).remove(HANG_WATCH, HangWatchdog.Watch.class)).ifPresent(HangWatchdog.Watch::stop);
+	}
+}
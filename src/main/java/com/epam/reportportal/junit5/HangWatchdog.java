@@ -0,0 +1,214 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import com.epam.reportportal.service.ReportPortal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.LockInfo;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MonitorInfo;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.Calendar;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A daemon thread which watches running tests. When a test runs longer than its threshold, the watchdog takes a dump of all threads,
+ * with deadlocked threads first, logs it to the launch at once, since a hung test may never finish its item, and optionally
+ * interrupts the test thread. The dump is also logged to the test item when the test finishes.
+ */
+class HangWatchdog {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(HangWatchdog.class);
+
+	private static final long CHECK_PERIOD_MILLIS = 250;
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+	private static final boolean LOCKED_MONITORS = THREADS.isObjectMonitorUsageSupported();
+	private static final boolean LOCKED_SYNCHRONIZERS = THREADS.isSynchronizerUsageSupported();
+	private static final Set<Watch> WATCHES = ConcurrentHashMap.newKeySet();
+
+	private static volatile ScheduledExecutorService executor;
+
+	/**
+	 * A running test. The watchdog interrupts the test thread and the test thread stops the watch under the lock of the watch, so a
+	 * stopped watch is never interrupted and an interrupt delivered before the stop is always cleared by it.
+	 */
+	static class Watch {
+		private final Thread thread = Thread.currentThread();
+		private final long start = System.nanoTime();
+		private final String name;
+		private final long threshold;
+		private final boolean interrupt;
+		private volatile String report;
+		private volatile boolean interrupted;
+		private boolean stopped;
+
+		private Watch(String name, long threshold, boolean interrupt) {
+			this.name = name;
+			this.threshold = threshold;
+			this.interrupt = interrupt;
+		}
+
+		/**
+		 * Stops watching the test and clears the interrupted status set by the watchdog. Should be called from the test thread.
+		 *
+		 * @return the watch
+		 */
+		Watch stop() {
+			WATCHES.remove(this);
+			synchronized (this) {
+				stopped = true;
+				if (interrupted && thread == Thread.currentThread()) {
+					Thread.interrupted();
+				}
+			}
+			return this;
+		}
+
+		private synchronized void interrupt() {
+			if (!stopped) {
+				interrupted = true;
+				thread.interrupt();
+			}
+		}
+
+		/**
+		 * @return the thread dump taken when the test exceeded the threshold, or {@code null} if it did not
+		 */
+		String getReport() {
+			return report;
+		}
+
+		boolean isInterrupted() {
+			return interrupted;
+		}
+
+		long getThreshold() {
+			return threshold;
+		}
+	}
+
+	/**
+	 * Starts watching a test run by the current thread.
+	 *
+	 * @param name      the test name for the launch log
+	 * @param threshold the duration in milliseconds after which the test is considered hung
+	 * @param interrupt whether to interrupt the test thread when it is hung
+	 * @return the watch to stop when the test finishes
+	 */
+	static Watch watch(String name, long threshold, boolean interrupt) {
+		startExecutor();
+		Watch watch = new Watch(name, threshold, interrupt);
+		WATCHES.add(watch);
+		return watch;
+	}
+
+	static void check() {
+		long now = System.nanoTime();
+		for (Watch watch : WATCHES) {
+			if (watch.report != null || TimeUnit.NANOSECONDS.toMillis(now - watch.start) < watch.threshold) {
+				continue;
+			}
+			String report = "Test '" + watch.name + "' has been running for more than " + watch.threshold + " ms\n" + dumpThreads();
+			watch.report = report;
+			LOGGER.warn(report);
+			ReportPortal.emitLaunchLog(report, "ERROR", Calendar.getInstance().getTime());
+			if (watch.interrupt) {
+				watch.interrupt();
+			}
+		}
+	}
+
+	static String dumpThreads() {
+		StringBuilder dump = new StringBuilder();
+		long[] deadlocked = LOCKED_SYNCHRONIZERS ? THREADS.findDeadlockedThreads() : THREADS.findMonitorDeadlockedThreads();
+		if (deadlocked != null) {
+			dump.append("Deadlocked threads:\n\n");
+			for (ThreadInfo info : THREADS.getThreadInfo(deadlocked, LOCKED_MONITORS, LOCKED_SYNCHRONIZERS)) {
+				appendThread(dump, info);
+			}
+			dump.append("All threads:\n\n");
+		}
+		for (ThreadInfo info : THREADS.dumpAllThreads(LOCKED_MONITORS, LOCKED_SYNCHRONIZERS)) {
+			appendThread(dump, info);
+		}
+		return dump.toString();
+	}
+
+	/**
+	 * Formats a thread like {@link ThreadInfo#toString()}, but with all frames of the stack.
+	 */
+	private static void appendThread(StringBuilder dump, ThreadInfo info) {
+		if (info == null) {
+			return;
+		}
+		dump.append('"').append(info.getThreadName()).append("\" Id=").append(info.getThreadId()).append(' ').append(info.getThreadState());
+		if (info.getLockName() != null) {
+			dump.append(" on ").append(info.getLockName());
+		}
+		if (info.getLockOwnerName() != null) {
+			dump.append(" owned by \"").append(info.getLockOwnerName()).append("\" Id=").append(info.getLockOwnerId());
+		}
+		dump.append('\n');
+		StackTraceElement[] stackTrace = info.getStackTrace();
+		for (int i = 0; i < stackTrace.length; i++) {
+			dump.append("\tat ").append(stackTrace[i]).append('\n');
+			for (MonitorInfo monitor : info.getLockedMonitors()) {
+				if (monitor.getLockedStackDepth() == i) {
+					dump.append("\t-  locked ").append(monitor).append('\n');
+				}
+			}
+		}
+		LockInfo[] synchronizers = info.getLockedSynchronizers();
+		if (synchronizers.length > 0) {
+			dump.append("\n\tLocked synchronizers:\n");
+			for (LockInfo synchronizer : synchronizers) {
+				dump.append("\t- ").append(synchronizer).append('\n');
+			}
+		}
+		dump.append('\n');
+	}
+
+	private static void startExecutor() {
+		if (executor == null) {
+			synchronized (HangWatchdog.class) {
+				if (executor == null) {
+					ScheduledExecutorService service = Executors.newSingleThreadScheduledExecutor(r -> {
+						Thread thread = new Thread(r, "rp-hang-watchdog");
+						thread.setDaemon(true);
+						return thread;
+					});
+					service.scheduleWithFixedDelay(() -> {
+						try {
+							check();
+						} catch (RuntimeException e) {
+							// an exception would cancel the periodic check
+							LOGGER.warn("Unable to check running tests", e);
+						}
+					}, CHECK_PERIOD_MILLIS, CHECK_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+					executor = service;
+				}
+			}
+		}
+	}
+}
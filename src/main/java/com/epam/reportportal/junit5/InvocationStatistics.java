@@ -0,0 +1,122 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import com.epam.ta.reportportal.ws.model.attribute.ItemAttributesRQ;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome counts and duration percentiles of test template invocations. Durations are kept in a log-linear histogram, so memory does
+ * not depend on the number of invocations and a percentile is reported with a relative error below 1/16.
+ */
+class InvocationStatistics {
+
+	private static final int SUB_BUCKET_BITS = 4;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int[] PERCENTILES = { 50, 90, 99 };
+
+	private final long[] histogram = new long[64 * SUB_BUCKETS];
+	private int invocations;
+	private long passed;
+	private long failed;
+	private long skipped;
+	private long maxDuration;
+
+	/**
+	 * @return a sequence number of a started invocation, starting from one
+	 */
+	synchronized int nextInvocation() {
+		return ++invocations;
+	}
+
+	synchronized void record(Status status, long durationNanos) {
+		switch (status) {
+			case PASSED:
+				passed++;
+				break;
+			case FAILED:
+				failed++;
+				break;
+			default:
+				skipped++;
+		}
+		long duration = TimeUnit.NANOSECONDS.toMicros(Math.max(durationNanos, 0));
+		histogram[bucket(duration)]++;
+		maxDuration = Math.max(maxDuration, duration);
+	}
+
+	synchronized boolean isEmpty() {
+		return passed + failed + skipped == 0;
+	}
+
+	synchronized Set<ItemAttributesRQ> getAttributes() {
+		Set<ItemAttributesRQ> attributes = new HashSet<>();
+		attributes.add(new ItemAttributesRQ("invocations", Long.toString(passed + failed + skipped)));
+		attributes.add(new ItemAttributesRQ("passed", Long.toString(passed)));
+		attributes.add(new ItemAttributesRQ("failed", Long.toString(failed)));
+		attributes.add(new ItemAttributesRQ("skipped", Long.toString(skipped)));
+		if (passed + failed + skipped > 0) {
+			for (int percentile : PERCENTILES) {
+				attributes.add(new ItemAttributesRQ("p" + percentile, toMillis(getPercentile(percentile))));
+			}
+			attributes.add(new ItemAttributesRQ("max", toMillis(maxDuration)));
+		}
+		return attributes;
+	}
+
+	private long getPercentile(int percentile) {
+		long total = passed + failed + skipped;
+		long rank = Math.max(1, (total * percentile + 99) / 100);
+		long count = 0;
+		for (int i = 0; i < histogram.length; i++) {
+			count += histogram[i];
+			if (count >= rank) {
+				return Math.min(upperBound(i), maxDuration);
+			}
+		}
+		return maxDuration;
+	}
+
+	private static String toMillis(long micros) {
+		return BigDecimal.valueOf(micros, 3).stripTrailingZeros().toPlainString() + " ms";
+	}
+
+	/**
+	 * Values below {@link #SUB_BUCKETS} have a bucket each, every next power of two range is split into {@link #SUB_BUCKETS} buckets.
+	 */
+	static int bucket(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return ((exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) + subBucket;
+	}
+
+	static long upperBound(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int shift = (bucket >>> SUB_BUCKET_BITS) - 1;
+		long lowerBound = (long) (SUB_BUCKETS + (bucket & (SUB_BUCKETS - 1))) << shift;
+		return lowerBound + (1L << shift) - 1;
+	}
+}
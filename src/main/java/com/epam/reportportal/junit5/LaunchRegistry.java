@@ -0,0 +1,87 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import com.epam.reportportal.service.Launch;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Registry of launches started by the agent, one launch per test run.
+ * <p>
+ * A launch is started outside of the map: the map only publishes a once-holder for a launch ID, so a thread never waits on map
+ * internals while another thread builds and starts a launch. Threads which ask for the same launch during its start wait for that
+ * launch only. After the start the lookup of the last used launch is a single volatile read.
+ */
+class LaunchRegistry {
+
+	private final Map<String, LaunchHolder> launches = new ConcurrentHashMap<>();
+	private volatile StartedLaunch current;
+
+	Launch getLaunch(String launchId, Function<String, Launch> launchStarter) {
+		StartedLaunch started = current;
+		if (started != null && started.launchId.equals(launchId)) {
+			return started.launch;
+		}
+		Launch launch = launches.computeIfAbsent(launchId, LaunchHolder::new).get(launchStarter);
+		current = new StartedLaunch(launchId, launch);
+		return launch;
+	}
+
+	/**
+	 * @return the number of launch IDs the registry keeps, one per test run
+	 */
+	int size() {
+		return launches.size();
+	}
+
+	private static final class StartedLaunch {
+		private final String launchId;
+		private final Launch launch;
+
+		private StartedLaunch(String launchId, Launch launch) {
+			this.launchId = launchId;
+			this.launch = launch;
+		}
+	}
+
+	private static final class LaunchHolder {
+		private final String launchId;
+		private volatile Launch launch;
+
+		private LaunchHolder(String launchId) {
+			this.launchId = launchId;
+		}
+
+		private Launch get(Function<String, Launch> launchStarter) {
+			Launch result = launch;
+			if (result == null) {
+				synchronized (this) {
+					result = launch;
+					if (result == null) {
+						// if the start fails the holder stays empty and the next caller tries again
+						result = launchStarter.apply(launchId);
+						launch = result;
+					}
+				}
+			}
+			return result;
+		}
+	}
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import io.reactivex.Maybe;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.core.LauncherConfig;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Optional.ofNullable;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectMethod;
+
+/**
+ * A retry of a failed quarantined test, run by a separate JUnit launcher execution, so the test gets a new instance, its fixtures and
+ * extensions like on the first attempt. Containers of the test are not reported again by the retry: their items from the original
+ * execution are used, so the attempt is reported next to the failed one. The retry runs while the class of the original execution is
+ * still set up, so static {@code @BeforeAll} and {@code @AfterAll} methods are skipped, and post-discovery filters of the build, like
+ * sharding, are not applied to the selected method again.
+ */
+class QuarantineAttempt {
+
+	static final String ATTEMPT_PARAMETER = "rp.quarantineAttempt";
+
+	private static final Map<String, QuarantineAttempt> ATTEMPTS = new ConcurrentHashMap<>();
+
+	private final String id = UUID.randomUUID().toString();
+	private final int number;
+	private final Map<String, Maybe<String>> containers;
+
+	/**
+	 * @param number     a sequence number of the attempt, starting from two for the first retry
+	 * @param containers item IDs of containers of the test by their unique IDs
+	 */
+	QuarantineAttempt(int number, Map<String, Maybe<String>> containers) {
+		this.number = number;
+		this.containers = containers;
+	}
+
+	/**
+	 * @param context a context of a test or a container
+	 * @return the attempt which runs the context, empty if the context runs in a regular execution
+	 */
+	static Optional<QuarantineAttempt> get(ExtensionContext context) {
+		return context.getConfigurationParameter(ATTEMPT_PARAMETER).map(ATTEMPTS::get);
+	}
+
+	int getNumber() {
+		return number;
+	}
+
+	/**
+	 * @param uniqueId a unique ID of a container
+	 * @return an item ID of the container from the original execution
+	 */
+	Optional<Maybe<String>> getContainerId(String uniqueId) {
+		return ofNullable(containers.get(uniqueId));
+	}
+
+	/**
+	 * Runs a test method again.
+	 *
+	 * @param testClass a class of the test
+	 * @param method    the test method
+	 * @return the failure of the attempt, or null if it passed
+	 */
+	Throwable run(Class<?> testClass, Method method) {
+		LauncherDiscoveryRequest request = LauncherDiscoveryRequestBuilder.request()
+				.selectors(selectMethod(testClass, method))
+				.configurationParameter(ATTEMPT_PARAMETER, id)
+				.build();
+		AtomicReference<Throwable> failure = new AtomicReference<>(new IllegalStateException(
+				"Attempt " + number + " of " + method.getName() + " did not run"));
+		ATTEMPTS.put(id, this);
+		try {
+			// listeners of the build, like the launch history recorder, see the test once
+			LauncherConfig.Builder config = LauncherConfig.builder().enableTestExecutionListenerAutoRegistration(false);
+			disablePostDiscoveryFilterAutoRegistration(config);
+			LauncherFactory.create(config.build()).execute(request, new TestExecutionListener() {
+				@Override
+				public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult result) {
+					if (testIdentifier.isTest() || result.getStatus() != TestExecutionResult.Status.SUCCESSFUL) {
+						failure.set(result.getThrowable().orElse(null));
+					}
+				}
+			});
+		} finally {
+			ATTEMPTS.remove(id);
+		}
+		return failure.get();
+	}
+
+	/**
+	 * Platform 1.7 and later registers post-discovery filters found on the class path in every launcher, a sharding filter would drop the
+	 * method if it hashed the single class plan of the retry to another shard.
+	 */
+	private static void disablePostDiscoveryFilterAutoRegistration(LauncherConfig.Builder config) {
+		try {
+			LauncherConfig.Builder.class.getMethod("enablePostDiscoveryFilterAutoRegistration", boolean.class).invoke(config, false);
+		} catch (NoSuchMethodException e) {
+			// earlier versions do not register filters automatically
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Unable to configure a launcher for the retry", e);
+		}
+	}
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import com.epam.reportportal.junit5.history.Quarantine;
+import com.epam.ta.reportportal.ws.model.attribute.ItemAttributesRQ;
+import io.reactivex.Maybe;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.InvocationInterceptor.Invocation;
+import org.opentest4j.TestAbortedException;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Runs tests which the {@link Quarantine} knows as flaky and retries them through JUnit, with their fixtures, if they fail, up to
+ * {@code quarantineRetries} times. Each retry is reported as a retry item of the test, the test item gets its flakiness and the number
+ * of attempts it took as attributes.
+ */
+class QuarantineRunner {
+
+	static final String ATTEMPTS_ATTRIBUTE = "attempts";
+
+	private static final String QUARANTINE = "QUARANTINE";
+	private static final String QUARANTINE_RETRIES_PROPERTY = "quarantineRetries";
+	private static final String QUARANTINED_ATTRIBUTE = "quarantined";
+
+	private final ExtensionContext.Namespace namespace;
+	private final Supplier<Quarantine> quarantine;
+	private final Function<ExtensionContext, Maybe<String>> itemIds;
+	private final int retries = Integer.getInteger(QUARANTINE_RETRIES_PROPERTY, 2);
+
+	/**
+	 * @param namespace  a store namespace of the extension
+	 * @param quarantine a quarantine of the launch
+	 * @param itemIds    item IDs of started containers
+	 */
+	QuarantineRunner(ExtensionContext.Namespace namespace, Supplier<Quarantine> quarantine,
+			Function<ExtensionContext, Maybe<String>> itemIds) {
+		this.namespace = namespace;
+		this.quarantine = quarantine;
+		this.itemIds = itemIds;
+	}
+
+	/**
+	 * Runs a test method, with retries if the test is quarantined.
+	 */
+	void proceed(Invocation<Void> invocation, ExtensionContext context) throws Throwable {
+		OptionalDouble flakiness = quarantine.get().getFlakiness(context.getRequiredTestClass(), context.getRequiredTestMethod());
+		if (flakiness.isPresent()) {
+			runQuarantined(invocation, context, flakiness.getAsDouble());
+		} else {
+			invocation.proceed();
+		}
+	}
+
+	private void runQuarantined(Invocation<Void> invocation, ExtensionContext context, double flakiness) throws Throwable {
+		List<ItemAttributesRQ> attributes = new ArrayList<>();
+		attributes.add(new ItemAttributesRQ(QUARANTINED_ATTRIBUTE, String.format(Locale.US, "%.2f", flakiness)));
+		context.getStore(namespace).put(QUARANTINE, attributes);
+		Optional<QuarantineAttempt> retry = QuarantineAttempt.get(context);
+		if (retry.isPresent()) {
+			// a retry is not retried again, the attempt which started it decides on the next one
+			attributes.add(new ItemAttributesRQ(ATTEMPTS_ATTRIBUTE, String.valueOf(retry.get().getNumber())));
+			invocation.proceed();
+			return;
+		}
+		int attempt = 1;
+		try {
+			invocation.proceed();
+		} catch (Throwable failure) {
+			// retries report their own failures, the failure of the first attempt is logged to the test item
+			ReportPortalExtension.sendStackTraceToRP(failure);
+			Throwable last = failure;
+			while (last != null && attempt <= retries && !(last instanceof TestAbortedException)) {
+				attempt++;
+				last = new QuarantineAttempt(attempt, getContainerIds(context)).run(context.getRequiredTestClass(),
+						context.getRequiredTestMethod()
+				);
+			}
+			if (last != null) {
+				throw last;
+			}
+		} finally {
+			attributes.add(new ItemAttributesRQ(ATTEMPTS_ATTRIBUTE, String.valueOf(attempt)));
+		}
+	}
+
+	/**
+	 * @return item IDs of containers of a test by their unique IDs
+	 */
+	private Map<String, Maybe<String>> getContainerIds(ExtensionContext context) {
+		Map<String, Maybe<String>> containers = new HashMap<>();
+		Optional<ExtensionContext> container = context.getParent();
+		while (container.isPresent()) {
+			ExtensionContext current = container.get();
+			ofNullable(itemIds.apply(current)).ifPresent(id -> containers.put(current.getUniqueId(), id));
+			container = current.getParent();
+		}
+		return containers;
+	}
+
+	/**
+	 * @return true if the test runs quarantined, so its failure does not count towards the failure budget
+	 */
+	boolean isQuarantined(ExtensionContext context) {
+		return context.getStore(namespace).get(QUARANTINE) != null;
+	}
+
+	/**
+	 * @return attributes of a quarantined test, or {@code null} if the test is not quarantined
+	 */
+	@SuppressWarnings("unchecked")
+	List<ItemAttributesRQ> removeAttributes(ExtensionContext context) {
+		return context.getStore(namespace).remove(QUARANTINE, List.class);
+	}
+}
@@ -17,15 +17,17 @@
 package com.epam.reportportal.junit5;
 
 import com.epam.reportportal.annotations.TestCaseId;
-import com.epam.reportportal.annotations.attribute.Attributes;
 import com.epam.reportportal.aspect.StepAspect;
+import com.epam.reportportal.junit5.distribution.SharedLaunch;
+import com.epam.reportportal.junit5.history.LaunchHistory;
+import com.epam.reportportal.junit5.history.Quarantine;
+import com.epam.reportportal.junit5.history.ShardingFilter;
 import com.epam.reportportal.listeners.ListenerParameters;
 import com.epam.reportportal.service.Launch;
 import com.epam.reportportal.service.LaunchImpl;
 import com.epam.reportportal.service.ReportPortal;
 import com.epam.reportportal.service.item.TestCaseIdEntry;
 import com.epam.reportportal.service.tree.TestItemTree;
-import com.epam.reportportal.utils.AttributeParser;
 import com.epam.reportportal.utils.TestCaseIdUtils;
 import com.epam.ta.reportportal.ws.model.*;
 import com.epam.ta.reportportal.ws.model.attribute.ItemAttributesRQ;
@@ -34,15 +36,20 @@ import com.epam.ta.reportportal.ws.model.launch.StartLaunchRQ;
 import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
 import io.reactivex.Maybe;
 import org.apache.commons.lang3.StringUtils;
-import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.TestFactory;
 import org.junit.jupiter.api.extension.*;
+import org.opentest4j.TestAbortedException;
 import rp.com.google.common.collect.Sets;
 
 import javax.validation.constraints.NotNull;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -60,7 +67,7 @@ import static rp.com.google.common.base.Throwables.getStackTraceAsString;
  */
 public class ReportPortalExtension
 		implements Extension, BeforeAllCallback, BeforeEachCallback, AfterTestExecutionCallback, AfterEachCallback, AfterAllCallback,
-				   TestWatcher, InvocationInterceptor {
+				   TestWatcher, InvocationInterceptor, ExecutionCondition {
 
 	public static final TestItemTree TEST_ITEM_TREE = new TestItemTree();
 	public static ReportPortal REPORT_PORTAL = ReportPortal.builder().build();
@@ -76,48 +83,157 @@ public class ReportPortalExtension
 	}
 
 	private static final String TEST_TEMPLATE_EXTENSION_CONTEXT = "org.junit.jupiter.engine.descriptor.TestTemplateExtensionContext";
-	private static final Map<String, Launch> launchMap = new ConcurrentHashMap<>();
+	private static final String DEFER_ITEM_START_PROPERTY = "deferItemStart";
+	private static final String DEFER_ITEM_TIMEOUT_PROPERTY = "deferItemTimeout";
+	private static final String FOLD_PASSED_FIXTURES_PROPERTY = "foldPassedFixtures";
+	private static final String FOLDED_FIXTURES = "FOLDED_FIXTURES";
+	private static final String TEST_STATUS = "TEST_STATUS";
+	private static final String CODE_REF = "CODE_REF";
+	private static final String TEST_METHOD = "TEST_METHOD";
+	private static final String AGGREGATE_INVOCATIONS_PROPERTY = "aggregateInvocationsAfter";
+	private static final String TEMPLATE_INVOCATION = "TEMPLATE_INVOCATION";
+	private static final String REPORTING_CHUNK_SIZE_PROPERTY = "reportingChunkSize";
+	private static final int MAX_VALUE_LENGTH = 1024;
+	private static final String STREAM_DYNAMIC_TESTS_PROPERTY = "streamDynamicTests";
+	private static final String DYNAMIC_CONTAINER_DEPTH_PROPERTY = "dynamicContainerDepth";
+	private static final String DYNAMIC_STREAM = "DYNAMIC_STREAM";
+	private static final String REPORT_FINAL_ATTEMPT_ONLY_PROPERTY = "reportFinalAttemptOnly";
+	private static final String RETRY_ATTEMPT = "RETRY_ATTEMPT";
+	public static final String SHARED_LAUNCH_UUID_PROPERTY = "sharedLaunchUuid";
+	private static final String CACHED_ATTRIBUTE = "cached";
+	private static final LaunchRegistry LAUNCHES = new LaunchRegistry();
+	private static final Map<Launch, Maybe<String>> LAUNCH_UUIDS = new ConcurrentHashMap<>();
+	private static final Map<Launch, Queue<Maybe<?>>> SHARED_LAUNCH_SUITES = new ConcurrentHashMap<>();
+	private static final AttributeSets ATTRIBUTE_SETS = new AttributeSets();
+	private static final List<RetryDetector> RETRY_DETECTORS = loadRetryDetectors();
 	private final Map<ExtensionContext, Maybe<String>> idMapping = new ConcurrentHashMap<>();
 	private final Map<String, Maybe<String>> testTemplates = new ConcurrentHashMap<>();
+	private final Map<String, InvocationStatistics> invocationStatistics = new ConcurrentHashMap<>();
+	private final Map<String, RetryAttempts> retryAttempts = new ConcurrentHashMap<>();
+	private final Map<Maybe<String>, DeferredItem> deferredItems = new ConcurrentHashMap<>();
+	private final boolean deferItemStart = Boolean.getBoolean(DEFER_ITEM_START_PROPERTY);
+	private final long deferItemTimeout = Long.getLong(DEFER_ITEM_TIMEOUT_PROPERTY, 1000L);
+	private final boolean foldPassedFixtures = Boolean.getBoolean(FOLD_PASSED_FIXTURES_PROPERTY);
+	private final int aggregateInvocationsAfter = Integer.getInteger(AGGREGATE_INVOCATIONS_PROPERTY, 0);
+	private final boolean reportFinalAttemptOnly = Boolean.getBoolean(REPORT_FINAL_ATTEMPT_ONLY_PROPERTY);
+	private final boolean streamDynamicTests = Boolean.getBoolean(STREAM_DYNAMIC_TESTS_PROPERTY);
+	private final int dynamicContainerDepth = Math.max(0, Integer.getInteger(DYNAMIC_CONTAINER_DEPTH_PROPERTY, Integer.MAX_VALUE));
+	private final FinishWindow finishWindow = new FinishWindow(Integer.getInteger(REPORTING_CHUNK_SIZE_PROPERTY, 0));
+	private final Checkpoint checkpoint = Checkpoint.getShared();
+	private final Quarantine quarantine = new Quarantine();
 	private final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(this);
+	// features are kept in collaborators, the extension reports items and calls them at the points of the item lifecycle
+	private final CachedResults cachedResults = new CachedResults();
+	private final FailureBudget failureBudget = new FailureBudget(NAMESPACE, this::getLaunchId);
+	private final QuarantineRunner quarantineRunner = new QuarantineRunner(NAMESPACE, this::getQuarantine, idMapping::get);
+	private final ResourceUsageMeter resourceUsageMeter = new ResourceUsageMeter(NAMESPACE);
+	private final GcPauseMonitor gcPauseMonitor = new GcPauseMonitor(NAMESPACE);
+	private final SlowTestRecorder slowTestRecorder = new SlowTestRecorder(NAMESPACE, this::getHistory);
+	private final HangMonitor hangMonitor = new HangMonitor(NAMESPACE, this::getHistory);
 
 	ReportPortal getReporter() {
 		return REPORT_PORTAL;
 	}
 
+	Quarantine getQuarantine() {
+		return quarantine;
+	}
+
+	LaunchHistory getHistory() {
+		return LaunchHistory.getShared();
+	}
+
+	/**
+	 * @return the number of entries in each per-item structure of the extension, items release their entries when they finish
+	 */
+	Map<String, Integer> getRetainedEntries() {
+		Map<String, Integer> entries = new LinkedHashMap<>();
+		entries.put("idMapping", idMapping.size());
+		entries.put("testTemplates", testTemplates.size());
+		entries.put("invocationStatistics", invocationStatistics.size());
+		entries.put("retryAttempts", retryAttempts.size());
+		entries.put("deferredItems", deferredItems.size());
+		cachedResults.addRetainedEntries(entries);
+		return entries;
+	}
+
+	static int getLaunchCount() {
+		return LAUNCHES.size();
+	}
+
 	String getLaunchId(ExtensionContext context) {
 		return context.getRoot().getUniqueId();
 	}
 
 	protected Launch getLaunch(ExtensionContext context) {
-		return launchMap.computeIfAbsent(getLaunchId(context), id -> {
-			ReportPortal rp = getReporter();
-			ListenerParameters params = rp.getParameters();
-			StartLaunchRQ rq = new StartLaunchRQ();
-			rq.setMode(params.getLaunchRunningMode());
-			rq.setDescription(params.getDescription());
-			rq.setName(params.getLaunchName());
-			Set<ItemAttributesRQ> attributes = Sets.newHashSet(params.getAttributes());
-			attributes.addAll(collectSystemAttributes(params.getSkippedAnIssue()));
-			rq.setAttributes(attributes);
-			rq.setStartTime(Calendar.getInstance().getTime());
-			rq.setRerun(params.isRerun());
-			rq.setRerunOf(StringUtils.isEmpty(params.getRerunOf()) ? null : params.getRerunOf());
+		return LAUNCHES.getLaunch(getLaunchId(context), this::startLaunch);
+	}
+
+	/**
+	 * Builds a launch start request from the agent parameters, with system attributes.
+	 *
+	 * @param params the agent parameters
+	 * @return a request to start a new launch
+	 */
+	public static StartLaunchRQ buildStartLaunchRq(ListenerParameters params) {
+		StartLaunchRQ rq = new StartLaunchRQ();
+		rq.setMode(params.getLaunchRunningMode());
+		rq.setDescription(params.getDescription());
+		rq.setName(params.getLaunchName());
+		Set<ItemAttributesRQ> attributes = Sets.newHashSet(params.getAttributes());
+		attributes.addAll(collectSystemAttributes(params.getSkippedAnIssue()));
+		rq.setAttributes(attributes);
+		rq.setStartTime(Calendar.getInstance().getTime());
+		rq.setRerun(params.isRerun());
+		rq.setRerunOf(StringUtils.isEmpty(params.getRerunOf()) ? null : params.getRerunOf());
+		return rq;
+	}
 
-			Launch launch = rp.newLaunch(rq);
+	Launch startLaunch(String id) {
+		ReportPortal rp = getReporter();
+		ListenerParameters params = rp.getParameters();
+		String sharedLaunchUuid = System.getProperty(SHARED_LAUNCH_UUID_PROPERTY);
+		Launch launch;
+		if (StringUtils.isNotBlank(sharedLaunchUuid)) {
+			// a shared launch is started by a separate step and finished by it or by the last shard, shards and workers report into it
+			launch = rp.withLaunch(Maybe.just(sharedLaunchUuid));
+			Queue<Maybe<?>> suiteFinishes = new ConcurrentLinkedQueue<>();
+			SHARED_LAUNCH_SUITES.put(launch, suiteFinishes);
+			StepAspect.addLaunch(id, launch);
+			Runtime.getRuntime().addShutdownHook(getSharedLaunchShutdownHook(rp, sharedLaunchUuid, suiteFinishes));
+		} else {
+			StartLaunchRQ rq = buildStartLaunchRq(params);
+			checkpoint.getLaunchUuid().ifPresent(launchUuid -> {
+				// a resumed launch is continued as a rerun of the interrupted one
+				rq.setRerun(true);
+				rq.setRerunOf(launchUuid);
+			});
+			launch = rp.newLaunch(rq);
 			StepAspect.addLaunch(id, launch);
 			Runtime.getRuntime().addShutdownHook(getShutdownHook(launch));
-			Maybe<String> launchIdResponse = launch.start();
-			if (params.isCallbackReportingEnabled()) {
-				TEST_ITEM_TREE.setLaunchId(launchIdResponse);
-			}
-			return launch;
-		});
+		}
+		Maybe<String> launchIdResponse = launch.start();
+		if (deferItemStart) {
+			LAUNCH_UUIDS.put(launch, launchIdResponse);
+		}
+		if (checkpoint.isEnabled()) {
+			// errors are logged by the client, the checkpoint keeps only successful starts
+			launchIdResponse.onErrorComplete().subscribe(checkpoint::launchStarted);
+			finishDanglingItems(launch);
+		}
+		if (params.isCallbackReportingEnabled()) {
+			TEST_ITEM_TREE.setLaunchId(launchIdResponse);
+		}
+		return launch;
 	}
 
 	@Override
 	public void interceptBeforeAllMethod(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext,
 			ExtensionContext parentContext) throws Throwable {
+		if (isSetUpByOriginalExecution(invocationContext.getExecutable(), parentContext)) {
+			invocation.skip();
+			return;
+		}
 		Maybe<String> id = startBeforeAfter(invocationContext.getExecutable(), parentContext, parentContext, BEFORE_CLASS);
 		finishBeforeAfter(invocation, parentContext, id);
 	}
@@ -127,57 +243,224 @@ public class ReportPortalExtension
 			ExtensionContext context) throws Throwable {
 		ExtensionContext parentContext = context.getParent()
 				.orElseThrow(() -> new IllegalStateException("Unable to find parent test for @BeforeEach method"));
-		Maybe<String> id = startBeforeAfter(invocationContext.getExecutable(), parentContext, context, BEFORE_METHOD);
-		finishBeforeTestSkip(invocation, invocationContext, context, id);
+		Method method = invocationContext.getExecutable();
+		if (isFoldedFixture(context)) {
+			finishBeforeTestSkip(() -> {
+				foldFixture(invocation, method, parentContext, context, BEFORE_METHOD);
+				return null;
+			}, invocationContext, context);
+		} else {
+			Maybe<String> id = startBeforeAfter(method, parentContext, context, BEFORE_METHOD);
+			finishBeforeTestSkip(() -> {
+				finishBeforeAfter(invocation, context, id);
+				return null;
+			}, invocationContext, context);
+		}
 	}
 
 	@Override
 	public void interceptAfterAllMethod(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext,
 			ExtensionContext parentContext) throws Throwable {
+		if (isSetUpByOriginalExecution(invocationContext.getExecutable(), parentContext)) {
+			invocation.skip();
+			return;
+		}
 		Maybe<String> id = startBeforeAfter(invocationContext.getExecutable(), parentContext, parentContext, AFTER_CLASS);
 		finishBeforeAfter(invocation, parentContext, id);
 	}
 
+	/**
+	 * A retry of a quarantined test runs while the class of the original execution is still set up, so its static class-level fixtures
+	 * are not run and reported again. Class-level fixtures of a class with per-class test instance lifecycle set up the new instance of
+	 * the retry, so they run and are reported with the attempt number.
+	 */
+	private static boolean isSetUpByOriginalExecution(Method fixture, ExtensionContext context) {
+		return Modifier.isStatic(fixture.getModifiers()) && QuarantineAttempt.get(context).isPresent();
+	}
+
 	@Override
 	public void interceptAfterEachMethod(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext,
 			ExtensionContext context) throws Throwable {
 		ExtensionContext parentContext = context.getParent()
 				.orElseThrow(() -> new IllegalStateException("Unable to find parent test for @AfterEach method"));
-		Maybe<String> id = startBeforeAfter(invocationContext.getExecutable(), parentContext, context, AFTER_METHOD);
-		finishBeforeAfter(invocation, context, id);
+		Method method = invocationContext.getExecutable();
+		if (isFoldedFixture(context)) {
+			foldFixture(invocation, method, parentContext, context, AFTER_METHOD);
+		} else {
+			Maybe<String> id = startBeforeAfter(method, parentContext, context, AFTER_METHOD);
+			finishBeforeAfter(invocation, context, id);
+		}
+	}
+
+	/**
+	 * Finishes items of test classes which were started but not completed before the launch was resumed.
+	 */
+	private void finishDanglingItems(Launch launch) {
+		for (String itemUuid : checkpoint.getDanglingItems()) {
+			FinishTestItemRQ rq = new FinishTestItemRQ();
+			rq.setStatus(INTERRUPTED.name());
+			rq.setEndTime(Calendar.getInstance().getTime());
+			Maybe<String> itemId = Maybe.just(itemUuid);
+			Maybe<OperationCompletionRS> finishResponse = launch.finishTestItem(itemId, rq);
+			finishWindow.add(finishResponse);
+			journalFinish(itemId, finishResponse, null);
+		}
+	}
+
+	/**
+	 * Journals a started item, so it is finished on resume if the run is interrupted before its finish is sent.
+	 */
+	private void journalStart(Maybe<String> itemId) {
+		if (checkpoint.isEnabled() && itemId != null) {
+			// errors are logged by the client, the checkpoint keeps only successful starts
+			itemId.onErrorComplete().subscribe(checkpoint::itemStarted);
+		}
+	}
+
+	/**
+	 * Journals a finished item, and its class as completed if it is a class item, after the finish is accepted.
+	 */
+	private void journalFinish(Maybe<String> itemId, Maybe<OperationCompletionRS> finishResponse, String className) {
+		if (!checkpoint.isEnabled() || itemId == null || finishResponse == null) {
+			return;
+		}
+		Maybe.zip(itemId, finishResponse, (uuid, response) -> uuid).onErrorComplete().subscribe(uuid -> {
+			checkpoint.itemFinished(uuid);
+			if (className != null) {
+				checkpoint.classCompleted(className);
+			}
+		});
+	}
+
+	@Override
+	public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+		// an attempt which retries a failed one is not skipped because of the failure it retries
+		if (failureBudget.isExceeded(context, isRetryOfFailedAttempt(context))) {
+			if (!context.getTestMethod().isPresent()) {
+				reportSkippedSuite(context, failureBudget.getReason(), null);
+			}
+			return failureBudget.disable(context);
+		}
+		if ((!cachedResults.isEnabled() && !checkpoint.isEnabled()) || !isTopLevelClass(context)) {
+			return ConditionEvaluationResult.enabled("Not a cached or completed test class");
+		}
+		if (checkpoint.isCompleted(context.getRequiredTestClass().getName())) {
+			return ConditionEvaluationResult.disabled("Completed before the launch was resumed");
+		}
+		if (!cachedResults.isUnchanged(context.getRequiredTestClass())) {
+			return ConditionEvaluationResult.enabled("No cached result");
+		}
+		reportSkippedSuite(context, null, Collections.singleton(new ItemAttributesRQ(CACHED_ATTRIBUTE, Boolean.TRUE.toString())));
+		return ConditionEvaluationResult.disabled("Passed before, the class and its dependencies are unchanged");
+	}
+
+	private boolean isRetryOfFailedAttempt(ExtensionContext context) {
+		return reportFinalAttemptOnly && context.getTestMethod().isPresent() && isRetry(context) && context.getParent()
+				.map(template -> retryAttempts.get(template.getUniqueId()))
+				.filter(RetryAttempts::isFailed)
+				.isPresent();
+	}
+
+	private void countFailure(ExtensionContext context) {
+		// failures of quarantined tests do not count towards the failure budget
+		if (!quarantineRunner.isQuarantined(context)) {
+			failureBudget.countFailure(context);
+		}
+	}
+
+	/**
+	 * Reports a container which is disabled by the agent. A disabled container gets no callbacks, so it is reported right away.
+	 */
+	private void reportSkippedSuite(ExtensionContext context, String description, Set<ItemAttributesRQ> attributes) {
+		startTestItem(context, Collections.emptyList(), SUITE, description, null);
+		FinishTestItemRQ rq = new FinishTestItemRQ();
+		rq.setStatus(SKIPPED.name());
+		rq.setIssue(SKIPPED_NOT_ISSUE.getIssue());
+		rq.setAttributes(attributes);
+		finishTestItem(context, rq);
+	}
+
+	/**
+	 * Reports tests of a class disabled after the failure budget was exceeded as one skipped item.
+	 */
+	private void reportSkippedTests(ExtensionContext context, int count) {
+		Launch launch = getLaunch(context);
+		StartTestItemRQ rq = new StartTestItemRQ();
+		rq.setStartTime(Calendar.getInstance().getTime());
+		rq.setName(count + (count == 1 ? " test" : " tests") + " skipped");
+		rq.setDescription(failureBudget.getReason());
+		rq.setUniqueId(context.getUniqueId() + "/[fail-fast:skipped]");
+		rq.setType(STEP.name());
+		rq.setRetry(false);
+		context.getTestClass().map(Class::getCanonicalName).ifPresent(rq::setCodeRef);
+		Maybe<String> itemId = launch.startTestItem(sendDeferredStart(idMapping.get(context)), rq);
+		FinishTestItemRQ finishRq = new FinishTestItemRQ();
+		finishRq.setStatus(SKIPPED.name());
+		finishRq.setIssue(SKIPPED_NOT_ISSUE.getIssue());
+		finishRq.setEndTime(Calendar.getInstance().getTime());
+		finishWindow.add(launch.finishTestItem(itemId, finishRq));
 	}
 
 	@Override
 	public void beforeAll(ExtensionContext context) {
 		startTestItem(context, SUITE);
+		gcPauseMonitor.track(context);
 	}
 
 	@Override
 	public void beforeEach(ExtensionContext context) {
 		startTemplate(context);
+		startTemplateInvocation(context);
+		// started before @BeforeEach methods and stopped after @AfterEach methods, so fixtures are included
+		resourceUsageMeter.start(context);
+		gcPauseMonitor.track(context);
+		slowTestRecorder.start(context);
+		hangMonitor.watch(context);
 	}
 
 	@Override
 	public void interceptTestMethod(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext,
 			ExtensionContext extensionContext) throws Throwable {
 		startTestItem(extensionContext, invocationContext.getArguments(), STEP);
-		invocation.proceed();
+		try {
+			quarantineRunner.proceed(invocation, extensionContext);
+		} catch (Throwable throwable) {
+			hangMonitor.failIfInterrupted(extensionContext, throwable);
+			throw throwable;
+		}
+		// a test which ignored the interruption and completed still fails as hung
+		hangMonitor.failIfInterrupted(extensionContext, null);
 	}
 
 	@Override
 	public <T> T interceptTestFactoryMethod(Invocation<T> invocation, ReflectiveInvocationContext<Method> invocationContext,
 			ExtensionContext extensionContext) throws Throwable {
 		startTestItem(extensionContext, invocationContext.getArguments(), STEP);
+		if (streamDynamicTests) {
+			// created with the factory item, so the factory is finished by the stream even if no dynamic test runs
+			getDynamicStream(extensionContext);
+		}
 		return invocation.proceed();
 	}
 
+	private DynamicStream getDynamicStream(ExtensionContext factory) {
+		return factory.getStore(NAMESPACE)
+				.getOrComputeIfAbsent(DYNAMIC_STREAM, k -> new DynamicStream(NAMESPACE, factory, idMapping.get(factory)), DynamicStream.class);
+	}
+
 	@Override
 	public void interceptDynamicTest(Invocation<Void> invocation, ExtensionContext extensionContext) throws Throwable {
+		if (streamDynamicTests) {
+			interceptStreamedDynamicTest(invocation, extensionContext);
+			return;
+		}
 		startTestItem(extensionContext, STEP);
 		try {
 			invocation.proceed();
 			finishTestItem(extensionContext);
 		} catch (Throwable throwable) {
+			cachedResults.markUnsuccessful(extensionContext);
+			sendDeferredStart(idMapping.get(extensionContext));
 			sendStackTraceToRP(throwable);
 			finishTestItem(extensionContext, FAILED);
 			throw throwable;
@@ -187,25 +470,138 @@ public class ReportPortalExtension
 	@Override
 	public void interceptTestTemplateMethod(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext,
 			ExtensionContext extensionContext) throws Throwable {
-		startTestItem(extensionContext, invocationContext.getArguments(), STEP);
+		if (reportFinalAttemptOnly && isRetry(extensionContext)) {
+			// the attempt is reported on the template finish if it is the last one
+			StartTestItemRQ rq = buildStartTestItemRq(extensionContext, invocationContext.getArguments(), STEP, null, null);
+			extensionContext.getStore(NAMESPACE).put(RETRY_ATTEMPT, new RetryAttempts.Attempt(rq));
+			invocation.proceed();
+			return;
+		}
+		TemplateInvocation templateInvocation = getTemplateInvocation(extensionContext);
+		if (templateInvocation == null || templateInvocation.isReported()) {
+			startTestItem(extensionContext, invocationContext.getArguments(), STEP);
+		} else {
+			templateInvocation.setArguments(invocationContext.getArguments());
+		}
 		invocation.proceed();
 	}
 
+	/**
+	 * Runs a dynamic test in streaming mode: the test is reported only if it fails, otherwise it is counted in the statistics of the
+	 * nearest reported container.
+	 */
+	private void interceptStreamedDynamicTest(Invocation<Void> invocation, ExtensionContext context) throws Throwable {
+		List<ExtensionContext> containers = new ArrayList<>();
+		ExtensionContext factory = context.getParent().orElseThrow(() -> new IllegalStateException("Unable to find test factory"));
+		while (!factory.getTestMethod().isPresent()) {
+			containers.add(0, factory);
+			factory = factory.getParent().orElseThrow(() -> new IllegalStateException("Unable to find test factory"));
+		}
+		DynamicStream stream = getDynamicStream(factory);
+		List<ExtensionContext> reported = containers.size() > dynamicContainerDepth ? containers.subList(0, dynamicContainerDepth) : containers;
+		DynamicStream.Node parent = stream.enter(reported, this::startDynamicContainer, this::finishDynamicContainer);
+
+		Date startTime = Calendar.getInstance().getTime();
+		long start = System.nanoTime();
+		try {
+			invocation.proceed();
+		} catch (Throwable throwable) {
+			cachedResults.markUnsuccessful(context);
+			stream.record(parent, FAILED, System.nanoTime() - start);
+			Launch launch = getLaunch(context);
+			StartTestItemRQ rq = buildStartTestItemRq(context, Collections.emptyList(), STEP, null, startTime);
+			Maybe<String> itemId = launch.startTestItem(parent.getItemId(), rq);
+			StepAspect.setParentId(itemId);
+			sendStackTraceToRP(throwable);
+			finishBeforeAfter(context, itemId, FAILED);
+			throw throwable;
+		}
+		stream.record(parent, PASSED, System.nanoTime() - start);
+	}
+
+	private Maybe<String> startDynamicContainer(DynamicStream.Node parent, ExtensionContext container) {
+		Launch launch = getLaunch(container);
+		StartTestItemRQ rq = new StartTestItemRQ();
+		rq.setStartTime(Calendar.getInstance().getTime());
+		rq.setName(limitLength(container.getDisplayName()));
+		rq.setDescription(container.getDisplayName());
+		rq.setUniqueId(container.getUniqueId());
+		rq.setType(STEP.name());
+		rq.setRetry(false);
+		rq.setCodeRef(getContainerCodeRef(container));
+		rq.setAttributes(ATTRIBUTE_SETS.fromTags(container.getTags()));
+		return launch.startTestItem(parent.getItemId(), rq);
+	}
+
+	private void finishDynamicContainer(DynamicStream.Node container) {
+		Launch launch = getLaunch(container.getContext());
+		FinishTestItemRQ rq = new FinishTestItemRQ();
+		rq.setStatus((container.isFailed() ? FAILED : PASSED).name());
+		rq.setEndTime(Calendar.getInstance().getTime());
+		rq.setAttributes(container.getStatistics().getAttributes());
+		finishWindow.add(launch.finishTestItem(container.getItemId(), rq));
+	}
+
 	@Override
 	public void afterTestExecution(ExtensionContext context) {
+		RetryAttempts.Attempt attempt = context.getStore(NAMESPACE).get(RETRY_ATTEMPT, RetryAttempts.Attempt.class);
+		if (attempt != null) {
+			Throwable throwable = context.getExecutionException().orElse(null);
+			Status status = throwable == null ? PASSED : throwable instanceof TestAbortedException ? SKIPPED : FAILED;
+			attempt.finish(status, throwable == null ? null : getStackTraceAsString(throwable));
+			context.getParent().ifPresent(template -> {
+				// JUnit fails the test and its class with any failed attempt, so they stay failed and count towards the budget once
+				if (retryAttempts.computeIfAbsent(template.getUniqueId(), k -> new RetryAttempts()).add(attempt)) {
+					template.getStore(NAMESPACE).put(FAILED, Boolean.TRUE);
+					template.getParent().ifPresent(c -> c.getStore(NAMESPACE).put(FAILED, Boolean.TRUE));
+					countFailure(context);
+				}
+			});
+			// only the item of the final attempt is reported, on the template finish
+			return;
+		}
+		TemplateInvocation templateInvocation = getTemplateInvocation(context);
+		if (templateInvocation != null) {
+			Status invocationStatus = templateInvocation.finish(context.getExecutionException().orElse(null));
+			if (!templateInvocation.isReported()) {
+				if (FAILED != invocationStatus) {
+					return;
+				}
+				// only failed invocations beyond the aggregation threshold are reported as items
+				startTestItem(context, templateInvocation.getArguments(), STEP, null, templateInvocation.getStartTime());
+			}
+		}
+		sendDeferredStart(idMapping.get(context));
 		Status status = getExecutionStatus(context);
 		if (FAILED.equals(status)) {
 			context.getParent().ifPresent(c -> c.getStore(NAMESPACE).put(FAILED, Boolean.TRUE));
+			countFailure(context);
+		}
+		if (foldPassedFixtures || resourceUsageMeter.isEnabled()) {
+			// the step is finished after @AfterEach methods to record their durations and include them in the resource usage
+			context.getStore(NAMESPACE).put(TEST_STATUS, status);
+		} else {
+			finishTestItem(context, status);
 		}
-		finishTestItem(context, status);
 	}
 
 	@Override
 	public void afterEach(ExtensionContext context) {
+		cachedResults.markCompleted(context);
+		ofNullable(context.getStore(NAMESPACE).remove(TEMPLATE_INVOCATION, TemplateInvocation.class)).ifPresent(TemplateInvocation::close);
+		ofNullable(context.getStore(NAMESPACE).remove(TEST_STATUS, Status.class)).ifPresent(status -> finishTestItem(context, status));
+		// tests which are not reported as items, like aggregated invocations, still count in their suite
+		resourceUsageMeter.stop(context);
+		gcPauseMonitor.stop(context);
+		hangMonitor.stop(context);
 	}
 
 	@Override
 	public void afterAll(ExtensionContext context) {
+		int skipped = failureBudget.removeDisabledTests(context);
+		if (skipped > 0) {
+			reportSkippedTests(context, skipped);
+		}
 		if (context.getStore(NAMESPACE).get(FAILED) == null) {
 			finishTestTemplates(context);
 			finishTestItem(context);
@@ -214,11 +610,20 @@ public class ReportPortalExtension
 			finishTestItem(context, FAILED);
 			context.getParent().ifPresent(p -> p.getStore(NAMESPACE).put(FAILED, Boolean.TRUE));
 		}
+		if (isTopLevelClass(context)) {
+			cachedResults.record(context, context.getStore(NAMESPACE).get(FAILED) != null);
+		}
+		releaseChildIds(context);
 	}
 
 	@Override
 	public void testDisabled(ExtensionContext context, Optional<String> reason) {
-		if (Boolean.parseBoolean(System.getProperty("reportDisabledTests"))) {
+		// tests disabled by their own conditions do not prevent caching, the ones skipped after the failure budget do
+		if (!FailureBudget.isDisabledBy(reason)) {
+			cachedResults.markCompleted(context);
+		}
+		// tests disabled after the failure budget is exceeded are reported together when their class finishes
+		if (Boolean.parseBoolean(System.getProperty("reportDisabledTests")) && !FailureBudget.isDisabledBy(reason)) {
 			String description = reason.orElse(context.getDisplayName());
 			startTestItem(context, Collections.emptyList(), STEP, description, null);
 			finishTestItem(context, SKIPPED);
@@ -231,21 +636,35 @@ public class ReportPortalExtension
 
 	@Override
 	public void testAborted(ExtensionContext context, Throwable throwable) {
+		cachedResults.markUnsuccessful(context);
 	}
 
 	@Override
 	public void testFailed(ExtensionContext context, Throwable throwable) {
+		cachedResults.markUnsuccessful(context);
+	}
+
+	static boolean isTopLevelClass(ExtensionContext context) {
+		return !context.getTestMethod().isPresent() && context.getParent().map(p -> !p.getParent().isPresent()).orElse(false);
+	}
+
+	static ExtensionContext getTopLevelClass(ExtensionContext context) {
+		ExtensionContext testClass = context;
+		while (testClass.getParent().flatMap(ExtensionContext::getParent).isPresent()) {
+			testClass = testClass.getParent().get();
+		}
+		return testClass;
 	}
 
 	private static final Function<List<Object>, String> TRANSFORM_PARAMETERS = it -> "[" + it.stream()
 			.map(parameter -> Objects.isNull(parameter) ? "NULL" : parameter.toString())
 			.collect(Collectors.joining(",")) + "]";
 
-	private void finishBeforeTestSkip(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext,
-			ExtensionContext context, Maybe<String> id) throws Throwable {
+	private void finishBeforeTestSkip(Invocation<Void> fixture, ReflectiveInvocationContext<Method> invocationContext,
+			ExtensionContext context) throws Throwable {
 		Date startTime = Calendar.getInstance().getTime();
 		try {
-			finishBeforeAfter(invocation, context, id);
+			fixture.proceed();
 		} catch (Throwable throwable) {
 			Date skipStartTime = Calendar.getInstance().getTime();
 			if (skipStartTime.after(startTime)) {
@@ -263,10 +682,42 @@ public class ReportPortalExtension
 			invocation.proceed();
 			finishBeforeAfter(context, id, PASSED);
 		} catch (Throwable throwable) {
+			sendDeferredStart(id);
+			sendStackTraceToRP(throwable);
+			finishBeforeAfter(context, id, FAILED);
+			throw throwable;
+		}
+	}
+
+	/**
+	 * Runs a fixture method without reporting it as an item. Duration of a passed fixture is recorded on the owning step, a failed one
+	 * is reported as a separate item with its original start time.
+	 */
+	private void foldFixture(Invocation<Void> invocation, Method method, ExtensionContext parentContext, ExtensionContext context,
+			ItemType itemType) throws Throwable {
+		Date startTime = Calendar.getInstance().getTime();
+		long start = System.nanoTime();
+		try {
+			invocation.proceed();
+		} catch (Throwable throwable) {
+			Maybe<String> id = sendDeferredStart(startBeforeAfter(method, parentContext, context, itemType, startTime));
 			sendStackTraceToRP(throwable);
 			finishBeforeAfter(context, id, FAILED);
 			throw throwable;
 		}
+		long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		String prefix = BEFORE_METHOD == itemType ? "@BeforeEach " : "@AfterEach ";
+		getFoldedFixtures(context).add(new ItemAttributesRQ(prefix + method.getName() + "()", duration + " ms"));
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<ItemAttributesRQ> getFoldedFixtures(ExtensionContext context) {
+		return context.getStore(NAMESPACE).getOrComputeIfAbsent(FOLDED_FIXTURES, k -> new ArrayList<ItemAttributesRQ>(), List.class);
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<ItemAttributesRQ> removeFoldedFixtures(ExtensionContext context) {
+		return context.getStore(NAMESPACE).remove(FOLDED_FIXTURES, List.class);
 	}
 
 	private void finishBeforeAfter(ExtensionContext context, Maybe<String> id, Status status) {
@@ -274,7 +725,10 @@ public class ReportPortalExtension
 		FinishTestItemRQ rq = new FinishTestItemRQ();
 		rq.setStatus(status.name());
 		rq.setEndTime(Calendar.getInstance().getTime());
-		launch.finishTestItem(id, rq);
+		Maybe<String> itemId = releaseDeferredItem(id);
+		Maybe<OperationCompletionRS> finishResponse = launch.finishTestItem(itemId, rq);
+		finishWindow.add(finishResponse);
+		journalFinish(itemId, finishResponse, null);
 	}
 
 	private void startTemplate(ExtensionContext context) {
@@ -285,6 +739,38 @@ public class ReportPortalExtension
 		});
 	}
 
+	/**
+	 * Counts an invocation of a test template for which invocations aggregation is turned on.
+	 */
+	private void startTemplateInvocation(ExtensionContext context) {
+		context.getParent()
+				.filter(parent -> TEST_TEMPLATE_EXTENSION_CONTEXT.equals(parent.getClass().getCanonicalName()))
+				.ifPresent(template -> context.getTestMethod().ifPresent(method -> {
+					int threshold = ofNullable(method.getAnnotation(AggregateInvocations.class)).map(AggregateInvocations::value)
+							.orElse(aggregateInvocationsAfter);
+					if (threshold > 0) {
+						InvocationStatistics statistics = invocationStatistics.computeIfAbsent(template.getUniqueId(),
+								k -> new InvocationStatistics()
+						);
+						context.getStore(NAMESPACE).put(TEMPLATE_INVOCATION, new TemplateInvocation(statistics, threshold));
+					}
+				}));
+	}
+
+	private TemplateInvocation getTemplateInvocation(ExtensionContext context) {
+		return context.getStore(NAMESPACE).get(TEMPLATE_INVOCATION, TemplateInvocation.class);
+	}
+
+	/**
+	 * Fixtures of an invocation which is not reported as an item right away are reported only if they fail.
+	 */
+	private boolean isFoldedFixture(ExtensionContext context) {
+		if (foldPassedFixtures || (reportFinalAttemptOnly && isRetry(context))) {
+			return true;
+		}
+		return ofNullable(getTemplateInvocation(context)).map(i -> !i.isReported()).orElse(false);
+	}
+
 	private void startTestItem(ExtensionContext context, List<Object> arguments, ItemType type) {
 		startTestItem(context, arguments, type, null, null);
 	}
@@ -301,87 +787,132 @@ public class ReportPortalExtension
 		return str + (suffix.isEmpty() ? "" : "$" + suffix);
 	}
 
-	private String getCodeRef(ExtensionContext context, String currentCodeRef) {
-		return context.getTestMethod().map(m -> appendSuffixIfNotEmpty(getCodeRef(m), currentCodeRef)).orElseGet(() -> {
-			String newCodeRef = appendSuffixIfNotEmpty(context.getDisplayName(), currentCodeRef);
-			return context.getParent().map(c -> getCodeRef(c, newCodeRef)).orElse(newCodeRef);
-		});
+	private String getCodeRef(ExtensionContext context) {
+		return context.getTestMethod()
+				.map(this::getCodeRef)
+				.orElseGet(() -> context.getParent()
+						.map(c -> appendSuffixIfNotEmpty(getContainerCodeRef(c), context.getDisplayName()))
+						.orElseGet(context::getDisplayName));
+	}
+
+	/**
+	 * Code reference of a container is calculated once and kept in its store, so each child of a dynamic container derives its code
+	 * reference from the parent one with a single append.
+	 */
+	private String getContainerCodeRef(ExtensionContext context) {
+		return context.getStore(NAMESPACE).getOrComputeIfAbsent(CODE_REF, k -> getCodeRef(context), String.class);
 	}
 
 	private Optional<Method> getTestMethod(ExtensionContext context) {
-		return ofNullable(context.getTestMethod().orElseGet(() -> context.getParent().flatMap(this::getTestMethod).orElse(null)));
+		Optional<Method> method = context.getTestMethod();
+		return method.isPresent() ? method : context.getParent().flatMap(this::getContainerTestMethod);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Optional<Method> getContainerTestMethod(ExtensionContext context) {
+		return context.getStore(NAMESPACE).getOrComputeIfAbsent(TEST_METHOD, k -> getTestMethod(context), Optional.class);
 	}
 
 	private static boolean isRetry(ExtensionContext context) {
-		return context.getTestMethod().map(it -> Objects.nonNull(it.getAnnotation(RepeatedTest.class))).orElse(false);
+		for (RetryDetector detector : RETRY_DETECTORS) {
+			if (detector.isRetry(context)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static List<RetryDetector> loadRetryDetectors() {
+		List<RetryDetector> detectors = new ArrayList<>();
+		ServiceLoader.load(RetryDetector.class, ReportPortalExtension.class.getClassLoader()).forEach(detectors::add);
+		if (detectors.isEmpty()) {
+			detectors.add(new AnnotationRetryDetector());
+		}
+		return Collections.unmodifiableList(detectors);
 	}
 
 	private void startTestItem(@NotNull final ExtensionContext context, @NotNull final List<Object> arguments,
 			@NotNull final ItemType itemType, final String description, final Date startTime) {
 		idMapping.computeIfAbsent(context, c -> {
+			Optional<QuarantineAttempt> quarantineAttempt = QuarantineAttempt.get(c);
+			Optional<Maybe<String>> containerId = quarantineAttempt.flatMap(attempt -> attempt.getContainerId(c.getUniqueId()));
+			if (containerId.isPresent()) {
+				// a retry of a quarantined test reports into the containers of the original execution
+				return containerId.get();
+			}
 			boolean isTemplate = TEMPLATE == itemType;
 			ItemType type = isTemplate ? SUITE : itemType;
-			boolean retry = isRetry(c);
-
-			TestItem testItem = getTestItem(c, retry);
+			StartTestItemRQ rq = buildStartTestItemRq(c, arguments, type, description, startTime);
+			if (quarantineAttempt.isPresent() && STEP == type) {
+				rq.setRetry(true);
+			}
 			Launch launch = getLaunch(c);
-			StartTestItemRQ rq = new StartTestItemRQ();
-			if (startTime == null) {
-				rq.setStartTime(Calendar.getInstance().getTime());
+
+			Maybe<String> parentId = c.getParent().map(idMapping::get).map(this::sendDeferredStart).orElse(null);
+			Maybe<String> itemId;
+			if (deferItemStart && STEP == type) {
+				itemId = deferItemStart(launch, parentId, rq);
 			} else {
-				rq.setStartTime(startTime);
+				itemId = parentId == null ? launch.startTestItem(rq) : launch.startTestItem(parentId, rq);
 			}
-			rq.setName(testItem.getName());
-			rq.setDescription(null != description ? description : testItem.getDescription());
-			rq.setUniqueId(testItem.getUniqueId());
-			rq.setType(type.name());
-			rq.setRetry(retry);
-			if (SUITE.equals(type)) {
-				c.getTestClass().map(Class::getCanonicalName).ifPresent(codeRef -> {
-					rq.setCodeRef(codeRef);
-					TestCaseIdEntry testCaseIdEntry = getTestCaseId(codeRef);
-					rq.setTestCaseId(testCaseIdEntry.getId());
-				});
-			} else {
-				String codeRef = getCodeRef(c, "");
-				rq.setCodeRef(codeRef);
-				Optional<Method> testMethod = getTestMethod(c);
-				TestCaseIdEntry caseId = testMethod.map(m -> {
-					rq.setAttributes(getAttributes(m));
-					rq.setParameters(getParameters(m, arguments));
-					return getTestCaseId(m, codeRef, arguments);
-				}).orElseGet(() -> getTestCaseId(codeRef, arguments));
-
-				rq.setTestCaseId(caseId.getId());
+			if (getReporter().getParameters().isCallbackReportingEnabled()) {
+				TEST_ITEM_TREE.getTestItems()
+						.put(createItemTreeKey(rq.getName()),
+								parentId == null ? createTestItemLeaf(itemId, 0) : createTestItemLeaf(parentId, itemId, 0)
+						);
 			}
-			ofNullable(testItem.getAttributes()).ifPresent(attributes -> ofNullable(rq.getAttributes()).orElseGet(() -> {
-				rq.setAttributes(Sets.newHashSet());
-				return rq.getAttributes();
-			}).addAll(attributes));
-
-			Maybe<String> itemId = c.getParent().flatMap(parent -> Optional.ofNullable(idMapping.get(parent))).map(parentTest -> {
-				Maybe<String> item = launch.startTestItem(parentTest, rq);
-				if (getReporter().getParameters().isCallbackReportingEnabled()) {
-					TEST_ITEM_TREE.getTestItems().put(createItemTreeKey(testItem.getName()), createTestItemLeaf(parentTest, item, 0));
-				}
-				return item;
-			}).orElseGet(() -> {
-				Maybe<String> item = launch.startTestItem(rq);
-				if (getReporter().getParameters().isCallbackReportingEnabled()) {
-					TEST_ITEM_TREE.getTestItems().put(createItemTreeKey(testItem.getName()), createTestItemLeaf(item, 0));
-				}
-				return item;
-			});
 			if (isTemplate) {
 				testTemplates.put(c.getUniqueId(), itemId);
 			}
+			journalStart(itemId);
 			StepAspect.setParentId(itemId);
 			return itemId;
 		});
 	}
 
+	private StartTestItemRQ buildStartTestItemRq(@NotNull final ExtensionContext c, @NotNull final List<Object> arguments,
+			@NotNull final ItemType type, final String description, final Date startTime) {
+		boolean retry = isRetry(c);
+
+		TestItem testItem = getTestItem(c, retry);
+		StartTestItemRQ rq = new StartTestItemRQ();
+		if (startTime == null) {
+			rq.setStartTime(Calendar.getInstance().getTime());
+		} else {
+			rq.setStartTime(startTime);
+		}
+		rq.setName(testItem.getName());
+		rq.setDescription(null != description ? description : testItem.getDescription());
+		rq.setUniqueId(testItem.getUniqueId());
+		rq.setType(type.name());
+		rq.setRetry(retry);
+		if (SUITE.equals(type)) {
+			c.getTestClass().map(Class::getCanonicalName).ifPresent(codeRef -> {
+				rq.setCodeRef(codeRef);
+				TestCaseIdEntry testCaseIdEntry = getTestCaseId(codeRef);
+				rq.setTestCaseId(testCaseIdEntry.getId());
+			});
+		} else {
+			String codeRef = getCodeRef(c);
+			rq.setCodeRef(codeRef);
+			Optional<Method> testMethod = getTestMethod(c);
+			TestCaseIdEntry caseId = testMethod.map(m -> {
+				rq.setAttributes(getAttributes(m));
+				rq.setParameters(getParameters(m, arguments));
+				return getTestCaseId(m, codeRef, arguments);
+			}).orElseGet(() -> getTestCaseId(codeRef, arguments));
+
+			rq.setTestCaseId(caseId.getId());
+		}
+		ofNullable(testItem.getAttributes()).ifPresent(attributes -> {
+			Set<ItemAttributesRQ> methodAttributes = rq.getAttributes();
+			rq.setAttributes(methodAttributes == null ? attributes : ATTRIBUTE_SETS.union(methodAttributes, attributes));
+		});
+		return rq;
+	}
+
 	private @NotNull Set<ItemAttributesRQ> getAttributes(@NotNull final Method method) {
-		return ofNullable(method.getAnnotation(Attributes.class)).map(AttributeParser::retrieveAttributes).orElseGet(Sets::newHashSet);
+		return ATTRIBUTE_SETS.fromAnnotation(method);
 	}
 
 	private @NotNull List<ParameterResource> getParameters(@NotNull final Method method, final List<Object> arguments) {
@@ -393,22 +924,35 @@ public class ReportPortalExtension
 			} else {
 				res.setKey(params[i].getType().getName());
 			}
-			res.setValue(ofNullable(arguments.get(i)).orElse("NULL").toString());
+			res.setValue(limitLength(String.valueOf(ofNullable(arguments.get(i)).orElse("NULL"))));
 			return res;
 		}).collect(Collectors.toList());
 	}
 
+	private static String limitLength(String value) {
+		return value.length() > MAX_VALUE_LENGTH ? value.substring(0, MAX_VALUE_LENGTH) + "..." : value;
+	}
+
 	private Maybe<String> startBeforeAfter(Method method, ExtensionContext parentContext, ExtensionContext context, ItemType itemType) {
+		return startBeforeAfter(method, parentContext, context, itemType, Calendar.getInstance().getTime());
+	}
+
+	private Maybe<String> startBeforeAfter(Method method, ExtensionContext parentContext, ExtensionContext context, ItemType itemType,
+			Date startTime) {
 		Launch launch = getLaunch(context);
 		StartTestItemRQ rq = new StartTestItemRQ();
-		rq.setStartTime(Calendar.getInstance().getTime());
+		rq.setStartTime(startTime);
 		rq.setName(method.getName() + "()");
 		rq.setDescription(method.getName());
 		String uniqueId = parentContext.getUniqueId() + "/[method:" + method.getName() + "()]";
 		rq.setUniqueId(uniqueId);
-		ofNullable(context.getTags()).ifPresent(it -> rq.setAttributes(it.stream()
-				.map(tag -> new ItemAttributesRQ(null, tag))
-				.collect(Collectors.toSet())));
+		ofNullable(context.getTags()).ifPresent(it -> rq.setAttributes(ATTRIBUTE_SETS.fromTags(it)));
+		QuarantineAttempt.get(context).ifPresent(attempt -> {
+			// attribute sets from tags are shared, so the attempt gets its own
+			Set<ItemAttributesRQ> attributes = new HashSet<>(ofNullable(rq.getAttributes()).orElse(Collections.emptySet()));
+			attributes.add(new ItemAttributesRQ(QuarantineRunner.ATTEMPTS_ATTRIBUTE, String.valueOf(attempt.getNumber())));
+			rq.setAttributes(attributes);
+		});
 		rq.setType(itemType.name());
 		rq.setRetry(false);
 		String codeRef = method.getDeclaringClass().getCanonicalName() + "." + method.getName();
@@ -417,11 +961,41 @@ public class ReportPortalExtension
 				.map(TestCaseIdEntry::new)
 				.orElseGet(() -> getTestCaseId(codeRef));
 		rq.setTestCaseId(testCaseIdEntry.getId());
-		Maybe<String> itemId = launch.startTestItem(idMapping.get(parentContext), rq);
+		Maybe<String> parentId = sendDeferredStart(idMapping.get(parentContext));
+		Maybe<String> itemId = deferItemStart ? deferItemStart(launch, parentId, rq) : launch.startTestItem(parentId, rq);
+		journalStart(itemId);
 		StepAspect.setParentId(itemId);
 		return itemId;
 	}
 
+	private Maybe<String> deferItemStart(Launch launch, Maybe<String> parentId, StartTestItemRQ rq) {
+		DeferredItem item = new DeferredItem(launch, parentId, rq);
+		// a launch started outside of the agent has no UUID to bind logs to, its items keep logging to the parent until they start and
+		// are not started by the timeout
+		ofNullable(LAUNCH_UUIDS.get(launch)).ifPresent(launchUuid -> item.bindLogs(getReporter(), launchUuid));
+		if (deferItemTimeout > 0) {
+			item.flushAfter(deferItemTimeout);
+		}
+		deferredItems.put(item.getItemId(), item);
+		return item.getItemId();
+	}
+
+	/**
+	 * Sends a held back start request of an item, e.g. before a child item or a log of the item is reported.
+	 *
+	 * @param itemId an item ID as it was returned on the item start
+	 * @return the ID to use for requests which depend on the item
+	 */
+	private Maybe<String> sendDeferredStart(Maybe<String> itemId) {
+		DeferredItem item = itemId == null ? null : deferredItems.get(itemId);
+		return item == null ? itemId : item.start();
+	}
+
+	private Maybe<String> releaseDeferredItem(Maybe<String> itemId) {
+		DeferredItem item = itemId == null ? null : deferredItems.remove(itemId);
+		return item == null ? itemId : item.release();
+	}
+
 	private @NotNull TestCaseIdEntry getTestCaseId(@NotNull final String codeRef) {
 		return new TestCaseIdEntry(codeRef);
 	}
@@ -446,13 +1020,43 @@ public class ReportPortalExtension
 	}
 
 	private void finishTestTemplates(final ExtensionContext context, final Status status) {
-		getTestTemplateIds().forEach(id -> {
+		// a template can be already finished by a concurrently running container, so only the thread which removed it finishes it
+		getTestTemplateIds().forEach(id -> ofNullable(testTemplates.remove(id)).ifPresent(templateId -> {
 			Launch launch = getLaunch(context);
+			RetryAttempts attempts = retryAttempts.remove(id);
+			ofNullable(attempts).ifPresent(a -> finishRetryAttempts(launch, templateId, a));
 			FinishTestItemRQ rq = new FinishTestItemRQ();
-			rq.setStatus(status.name());
+			rq.setStatus((attempts != null && attempts.isFailed() ? FAILED : status).name());
 			rq.setEndTime(Calendar.getInstance().getTime());
-			launch.finishTestItem(testTemplates.remove(id), rq);
-		});
+			ofNullable(invocationStatistics.remove(id)).ifPresent(statistics -> rq.setAttributes(statistics.getAttributes()));
+			journalFinish(templateId, launch.finishTestItem(templateId, rq), null);
+		}));
+	}
+
+	/**
+	 * Reports the last attempt of a retried test with a summary of the earlier ones in its description.
+	 */
+	private void finishRetryAttempts(Launch launch, Maybe<String> templateId, RetryAttempts attempts) {
+		RetryAttempts.Attempt last = attempts.getLast();
+		StartTestItemRQ rq = last.getRq();
+		List<String> earlier = attempts.getEarlier();
+		if (!earlier.isEmpty()) {
+			rq.setDescription(ofNullable(rq.getDescription()).map(d -> d + "\n\n").orElse("") + String.join("\n", earlier));
+		}
+		rq.setRetry(false);
+		Maybe<String> itemId = launch.startTestItem(templateId, rq);
+		ofNullable(last.getStackTrace()).ifPresent(stackTrace -> ReportPortal.emitLog(itemUuid -> {
+			SaveLogRQ logRq = new SaveLogRQ();
+			logRq.setItemUuid(itemUuid);
+			logRq.setLevel("ERROR");
+			logRq.setLogTime(last.getEndTime());
+			logRq.setMessage(stackTrace);
+			return logRq;
+		}));
+		FinishTestItemRQ finishRq = new FinishTestItemRQ();
+		finishRq.setStatus(last.getStatus().name());
+		finishRq.setEndTime(last.getEndTime());
+		finishWindow.add(launch.finishTestItem(itemId, finishRq));
 	}
 
 	private List<String> getTestTemplateIds() {
@@ -479,21 +1083,71 @@ public class ReportPortalExtension
 	private void finishTestItem(@NotNull final ExtensionContext context, @NotNull final Status status) {
 		FinishTestItemRQ rq = new FinishTestItemRQ();
 		rq.setStatus(status.name());
+		Set<ItemAttributesRQ> attributes = new HashSet<>();
+		ofNullable(removeFoldedFixtures(context)).ifPresent(attributes::addAll);
+		ofNullable(quarantineRunner.removeAttributes(context)).ifPresent(attributes::addAll);
+		ofNullable(resourceUsageMeter.stop(context)).ifPresent(usage -> attributes.addAll(usage.getAttributes()));
+		hangMonitor.finish(context);
+		slowTestRecorder.finish(context).ifPresent(attributes::add);
+		gcPauseMonitor.finish(context).ifPresent(attributes::add);
+		DynamicStream stream = context.getStore(NAMESPACE).get(DYNAMIC_STREAM, DynamicStream.class);
+		if (stream != null) {
+			// dynamic tests may still run, the factory is finished with their statistics when its context is closed
+			stream.finishOnClose(factory -> {
+				InvocationStatistics statistics = factory.getStatistics();
+				if (!statistics.isEmpty()) {
+					attributes.addAll(statistics.getAttributes());
+				}
+				if (!attributes.isEmpty()) {
+					rq.setAttributes(attributes);
+				}
+				finishTestItem(context, rq);
+			});
+			return;
+		}
+		if (!attributes.isEmpty()) {
+			rq.setAttributes(attributes);
+		}
 		finishTestItem(context, rq);
 	}
 
 	private void finishTestItem(@NotNull final ExtensionContext context, @NotNull final FinishTestItemRQ rq) {
+		if (QuarantineAttempt.get(context).flatMap(attempt -> attempt.getContainerId(context.getUniqueId())).isPresent()) {
+			// containers of the original execution are finished by it
+			releaseItemId(context);
+			return;
+		}
 		Launch launch = getLaunch(context);
 		if (Objects.isNull(rq.getEndTime())) {
 			rq.setEndTime(Calendar.getInstance().getTime());
 		}
-		Maybe<OperationCompletionRS> finishResponse = launch.finishTestItem(idMapping.get(context), rq);
+		Maybe<String> itemId = releaseDeferredItem(releaseItemId(context));
+		Maybe<OperationCompletionRS> finishResponse = launch.finishTestItem(itemId, rq);
+		finishWindow.add(finishResponse);
+		// a class is journaled as completed only when its finish is accepted, so a lost finish runs the class again on resume
+		journalFinish(itemId, finishResponse, isTopLevelClass(context) ? context.getRequiredTestClass().getName() : null);
+		if (finishResponse != null && context.getParent().map(p -> !p.getParent().isPresent()).orElse(false)) {
+			ofNullable(SHARED_LAUNCH_SUITES.get(launch)).ifPresent(suiteFinishes -> suiteFinishes.add(finishResponse));
+		}
 		if (getReporter().getParameters().isCallbackReportingEnabled()) {
 			ofNullable(TEST_ITEM_TREE.getTestItems().get(createItemTreeKey(context))).ifPresent(itemLeaf -> itemLeaf.setFinishResponse(
 					finishResponse));
 		}
 	}
 
+	/**
+	 * Forgets an ID of a finished item, so no state of a test is kept after its finish. A test factory keeps its ID for dynamic tests
+	 * which can be executed after the factory is finished, it is released together with the other children of its class.
+	 */
+	private Maybe<String> releaseItemId(ExtensionContext context) {
+		boolean testFactory = context.getTestMethod().map(m -> m.isAnnotationPresent(TestFactory.class)).orElse(false);
+		return testFactory ? idMapping.get(context) : idMapping.remove(context);
+	}
+
+	private void releaseChildIds(ExtensionContext context) {
+		idMapping.keySet().removeIf(c -> c.getParent().filter(context::equals).isPresent());
+	}
+
 	private static Thread getShutdownHook(final Launch launch) {
 		return new Thread(() -> {
 			FinishExecutionRQ rq = new FinishExecutionRQ();
@@ -502,7 +1156,28 @@ public class ReportPortalExtension
 		});
 	}
 
-	private static void sendStackTraceToRP(final Throwable cause) {
+	/**
+	 * Waits until items reported into a shared launch are sent, without finishing the launch. Top level items are finished after their
+	 * children, so only their finishes are awaited.
+	 */
+	private static Thread getSharedLaunchShutdownHook(final ReportPortal rp, final String uuid, final Queue<Maybe<?>> suiteFinishes) {
+		return new Thread(() -> {
+			Maybe<?> finish;
+			while ((finish = suiteFinishes.poll()) != null) {
+				// errors are logged by the client, the hook only waits for the request to complete
+				finish.onErrorComplete().blockingGet();
+			}
+			ofNullable(System.getProperty(SharedLaunch.SHARD_COUNTER_FILE_PROPERTY)).filter(StringUtils::isNotBlank)
+					.ifPresent(counter -> SharedLaunch.finishShard(rp,
+							uuid,
+							Paths.get(counter),
+							Integer.getInteger(ShardingFilter.SHARD_INDEX_PROPERTY, 0),
+							Integer.getInteger(ShardingFilter.SHARD_COUNT_PROPERTY, 1)
+					));
+		});
+	}
+
+	static void sendStackTraceToRP(final Throwable cause) {
 		ReportPortal.emitLog(itemUuid -> {
 			SaveLogRQ rq = new SaveLogRQ();
 			rq.setItemUuid(itemUuid);
@@ -530,7 +1205,7 @@ public class ReportPortalExtension
 			name = context.getDisplayName();
 			uniqueId = context.getUniqueId();
 		}
-		name = name.length() > 1024 ? name.substring(0, 1024) + "..." : name;
+		name = limitLength(name);
 		String description = context.getDisplayName();
 		Set<String> tags = context.getTags();
 		return new TestItem(name, description, uniqueId, tags);
@@ -559,7 +1234,7 @@ public class ReportPortalExtension
 			this.name = name;
 			this.description = description;
 			this.uniqueId = uniqueId;
-			this.attributes = tags.stream().map(it -> new ItemAttributesRQ(null, it)).collect(Collectors.toSet());
+			this.attributes = ATTRIBUTE_SETS.fromTags(tags);
 		}
 
 		public String getUniqueId() {
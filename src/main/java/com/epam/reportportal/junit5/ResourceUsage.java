@@ -0,0 +1,118 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import com.epam.ta.reportportal.ws.model.attribute.ItemAttributesRQ;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CPU time and heap allocations of test threads, summed over the tests of a step or a suite.
+ * <p>
+ * Both counters are read for the current thread only, which costs about as much as reading a clock. A counter which the JVM does not
+ * support is not reported. Allocations are a HotSpot extension of {@link ThreadMXBean}, so only the nested {@code Allocations} class
+ * links against it, and the counter is off if that fails.
+ */
+class ResourceUsage {
+
+	static final String CPU_TIME_ATTRIBUTE = "cpuTime";
+	static final String ALLOCATED_ATTRIBUTE = "allocated";
+
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+	private static final boolean CPU_TIME_SUPPORTED = THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled();
+	private static final boolean ALLOCATIONS_SUPPORTED = isAllocationsSupported();
+
+	private final AtomicLong cpuTime = new AtomicLong();
+	private final AtomicLong allocatedBytes = new AtomicLong();
+
+	/**
+	 * A measurement started on a test thread.
+	 */
+	static class Measurement {
+		private final Thread thread = Thread.currentThread();
+		private final long cpuTime = getCpuTime();
+		private final long allocatedBytes = getAllocatedBytes();
+
+		/**
+		 * @return the usage since the start, or {@code null} if the measurement is stopped on another thread than it was started
+		 */
+		ResourceUsage stop() {
+			if (thread != Thread.currentThread()) {
+				return null;
+			}
+			ResourceUsage usage = new ResourceUsage();
+			usage.cpuTime.set(getCpuTime() - cpuTime);
+			usage.allocatedBytes.set(getAllocatedBytes() - allocatedBytes);
+			return usage;
+		}
+	}
+
+	static boolean isSupported() {
+		return CPU_TIME_SUPPORTED || ALLOCATIONS_SUPPORTED;
+	}
+
+	void add(ResourceUsage usage) {
+		cpuTime.addAndGet(usage.cpuTime.get());
+		allocatedBytes.addAndGet(usage.allocatedBytes.get());
+	}
+
+	List<ItemAttributesRQ> getAttributes() {
+		List<ItemAttributesRQ> attributes = new ArrayList<>();
+		if (CPU_TIME_SUPPORTED) {
+			attributes.add(new ItemAttributesRQ(CPU_TIME_ATTRIBUTE, TimeUnit.NANOSECONDS.toMillis(cpuTime.get()) + " ms"));
+		}
+		if (ALLOCATIONS_SUPPORTED) {
+			attributes.add(new ItemAttributesRQ(ALLOCATED_ATTRIBUTE, allocatedBytes.get() / 1024 + " KB"));
+		}
+		return attributes;
+	}
+
+	private static long getCpuTime() {
+		return CPU_TIME_SUPPORTED ? THREADS.getCurrentThreadCpuTime() : 0;
+	}
+
+	private static long getAllocatedBytes() {
+		return ALLOCATIONS_SUPPORTED ? Allocations.get() : 0;
+	}
+
+	private static boolean isAllocationsSupported() {
+		try {
+			return Allocations.isSupported();
+		} catch (LinkageError e) {
+			return false;
+		}
+	}
+
+	private static final class Allocations {
+		private static boolean isSupported() {
+			if (!(THREADS instanceof com.sun.management.ThreadMXBean)) {
+				return false;
+			}
+			com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+			return threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled();
+		}
+
+		private static long get() {
+			return ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+	}
+}
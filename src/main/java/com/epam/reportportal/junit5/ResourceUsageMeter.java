@@ -0,0 +1,72 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.Optional;
+
+/**
+ * Measures {@link ResourceUsage} of tests, turned on with {@code resourceUsage} system property, and sums it up for their classes.
+ * A measurement is kept in the store of the test from its {@code @BeforeEach} till its {@code @AfterEach} methods.
+ */
+class ResourceUsageMeter {
+
+	private static final String RESOURCE_USAGE_PROPERTY = "resourceUsage";
+	private static final String RESOURCE_MEASUREMENT = "RESOURCE_MEASUREMENT";
+	private static final String RESOURCE_USAGE = "RESOURCE_USAGE";
+
+	private final ExtensionContext.Namespace namespace;
+	private final boolean enabled = Boolean.getBoolean(RESOURCE_USAGE_PROPERTY) && ResourceUsage.isSupported();
+
+	ResourceUsageMeter(ExtensionContext.Namespace namespace) {
+		this.namespace = namespace;
+	}
+
+	boolean isEnabled() {
+		return enabled;
+	}
+
+	void start(ExtensionContext context) {
+		if (enabled) {
+			context.getStore(namespace).put(RESOURCE_MEASUREMENT, new ResourceUsage.Measurement());
+		}
+	}
+
+	/**
+	 * Stops the measurement of a test, or takes the usage summed for a class, and adds it to the enclosing class.
+	 *
+	 * @return the usage, or {@code null} if nothing was measured
+	 */
+	ResourceUsage stop(ExtensionContext context) {
+		ResourceUsage.Measurement measurement = context.getStore(namespace).remove(RESOURCE_MEASUREMENT, ResourceUsage.Measurement.class);
+		ResourceUsage usage = measurement == null ?
+				context.getStore(namespace).remove(RESOURCE_USAGE, ResourceUsage.class) :
+				measurement.stop();
+		if (usage != null) {
+			Optional<ExtensionContext> parent = context.getParent();
+			while (parent.isPresent() && parent.get().getTestMethod().isPresent()) {
+				parent = parent.get().getParent();
+			}
+			parent.filter(p -> p.getTestClass().isPresent())
+					.ifPresent(p -> p.getStore(namespace)
+							.getOrComputeIfAbsent(RESOURCE_USAGE, k -> new ResourceUsage(), ResourceUsage.class)
+							.add(usage));
+		}
+		return usage;
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Attempts of a retried test which are held back until the test template finishes. Only the last attempt is kept in full, earlier
+ * ones are reduced to a line of their outcome and duration.
+ */
+class RetryAttempts {
+
+	static class Attempt {
+		private final StartTestItemRQ rq;
+		private final long start = System.nanoTime();
+		private Status status;
+		private String stackTrace;
+		private Date endTime;
+		private long duration;
+
+		Attempt(StartTestItemRQ rq) {
+			this.rq = rq;
+		}
+
+		void finish(Status status, String stackTrace) {
+			this.status = status;
+			this.stackTrace = stackTrace;
+			this.endTime = new Date();
+			this.duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		}
+
+		StartTestItemRQ getRq() {
+			return rq;
+		}
+
+		Status getStatus() {
+			return status;
+		}
+
+		String getStackTrace() {
+			return stackTrace;
+		}
+
+		Date getEndTime() {
+			return endTime;
+		}
+	}
+
+	private final List<String> earlier = new ArrayList<>();
+	private Attempt last;
+	private boolean failed;
+
+	/**
+	 * @param attempt a finished attempt
+	 * @return true if the attempt is the first failed one of the test
+	 */
+	synchronized boolean add(Attempt attempt) {
+		if (last != null) {
+			earlier.add("Attempt " + (earlier.size() + 1) + ": " + last.status + " in " + last.duration + " ms");
+		}
+		last = attempt;
+		boolean firstFailure = !failed && Status.FAILED == attempt.status;
+		failed |= firstFailure;
+		return firstFailure;
+	}
+
+	/**
+	 * @return true if any attempt failed, as JUnit then fails the test even if a later attempt passes
+	 */
+	synchronized boolean isFailed() {
+		return failed;
+	}
+
+	synchronized Attempt getLast() {
+		return last;
+	}
+
+	synchronized List<String> getEarlier() {
+		return new ArrayList<>(earlier);
+	}
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Recognizes invocations of a test template which are attempts of the same retried test. Implementations are loaded with
+ * {@link java.util.ServiceLoader}, so a retry extension can be supported by listing a detector in
+ * {@code META-INF/services/com.epam.reportportal.junit5.RetryDetector}.
+ */
+public interface RetryDetector {
+
+	/**
+	 * @param context an extension context of a test
+	 * @return true if invocations of the test are attempts of a retried test
+	 */
+	boolean isRetry(ExtensionContext context);
+}
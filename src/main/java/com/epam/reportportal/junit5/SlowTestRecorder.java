@@ -0,0 +1,102 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import com.epam.reportportal.junit5.history.LaunchHistory;
+import com.epam.reportportal.service.ReportPortal;
+import com.epam.ta.reportportal.ws.model.attribute.ItemAttributesRQ;
+import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.time.Instant;
+import java.util.Calendar;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Attaches {@link FlightRecordings} to slow tests. A test is slow if it runs longer than {@code flightRecordingThreshold} milliseconds,
+ * or longer than its previous duration from the launch history multiplied by {@code flightRecordingFactor}.
+ */
+class SlowTestRecorder {
+
+	private static final String FLIGHT_RECORDING_THRESHOLD_PROPERTY = "flightRecordingThreshold";
+	private static final String FLIGHT_RECORDING_FACTOR_PROPERTY = "flightRecordingFactor";
+	private static final String FLIGHT_RECORDING_ATTRIBUTE = "flightRecording";
+	private static final String TEST_START = "TEST_START";
+
+	private final ExtensionContext.Namespace namespace;
+	private final Supplier<LaunchHistory> history;
+	private final long threshold = Long.getLong(FLIGHT_RECORDING_THRESHOLD_PROPERTY, 0L);
+	private final double factor = Double.parseDouble(System.getProperty(FLIGHT_RECORDING_FACTOR_PROPERTY, "0"));
+	private final boolean enabled = (threshold > 0 || factor > 0) && FlightRecordings.start();
+
+	SlowTestRecorder(ExtensionContext.Namespace namespace, Supplier<LaunchHistory> history) {
+		this.namespace = namespace;
+		this.history = history;
+	}
+
+	void start(ExtensionContext context) {
+		if (enabled) {
+			context.getStore(namespace).put(TEST_START, System.nanoTime());
+		}
+	}
+
+	/**
+	 * Logs the recording of a slow test to its step before it finishes.
+	 *
+	 * @return the attribute with the name of the recording
+	 */
+	Optional<ItemAttributesRQ> finish(ExtensionContext context) {
+		Long start = context.getStore(namespace).remove(TEST_START, Long.class);
+		if (start == null) {
+			return Optional.empty();
+		}
+		long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		if (!isSlow(context, duration)) {
+			return Optional.empty();
+		}
+		Instant end = Instant.now();
+		return FlightRecordings.dump(context.getDisplayName(), end.minusMillis(duration), end).map(recording -> {
+			sendFlightRecordingToRP(recording, duration);
+			return new ItemAttributesRQ(FLIGHT_RECORDING_ATTRIBUTE, recording.getName());
+		});
+	}
+
+	private boolean isSlow(ExtensionContext context, long duration) {
+		if (threshold > 0 && duration > threshold) {
+			return true;
+		}
+		return factor > 0 && history.get()
+				.get(context.getUniqueId())
+				.filter(record -> record.getDuration() > 0 && duration > record.getDuration() * factor)
+				.isPresent();
+	}
+
+	private static void sendFlightRecordingToRP(final SaveLogRQ.File recording, final long duration) {
+		// the content is copied already, so the recording copy is closed when the log is sent
+		ReportPortal.emitLog(itemUuid -> {
+			SaveLogRQ rq = new SaveLogRQ();
+			rq.setItemUuid(itemUuid);
+			rq.setLevel("WARN");
+			rq.setLogTime(Calendar.getInstance().getTime());
+			rq.setMessage("Flight recording of the slow test, " + duration + " ms");
+			rq.setFile(recording);
+			return rq;
+		});
+	}
+}
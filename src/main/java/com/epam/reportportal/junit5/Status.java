@@ -20,5 +20,6 @@ package com.epam.reportportal.junit5;
 public enum Status {
 	PASSED,
 	FAILED,
-	SKIPPED;
+	SKIPPED,
+	INTERRUPTED;
 }
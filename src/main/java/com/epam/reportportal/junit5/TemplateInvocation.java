@@ -0,0 +1,82 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import org.opentest4j.TestAbortedException;
+
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.epam.reportportal.junit5.Status.*;
+
+/**
+ * An invocation of a test template for which invocations aggregation is turned on. Only the invocations up to the aggregation threshold
+ * are reported as items right away, the rest are counted in the {@link InvocationStatistics} of the template.
+ */
+class TemplateInvocation {
+
+	private final InvocationStatistics statistics;
+	private final boolean reported;
+	private final Date startTime = Calendar.getInstance().getTime();
+	private final long start = System.nanoTime();
+	private List<Object> arguments = Collections.emptyList();
+	private boolean finished;
+
+	TemplateInvocation(InvocationStatistics statistics, int threshold) {
+		this.statistics = statistics;
+		this.reported = statistics.nextInvocation() <= threshold;
+	}
+
+	boolean isReported() {
+		return reported;
+	}
+
+	List<Object> getArguments() {
+		return arguments;
+	}
+
+	/**
+	 * Keeps the arguments rendered to strings, the invocation is reported from them only if it fails and should not keep the
+	 * arguments themselves reachable until then.
+	 */
+	void setArguments(List<Object> arguments) {
+		this.arguments = arguments.stream().map(argument -> argument == null ? null : argument.toString()).collect(Collectors.toList());
+	}
+
+	Date getStartTime() {
+		return startTime;
+	}
+
+	Status finish(Throwable throwable) {
+		Status status = throwable == null ? PASSED : throwable instanceof TestAbortedException ? SKIPPED : FAILED;
+		statistics.record(status, System.nanoTime() - start);
+		finished = true;
+		return status;
+	}
+
+	/**
+	 * Counts an invocation whose test method was not called due to a failed {@code @BeforeEach} method.
+	 */
+	void close() {
+		if (!finished) {
+			statistics.record(SKIPPED, System.nanoTime() - start);
+		}
+	}
+}
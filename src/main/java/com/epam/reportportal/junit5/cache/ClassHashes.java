@@ -0,0 +1,279 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Hashes bytecode of a class together with all application classes it references directly or transitively. Application classes are
+ * the ones loaded from classpath directories, classes from jars are hashed without their own references, JDK classes are not hashed.
+ * References are read from the constant pool, including string constants which name classes, like arguments of
+ * {@code Class.forName}. If a referenced class cannot be found, the class may depend on code generated or loaded at runtime, so it
+ * is not hashed at all.
+ * <p>
+ * Only bytecode is hashed: classpath resources, like property files or templates which a test reads, are not, so a change of a
+ * resource alone does not invalidate a cached class. The digest and references of each class are read once per class loader, test
+ * classes of a run share them for the classes they have in common.
+ */
+class ClassHashes {
+
+	private static final Entry MISSING = new Entry(null, Collections.emptySet(), Collections.emptySet());
+	private static final Entry PLATFORM = new Entry(null, Collections.emptySet(), Collections.emptySet());
+	private static final Map<ClassLoader, Map<String, Entry>> ENTRIES = Collections.synchronizedMap(new WeakHashMap<>());
+
+	private static final Pattern DESCRIPTOR_TYPE = Pattern.compile("L([^;<>:.\\[\\s()]+)[;<]");
+	private static final Pattern BINARY_NAME = Pattern.compile("[A-Za-z_$][\\w$]*(\\.[A-Za-z_$][\\w$]*)+");
+	private static final ClassLoader PLATFORM_LOADER = ClassLoader.getSystemClassLoader().getParent();
+
+	private ClassHashes() {
+	}
+
+	/**
+	 * @param testClass a class to hash
+	 * @return hex SHA-256 of the class and its dependencies, or empty if a referenced class cannot be found
+	 */
+	static Optional<String> hash(Class<?> testClass) throws IOException {
+		return hash(testClass.getName(), ofNullableLoader(testClass.getClassLoader()));
+	}
+
+	/**
+	 * @param className a binary name of a class to hash
+	 * @param loader    a loader to find the class and its dependencies with
+	 * @return hex SHA-256 of the class and its dependencies, or empty if a referenced class cannot be found
+	 */
+	static Optional<String> hash(String className, ClassLoader loader) throws IOException {
+		SortedMap<String, byte[]> digests = new TreeMap<>();
+		Set<String> visited = new HashSet<>();
+		Deque<String> queue = new ArrayDeque<>();
+		String root = className.replace('.', '/');
+		visited.add(root);
+		queue.add(root);
+		Map<String, Entry> entries = ENTRIES.computeIfAbsent(loader, l -> new ConcurrentHashMap<>());
+		while (!queue.isEmpty()) {
+			String name = queue.poll();
+			Entry entry = getEntry(entries, name, loader);
+			if (entry == MISSING) {
+				return Optional.empty();
+			}
+			if (entry == PLATFORM) {
+				continue;
+			}
+			digests.put(name, entry.digest);
+			for (String reference : entry.references) {
+				if (visited.add(reference)) {
+					queue.add(reference);
+				}
+			}
+			// classes named by strings are tracked if they exist, other strings are not class names
+			for (String reference : entry.namedClasses) {
+				if (!visited.contains(reference) && getEntry(entries, reference, loader) != MISSING) {
+					visited.add(reference);
+					queue.add(reference);
+				}
+			}
+		}
+		MessageDigest total = sha256();
+		digests.forEach((name, digest) -> {
+			total.update(name.getBytes(StandardCharsets.UTF_8));
+			total.update(digest);
+		});
+		StringBuilder hex = new StringBuilder();
+		for (byte b : total.digest()) {
+			hex.append(String.format("%02x", b));
+		}
+		return Optional.of(hex.toString());
+	}
+
+	private static Entry getEntry(Map<String, Entry> entries, String name, ClassLoader loader) throws IOException {
+		Entry entry = entries.get(name);
+		if (entry == null) {
+			// two threads may read the same class, both get equal entries
+			entry = readEntry(name, loader);
+			entries.put(name, entry);
+		}
+		return entry;
+	}
+
+	private static Entry readEntry(String name, ClassLoader loader) throws IOException {
+		URL resource = loader.getResource(name + ".class");
+		if (resource == null) {
+			return MISSING;
+		}
+		if (PLATFORM_LOADER != null && PLATFORM_LOADER.getResource(name + ".class") != null) {
+			return PLATFORM;
+		}
+		byte[] bytes;
+		try (InputStream in = resource.openStream()) {
+			bytes = readAll(in);
+		}
+		byte[] digest = sha256().digest(bytes);
+		if (!"file".equals(resource.getProtocol())) {
+			return new Entry(digest, Collections.emptySet(), Collections.emptySet());
+		}
+		ConstantPool pool = new ConstantPool(bytes);
+		return new Entry(digest, pool.getReferences(), pool.getNamedClasses());
+	}
+
+	/**
+	 * A class read from a class loader.
+	 */
+	private static class Entry {
+		private final byte[] digest;
+		private final Set<String> references;
+		private final Set<String> namedClasses;
+
+		Entry(byte[] digest, Set<String> references, Set<String> namedClasses) {
+			this.digest = digest;
+			this.references = references;
+			this.namedClasses = namedClasses;
+		}
+	}
+
+	/**
+	 * @param bytes a class file
+	 * @return internal names of classes referenced from the constant pool
+	 */
+	static Set<String> references(byte[] bytes) throws IOException {
+		return new ConstantPool(bytes).getReferences();
+	}
+
+	/**
+	 * @param bytes a class file
+	 * @return internal names made of string constants which look like binary class names
+	 */
+	static Set<String> namedClasses(byte[] bytes) throws IOException {
+		return new ConstantPool(bytes).getNamedClasses();
+	}
+
+	private static class ConstantPool {
+		private final String[] strings;
+		private final List<Integer> classes = new ArrayList<>();
+		private final Set<Integer> literals = new HashSet<>();
+
+		ConstantPool(byte[] bytes) throws IOException {
+			DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+			in.skipBytes(8); // magic and version
+			int count = in.readUnsignedShort();
+			strings = new String[count];
+			for (int i = 1; i < count; i++) {
+				int tag = in.readUnsignedByte();
+				switch (tag) {
+					case 1: // Utf8
+						strings[i] = in.readUTF();
+						break;
+					case 7: // Class
+						classes.add(in.readUnsignedShort());
+						break;
+					case 8: // String
+						literals.add(in.readUnsignedShort());
+						break;
+					case 16: // MethodType
+					case 19: // Module
+					case 20: // Package
+						in.skipBytes(2);
+						break;
+					case 15: // MethodHandle
+						in.skipBytes(3);
+						break;
+					case 3: // Integer
+					case 4: // Float
+					case 9: // Fieldref
+					case 10: // Methodref
+					case 11: // InterfaceMethodref
+					case 12: // NameAndType
+					case 17: // Dynamic
+					case 18: // InvokeDynamic
+						in.skipBytes(4);
+						break;
+					case 5: // Long
+					case 6: // Double
+						in.skipBytes(8);
+						i++;
+						break;
+					default:
+						throw new IOException("Unknown constant pool tag " + tag);
+				}
+			}
+		}
+
+		Set<String> getReferences() {
+			Set<String> result = new HashSet<>();
+			for (int index : classes) {
+				String name = strings[index];
+				if (name != null && !name.startsWith("[")) {
+					result.add(name);
+				}
+			}
+			// field, method and annotation types, which may be absent from Class entries; string literals are not descriptors
+			for (int i = 1; i < strings.length; i++) {
+				String string = strings[i];
+				if (string != null && string.indexOf('L') >= 0 && !literals.contains(i)) {
+					Matcher matcher = DESCRIPTOR_TYPE.matcher(string);
+					while (matcher.find()) {
+						result.add(matcher.group(1));
+					}
+				}
+			}
+			return result;
+		}
+
+		Set<String> getNamedClasses() {
+			Set<String> result = new HashSet<>();
+			for (int index : literals) {
+				String string = strings[index];
+				if (string != null && BINARY_NAME.matcher(string).matches()) {
+					result.add(string.replace('.', '/'));
+				}
+			}
+			return result;
+		}
+	}
+
+	private static ClassLoader ofNullableLoader(ClassLoader loader) {
+		return loader == null ? ClassLoader.getSystemClassLoader() : loader;
+	}
+
+	private static byte[] readAll(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int read;
+		while ((read = in.read(buffer)) >= 0) {
+			out.write(buffer, 0, read);
+		}
+		return out.toByteArray();
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.cache;
+
+import com.epam.reportportal.junit5.utils.LockedFiles;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Test classes which passed, kept in a local file with a hash of their bytecode and bytecode of application classes they reference.
+ * A class is unchanged if all its tests passed in one run and the hash is the same, so it does not need to run again.
+ * <p>
+ * The file is set with {@code resultCacheFile} system property, the cache is off if the property is not set. Results of a JVM are
+ * saved to the file on its shutdown.
+ */
+public class ResultCache {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ResultCache.class);
+
+	public static final String RESULT_CACHE_FILE_PROPERTY = "resultCacheFile";
+
+	private static final String HEADER = "# ReportPortal JUnit 5 agent result cache: bytecode hash, test class";
+	private static final ResultCache DISABLED = new ResultCache(null, Collections.emptyMap());
+	private static final Map<Path, ResultCache> SHARED = new ConcurrentHashMap<>();
+
+	private final Path file;
+	private final Map<String, String> passed;
+	private final Map<String, Optional<String>> changes = new ConcurrentHashMap<>();
+	private final Map<Class<?>, Optional<String>> hashes = new ConcurrentHashMap<>();
+
+	ResultCache(Path file, Map<String, String> passed) {
+		this.file = file;
+		this.passed = passed;
+	}
+
+	/**
+	 * @return the cache loaded once per JVM from the file set with {@code resultCacheFile} system property, or a disabled one
+	 */
+	public static ResultCache getShared() {
+		return ofNullable(System.getProperty(RESULT_CACHE_FILE_PROPERTY)).filter(f -> !f.trim().isEmpty())
+				.map(Paths::get)
+				.map(file -> SHARED.computeIfAbsent(file, f -> {
+					ResultCache cache = load(f);
+					Runtime.getRuntime().addShutdownHook(new Thread(cache::save));
+					return cache;
+				}))
+				.orElse(DISABLED);
+	}
+
+	/**
+	 * @param file a cache file
+	 * @return the cache from the file, empty if the file does not exist or cannot be read
+	 */
+	public static ResultCache load(Path file) {
+		Map<String, String> passed = new ConcurrentHashMap<>();
+		if (Files.exists(file)) {
+			try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					String[] fields = line.split("\t", 2);
+					if (!line.startsWith("#") && fields.length == 2) {
+						passed.put(fields[1], fields[0]);
+					}
+				}
+			} catch (IOException e) {
+				LOGGER.warn("Unable to read result cache from {}", file, e);
+			}
+		}
+		return new ResultCache(file, passed);
+	}
+
+	public boolean isEnabled() {
+		return file != null;
+	}
+
+	/**
+	 * @param testClass a test class
+	 * @return true if the class passed and neither it nor its application dependencies changed since
+	 */
+	public boolean isUnchanged(Class<?> testClass) {
+		if (!isEnabled()) {
+			return false;
+		}
+		String cached = passed.get(testClass.getName());
+		return cached != null && getHash(testClass).filter(cached::equals).isPresent();
+	}
+
+	/**
+	 * Remembers a result of a test class run in this JVM.
+	 *
+	 * @param testClass a test class
+	 * @param success   true if all tests of the class ran and passed
+	 */
+	public void record(Class<?> testClass, boolean success) {
+		if (!isEnabled()) {
+			return;
+		}
+		Optional<String> hash = success ? getHash(testClass) : Optional.empty();
+		changes.put(testClass.getName(), hash);
+		if (hash.isPresent()) {
+			passed.put(testClass.getName(), hash.get());
+		} else {
+			passed.remove(testClass.getName());
+		}
+	}
+
+	private Optional<String> getHash(Class<?> testClass) {
+		return hashes.computeIfAbsent(testClass, c -> {
+			try {
+				// classes which reference missing classes are not cached, they may depend on code loaded at runtime
+				return ClassHashes.hash(c);
+			} catch (IOException e) {
+				LOGGER.warn("Unable to hash bytecode of {}", c.getName(), e);
+				return Optional.empty();
+			}
+		});
+	}
+
+	/**
+	 * Merges results of this JVM into the cache file. Only classes this JVM ran are changed: the file is read again under the lock,
+	 * so classes cached by other forks since this JVM loaded it are kept.
+	 */
+	public void save() {
+		if (!isEnabled() || changes.isEmpty()) {
+			return;
+		}
+		try {
+			LockedFiles.update(file, () -> {
+				Map<String, String> merged = new TreeMap<>(load(file).passed);
+				changes.forEach((testClass, hash) -> {
+					if (hash.isPresent()) {
+						merged.put(testClass, hash.get());
+					} else {
+						merged.remove(testClass);
+					}
+				});
+				List<String> lines = new ArrayList<>();
+				lines.add(HEADER);
+				merged.forEach((testClass, hash) -> lines.add(hash + "\t" + testClass));
+				return lines;
+			});
+		} catch (IOException e) {
+			LOGGER.warn("Unable to save result cache to {}", file, e);
+		}
+	}
+}
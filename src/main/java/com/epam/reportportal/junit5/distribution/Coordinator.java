@@ -0,0 +1,142 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.distribution;
+
+import com.epam.reportportal.junit5.ReportPortalExtension;
+import com.epam.reportportal.junit5.history.LaunchHistory;
+import org.junit.platform.engine.DiscoverySelector;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClasspathRoots;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectPackage;
+
+/**
+ * Runs test classes in {@code workers} JVMs (the number of processors by default), which take classes on demand, so a worker that
+ * finished its classes takes the next one instead of idling.
+ * <p>
+ * The coordinator discovers test classes in the packages given as arguments, or in classpath directories if there are no arguments,
+ * starts a launch and the workers with its own JVM arguments and classpath. The workers report into the launch, which is finished
+ * after all of them exit. Classes without history run first, then the longest ones according to {@link LaunchHistory}. Classes are
+ * selected by their unique IDs, so classes of any engine are run and matched with their history. If workers crash, their running
+ * classes are run again by the other workers, or by a new worker if all of them have exited.
+ */
+public class Coordinator {
+
+	public static final String WORKERS_PROPERTY = "workers";
+
+	public static void main(String... args) throws IOException, InterruptedException {
+		int workers = Integer.getInteger(WORKERS_PROPERTY, Runtime.getRuntime().availableProcessors());
+		List<String> classes = order(discover(args), LaunchHistory.getShared());
+
+		// workers report into the launch, so it should exist before they start
+		String launchUuid = SharedLaunch.start(ReportPortalExtension.REPORT_PORTAL, null);
+
+		int exitCode = 0;
+		try (WorkQueue queue = new WorkQueue(classes)) {
+			int port = queue.start();
+			List<Process> processes = new ArrayList<>();
+			for (int i = 1; i <= workers; i++) {
+				processes.add(startWorker(port, launchUuid));
+			}
+			for (Process process : processes) {
+				exitCode = Math.max(exitCode, process.waitFor());
+			}
+			queue.awaitDisconnected();
+			// classes of crashed workers are put back to the queue, while other workers may have already exited
+			while (queue.size() > 0) {
+				int handedOut = queue.getHandedOut();
+				exitCode = Math.max(exitCode, startWorker(port, launchUuid).waitFor());
+				queue.awaitDisconnected();
+				if (queue.getHandedOut() == handedOut) {
+					// the worker did not take any class, like a JVM which fails to start
+					break;
+				}
+			}
+		} finally {
+			SharedLaunch.finish(ReportPortalExtension.REPORT_PORTAL, launchUuid);
+		}
+		System.exit(exitCode);
+	}
+
+	/**
+	 * @return unique IDs of discovered test classes of all engines
+	 */
+	private static List<String> discover(String... packages) {
+		List<DiscoverySelector> selectors = new ArrayList<>();
+		if (packages.length > 0) {
+			Arrays.stream(packages).forEach(p -> selectors.add(selectPackage(p)));
+		} else {
+			Set<Path> roots = Arrays.stream(System.getProperty("java.class.path").split(File.pathSeparator))
+					.map(Paths::get)
+					.filter(Files::isDirectory)
+					.collect(Collectors.toSet());
+			selectors.addAll(selectClasspathRoots(roots));
+		}
+		TestPlan plan = LauncherFactory.create().discover(LauncherDiscoveryRequestBuilder.request().selectors(selectors).build());
+		return plan.getRoots()
+				.stream()
+				.flatMap(root -> plan.getChildren(root).stream())
+				.filter(identifier -> identifier.getSource().filter(source -> source instanceof ClassSource).isPresent())
+				.map(TestIdentifier::getUniqueId)
+				.distinct()
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * @param classes unique IDs of test classes, which are the keys of their history
+	 * @return classes without history first, in discovery order, then the others by duration descending
+	 */
+	static List<String> order(List<String> classes, LaunchHistory history) {
+		Map<String, Long> durations = new HashMap<>();
+		for (String id : classes) {
+			durations.put(id, history.get(id).map(LaunchHistory.Record::getDuration).orElse(Long.MAX_VALUE));
+		}
+		List<String> result = new ArrayList<>(classes);
+		result.sort(Comparator.<String, Long>comparing(durations::get).reversed());
+		return result;
+	}
+
+	private static Process startWorker(int port, String launchUuid) throws IOException {
+		List<String> command = new ArrayList<>();
+		command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+		ManagementFactory.getRuntimeMXBean()
+				.getInputArguments()
+				.stream()
+				.filter(argument -> !argument.startsWith("-agentlib:jdwp"))
+				.forEach(command::add);
+		// the launch is started and finished by the coordinator, workers only report into it
+		command.add("-D" + ReportPortalExtension.SHARED_LAUNCH_UUID_PROPERTY + "=" + launchUuid);
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(Worker.class.getName());
+		command.add(String.valueOf(port));
+		return new ProcessBuilder(command).inheritIO().start();
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.distribution;
+
+import com.epam.reportportal.junit5.ReportPortalExtension;
+import com.epam.reportportal.junit5.utils.LockedFiles;
+import com.epam.reportportal.service.ReportPortal;
+import com.epam.ta.reportportal.ws.model.FinishExecutionRQ;
+import com.epam.ta.reportportal.ws.model.launch.StartLaunchRQ;
+import io.reactivex.Maybe;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Starts and finishes a launch which is shared by several JVMs, like shards on CI nodes. The JVMs run with
+ * {@code sharedLaunchUuid} system property and only report into the launch, so it is started by a step before all of them and
+ * finished by a step after all of them end:
+ * <pre>
+ * java -cp &lt;test classpath&gt; com.epam.reportportal.junit5.distribution.SharedLaunch start
+ * java -cp &lt;test classpath&gt; com.epam.reportportal.junit5.distribution.SharedLaunch finish &lt;launch UUID&gt;
+ * </pre>
+ * The start command prints the UUID of the started launch, which is the value of {@code sharedLaunchUuid} if it is set.
+ * <p>
+ * Instead of the finish step, shards can count themselves in a file set with {@code shardCounterFile} system property, which all of
+ * them can reach: the shard which ends last finishes the launch.
+ */
+public class SharedLaunch {
+
+	public static final String SHARD_COUNTER_FILE_PROPERTY = "shardCounterFile";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SharedLaunch.class);
+
+	private SharedLaunch() {
+		//static only
+	}
+
+	public static void main(String... args) {
+		ReportPortal rp = ReportPortalExtension.REPORT_PORTAL;
+		if (args.length == 1 && "start".equals(args[0])) {
+			System.out.println(start(rp, System.getProperty(ReportPortalExtension.SHARED_LAUNCH_UUID_PROPERTY)));
+		} else if (args.length == 2 && "finish".equals(args[0])) {
+			finish(rp, args[1]);
+		} else {
+			System.err.println("Usage: SharedLaunch start | SharedLaunch finish <launch UUID>");
+			System.exit(2);
+		}
+	}
+
+	/**
+	 * Starts a launch and waits until it is created.
+	 *
+	 * @param rp   a reporter
+	 * @param uuid a UUID of the launch, or null to generate one
+	 * @return the UUID of the started launch
+	 */
+	public static String start(ReportPortal rp, String uuid) {
+		StartLaunchRQ rq = ReportPortalExtension.buildStartLaunchRq(rp.getParameters());
+		rq.setUuid(StringUtils.isBlank(uuid) ? UUID.randomUUID().toString() : uuid);
+		return rp.newLaunch(rq).start().blockingGet();
+	}
+
+	/**
+	 * Finishes a launch started by {@link #start(ReportPortal, String)}.
+	 *
+	 * @param rp   a reporter
+	 * @param uuid the UUID of the launch
+	 */
+	public static void finish(ReportPortal rp, String uuid) {
+		FinishExecutionRQ rq = new FinishExecutionRQ();
+		rq.setEndTime(Calendar.getInstance().getTime());
+		rp.withLaunch(Maybe.just(uuid)).finish(rq);
+	}
+
+	/**
+	 * Counts an ended shard of a launch in a counter file and finishes the launch if all shards have ended. A shard is counted once, so
+	 * it can report again after a restart.
+	 *
+	 * @param rp         a reporter
+	 * @param uuid       the UUID of the launch
+	 * @param counter    a file shared by all shards of the launch
+	 * @param shardIndex the index of the ended shard
+	 * @param shardCount the number of shards
+	 * @return {@code true} if the shard was the last one and the launch is finished, {@code false} otherwise or if the counter file
+	 * cannot be updated
+	 */
+	public static boolean finishShard(ReportPortal rp, String uuid, Path counter, int shardIndex, int shardCount) {
+		String prefix = uuid + " ";
+		AtomicBoolean last = new AtomicBoolean();
+		try {
+			LockedFiles.update(counter, () -> {
+				List<String> lines = new ArrayList<>();
+				if (Files.exists(counter)) {
+					try {
+						lines.addAll(Files.readAllLines(counter, StandardCharsets.UTF_8));
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				}
+				String shard = prefix + shardIndex;
+				if (!lines.contains(shard)) {
+					lines.add(shard);
+				}
+				last.set(lines.stream().filter(line -> line.startsWith(prefix)).count() >= shardCount);
+				return lines;
+			});
+		} catch (IOException | UncheckedIOException e) {
+			LOGGER.warn("Unable to count the shard in " + counter + ", the launch should be finished by a separate step", e);
+			return false;
+		}
+		if (last.get()) {
+			finish(rp, uuid);
+		}
+		return last.get();
+	}
+}
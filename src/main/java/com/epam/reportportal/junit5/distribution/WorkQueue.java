@@ -0,0 +1,180 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.distribution;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out test classes to workers on demand over a loopback socket. A worker sends {@code NEXT} line and receives the unique ID of a
+ * class, or an empty line if there is no work left. The next request also means that the previous class is done, so a class whose
+ * worker disconnects before the next request, like a crashed JVM, is put back to the queue. A class is handed out at most
+ * {@value #MAX_ATTEMPTS} times, so a class which crashes every worker does not crash all of them.
+ */
+class WorkQueue implements Closeable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(WorkQueue.class);
+
+	static final String NEXT = "NEXT";
+	static final int MAX_ATTEMPTS = 2;
+
+	private final Queue<String> classes;
+	private final Map<String, Integer> attempts = new ConcurrentHashMap<>();
+	private final AtomicInteger handedOut = new AtomicInteger();
+	private int connections;
+	private ServerSocket server;
+
+	WorkQueue(Collection<String> classes) {
+		this.classes = new ConcurrentLinkedQueue<>(classes);
+	}
+
+	/**
+	 * Starts accepting workers.
+	 *
+	 * @return the port to connect to
+	 */
+	int start() throws IOException {
+		server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+		daemon(this::accept, "rp-work-queue").start();
+		return server.getLocalPort();
+	}
+
+	private void accept() {
+		while (!server.isClosed()) {
+			try {
+				Socket socket = server.accept();
+				synchronized (this) {
+					connections++;
+				}
+				daemon(() -> serve(socket), "rp-work-queue-" + socket.getPort()).start();
+			} catch (IOException e) {
+				if (!server.isClosed()) {
+					LOGGER.warn("Unable to accept a worker", e);
+				}
+			}
+		}
+	}
+
+	private void serve(Socket socket) {
+		String running = null;
+		try (Socket s = socket;
+				BufferedReader reader = reader(s);
+				Writer writer = writer(s)) {
+			String request;
+			while ((request = reader.readLine()) != null && NEXT.equals(request)) {
+				running = null;
+				String next = classes.poll();
+				if (next != null) {
+					attempts.merge(next, 1, Integer::sum);
+					handedOut.incrementAndGet();
+					running = next;
+				}
+				writer.write(next == null ? "\n" : next + "\n");
+				writer.flush();
+				if (next == null) {
+					return;
+				}
+			}
+		} catch (IOException e) {
+			LOGGER.warn("Worker connection failed", e);
+		}
+		if (running != null) {
+			requeue(running);
+		}
+		synchronized (this) {
+			connections--;
+			notifyAll();
+		}
+	}
+
+	private void requeue(String running) {
+		if (attempts.get(running) < MAX_ATTEMPTS) {
+			LOGGER.warn("Worker disconnected while running " + running + ", the class is put back to the queue");
+			classes.add(running);
+		} else {
+			LOGGER.error("Worker disconnected while running " + running + ", the class is not run again after " + MAX_ATTEMPTS + " attempts");
+		}
+	}
+
+	/**
+	 * Waits until connections of all workers are closed, so the classes of disconnected workers are back to the queue.
+	 */
+	synchronized void awaitDisconnected() throws InterruptedException {
+		while (connections > 0) {
+			wait();
+		}
+	}
+
+	/**
+	 * @return the number of classes which are not handed out yet
+	 */
+	int size() {
+		return classes.size();
+	}
+
+	/**
+	 * @return the number of times classes were handed out, including classes put back to the queue
+	 */
+	int getHandedOut() {
+		return handedOut.get();
+	}
+
+	/**
+	 * Requests the next test class, which also tells that the previous one is done.
+	 *
+	 * @return the unique ID of the class, or empty if there is no work left
+	 */
+	static Optional<String> take(BufferedReader reader, Writer writer) throws IOException {
+		writer.write(NEXT + "\n");
+		writer.flush();
+		return Optional.ofNullable(reader.readLine()).filter(c -> !c.isEmpty());
+	}
+
+	static BufferedReader reader(Socket socket) throws IOException {
+		return new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+	}
+
+	static Writer writer(Socket socket) throws IOException {
+		return new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+	}
+
+	private static Thread daemon(Runnable task, String name) {
+		Thread thread = new Thread(task, name);
+		thread.setDaemon(true);
+		return thread;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (server != null) {
+			server.close();
+		}
+	}
+}
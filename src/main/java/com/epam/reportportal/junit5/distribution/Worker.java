@@ -0,0 +1,65 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.distribution;
+
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.Optional;
+
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectUniqueId;
+
+/**
+ * A worker JVM started by {@link Coordinator}: takes test classes one by one from the coordinator until there are no more and runs
+ * them. Exits with 1 if any test failed.
+ */
+public class Worker {
+
+	public static void main(String... args) throws IOException {
+		long failures = run(Integer.parseInt(args[0]), LauncherFactory.create());
+		System.exit(failures > 0 ? 1 : 0);
+	}
+
+	/**
+	 * Runs test classes taken from the coordinator until there are no more.
+	 *
+	 * @param port     the port of the coordinator's work queue
+	 * @param launcher a launcher to run the classes with
+	 * @return the number of failed tests
+	 */
+	static long run(int port, Launcher launcher) throws IOException {
+		SummaryGeneratingListener listener = new SummaryGeneratingListener();
+		long failures = 0;
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+				BufferedReader reader = WorkQueue.reader(socket);
+				Writer writer = WorkQueue.writer(socket)) {
+			Optional<String> next;
+			while ((next = WorkQueue.take(reader, writer)).isPresent()) {
+				launcher.execute(LauncherDiscoveryRequestBuilder.request().selectors(selectUniqueId(next.get())).build(), listener);
+				failures += listener.getSummary().getTotalFailureCount();
+			}
+		}
+		return failures;
+	}
+}
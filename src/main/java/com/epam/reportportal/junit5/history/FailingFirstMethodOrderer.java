@@ -0,0 +1,58 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.history;
+
+import com.epam.reportportal.junit5.Status;
+import org.junit.jupiter.api.MethodDescriptor;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.MethodOrdererContext;
+
+import java.util.Comparator;
+
+/**
+ * Orders test methods by the {@link LaunchHistory}: methods which failed in the previous launch go first, then skipped ones, then
+ * methods without history, then passed ones. Methods with the same history keep their default order.
+ * <p>
+ * Use with {@code @TestMethodOrder(FailingFirstMethodOrderer.class)}.
+ */
+public class FailingFirstMethodOrderer implements MethodOrderer {
+
+	private final LaunchHistory history;
+
+	public FailingFirstMethodOrderer() {
+		this(LaunchHistory.getShared());
+	}
+
+	FailingFirstMethodOrderer(LaunchHistory history) {
+		this.history = history;
+	}
+
+	private int getRank(Class<?> testClass, MethodDescriptor descriptor) {
+		return history.get(testClass, descriptor.getMethod()).map(LaunchHistory.Record::getStatus).map(status -> {
+			if (Status.FAILED == status) {
+				return 0;
+			}
+			return Status.SKIPPED == status ? 1 : 3;
+		}).orElse(2);
+	}
+
+	@Override
+	public void orderMethods(MethodOrdererContext context) {
+		Class<?> testClass = context.getTestClass();
+		context.getMethodDescriptors().sort(Comparator.comparingInt(descriptor -> getRank(testClass, descriptor)));
+	}
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.history;
+
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfiguration;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfigurationStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.stream.Collectors;
+
+/**
+ * Sizes the pool of parallel execution by the {@link LaunchHistory}: the number of processors is divided by the share of wall time test
+ * classes spent on CPU in the previous launches, so suites which mostly wait for IO get more threads and CPU-bound suites get one
+ * thread per processor. Without history the parallelism equals the number of processors, as with {@code dynamic} strategy.
+ * <p>
+ * Use with {@code junit.jupiter.execution.parallel.config.strategy=custom} and
+ * {@code junit.jupiter.execution.parallel.config.custom.class=com.epam.reportportal.junit5.history.HistoryParallelExecutionStrategy}.
+ * {@code junit.jupiter.execution.parallel.config.history.max-factor} limits the parallelism to the number of processors multiplied by
+ * the factor, 4 by default.
+ * <p>
+ * The pool may grow over the parallelism to replace threads blocked by tests. Its maximum size is the parallelism the most IO-bound
+ * test class of the history would get on its own, within the same factor, so the pool grows only as much as the history shows tests
+ * wait. Without history the maximum size has the same headroom over the parallelism as with built-in strategies.
+ */
+public class HistoryParallelExecutionStrategy implements ParallelExecutionConfigurationStrategy {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(HistoryParallelExecutionStrategy.class);
+
+	public static final String MAX_FACTOR_PARAMETER = "history.max-factor";
+
+	private static final double DEFAULT_MAX_FACTOR = 4;
+	private static final int DEFAULT_POOL_HEADROOM = 256;
+	private static final int KEEP_ALIVE_SECONDS = 30;
+
+	private final LaunchHistory history;
+
+	public HistoryParallelExecutionStrategy() {
+		this(LaunchHistory.getShared());
+	}
+
+	HistoryParallelExecutionStrategy(LaunchHistory history) {
+		this.history = history;
+	}
+
+	@Override
+	public ParallelExecutionConfiguration createConfiguration(ConfigurationParameters configurationParameters) {
+		int processors = Runtime.getRuntime().availableProcessors();
+		double maxFactor = configurationParameters.get(MAX_FACTOR_PARAMETER).map(Double::parseDouble).orElse(DEFAULT_MAX_FACTOR);
+		OptionalDouble utilization = getCpuUtilization();
+		int parallelism = getParallelism(processors, utilization, maxFactor);
+		int maxPoolSize = getMaxPoolSize(processors, parallelism, getMinCpuUtilization(), maxFactor);
+		LOGGER.info("Parallelism {}, at most {} threads for {} processors, CPU time share of test classes in the previous launch: {}",
+				parallelism,
+				maxPoolSize,
+				processors,
+				utilization.isPresent() ? String.format("%.2f", utilization.getAsDouble()) : "unknown"
+		);
+		return new Configuration(parallelism, maxPoolSize);
+	}
+
+	private static boolean isTopLevelClass(String key) {
+		try {
+			List<UniqueId.Segment> segments = UniqueId.parse(key).getSegments();
+			return segments.size() == 2 && "class".equals(segments.get(1).getType());
+		} catch (JUnitException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * @return records of top-level test classes with CPU time
+	 */
+	private List<LaunchHistory.Record> getClassRecords() {
+		return history.getRecords()
+				.entrySet()
+				.stream()
+				.filter(entry -> entry.getValue().getCpuTime() >= 0 && entry.getValue().getDuration() > 0 && isTopLevelClass(entry.getKey()))
+				.map(Map.Entry::getValue)
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * CPU time of a class is summed over its tests, so it is capped at the wall time of the class.
+	 */
+	private static long getCpuTime(LaunchHistory.Record record) {
+		return Math.min(record.getCpuTime(), record.getDuration());
+	}
+
+	/**
+	 * @return CPU time of top-level test classes divided by their wall time, or empty if there is no CPU time in the history
+	 */
+	OptionalDouble getCpuUtilization() {
+		long cpuTime = 0;
+		long wallTime = 0;
+		for (LaunchHistory.Record record : getClassRecords()) {
+			cpuTime += getCpuTime(record);
+			wallTime += record.getDuration();
+		}
+		return wallTime > 0 ? OptionalDouble.of((double) cpuTime / wallTime) : OptionalDouble.empty();
+	}
+
+	/**
+	 * @return the lowest share of wall time a top-level test class spent on CPU, or empty if there is no CPU time in the history
+	 */
+	OptionalDouble getMinCpuUtilization() {
+		return getClassRecords().stream().mapToDouble(record -> (double) getCpuTime(record) / record.getDuration()).min();
+	}
+
+	static int getParallelism(int processors, OptionalDouble utilization, double maxFactor) {
+		if (!utilization.isPresent()) {
+			return processors;
+		}
+		double factor = 1 / Math.max(utilization.getAsDouble(), 1 / maxFactor);
+		return Math.max(1, (int) Math.round(processors * factor));
+	}
+
+	static int getMaxPoolSize(int processors, int parallelism, OptionalDouble minUtilization, double maxFactor) {
+		if (!minUtilization.isPresent()) {
+			return parallelism + DEFAULT_POOL_HEADROOM;
+		}
+		return Math.max(parallelism, getParallelism(processors, minUtilization, maxFactor));
+	}
+
+	private static final class Configuration implements ParallelExecutionConfiguration {
+		private final int parallelism;
+		private final int maxPoolSize;
+
+		private Configuration(int parallelism, int maxPoolSize) {
+			this.parallelism = parallelism;
+			this.maxPoolSize = maxPoolSize;
+		}
+
+		@Override
+		public int getParallelism() {
+			return parallelism;
+		}
+
+		@Override
+		public int getMinimumRunnable() {
+			return parallelism;
+		}
+
+		@Override
+		public int getMaxPoolSize() {
+			return maxPoolSize;
+		}
+
+		@Override
+		public int getCorePoolSize() {
+			return parallelism;
+		}
+
+		@Override
+		public int getKeepAliveSeconds() {
+			return KEEP_ALIVE_SECONDS;
+		}
+	}
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.history;
+
+import com.epam.reportportal.junit5.Status;
+import com.epam.reportportal.service.ReportPortal;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Records statuses, durations and CPU time of tests and test classes into the {@link LaunchHistory} file at the end of each launch, and
+ * logs how much of the available processors the launch used. CPU time of a class is the sum of CPU time of its tests, measured on the
+ * threads which run them. Registered with {@link java.util.ServiceLoader}, does nothing if {@code historyFile} system property is not
+ * set.
+ */
+public class HistoryRecorder implements TestExecutionListener {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(HistoryRecorder.class);
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+	private final Path file;
+	private final boolean cpuTimeSupported = THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled();
+	private final Map<String, Long> started = new ConcurrentHashMap<>();
+	private final Map<String, Long> startedCpuTime = new ConcurrentHashMap<>();
+	private final Map<String, AtomicLong> classCpuTime = new ConcurrentHashMap<>();
+	private final Map<String, LaunchHistory.Record> results = new ConcurrentHashMap<>();
+	private final AtomicLong planCpuTime = new AtomicLong();
+	private volatile TestPlan testPlan;
+	private volatile long planStart;
+
+	public HistoryRecorder() {
+		this(LaunchHistory.getHistoryFile().orElse(null));
+	}
+
+	HistoryRecorder(Path file) {
+		this.file = file;
+	}
+
+	private static boolean isRecorded(TestIdentifier identifier) {
+		return identifier.isTest() || identifier.getSource().filter(ClassSource.class::isInstance).isPresent();
+	}
+
+	private static Status toStatus(TestExecutionResult result) {
+		switch (result.getStatus()) {
+			case SUCCESSFUL:
+				return Status.PASSED;
+			case ABORTED:
+				return Status.SKIPPED;
+			default:
+				return Status.FAILED;
+		}
+	}
+
+	private void record(TestIdentifier identifier, Status status, long duration, long cpuTime) {
+		results.merge(LaunchHistory.getKey(identifier.getUniqueId()),
+				new LaunchHistory.Record(status, duration, cpuTime),
+				LaunchHistory.Record::combine
+		);
+	}
+
+	/**
+	 * @return unique IDs of test classes which contain the test, including enclosing classes of nested ones
+	 */
+	private List<String> getClassIds(TestIdentifier identifier) {
+		TestPlan plan = testPlan;
+		List<String> classIds = new ArrayList<>();
+		TestIdentifier current = identifier;
+		while (plan != null && current != null) {
+			if (current.getSource().filter(ClassSource.class::isInstance).isPresent()) {
+				classIds.add(current.getUniqueId());
+			}
+			current = plan.getParent(current).orElse(null);
+		}
+		return classIds;
+	}
+
+	@Override
+	public void testPlanExecutionStarted(TestPlan testPlan) {
+		this.testPlan = testPlan;
+		planStart = System.nanoTime();
+		planCpuTime.set(0);
+	}
+
+	@Override
+	public void executionStarted(TestIdentifier testIdentifier) {
+		if (file != null && isRecorded(testIdentifier)) {
+			started.put(testIdentifier.getUniqueId(), System.nanoTime());
+			if (cpuTimeSupported && testIdentifier.isTest()) {
+				startedCpuTime.put(testIdentifier.getUniqueId(), THREADS.getCurrentThreadCpuTime());
+			}
+		}
+	}
+
+	@Override
+	public void executionSkipped(TestIdentifier testIdentifier, String reason) {
+		if (file != null && isRecorded(testIdentifier)) {
+			record(testIdentifier, Status.SKIPPED, 0, cpuTimeSupported ? 0 : -1);
+		}
+	}
+
+	@Override
+	public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+		Long start = started.remove(testIdentifier.getUniqueId());
+		if (start == null) {
+			return;
+		}
+		long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		long cpuTime = -1;
+		Long startCpuTime = startedCpuTime.remove(testIdentifier.getUniqueId());
+		if (startCpuTime != null) {
+			long cpuNanos = THREADS.getCurrentThreadCpuTime() - startCpuTime;
+			cpuTime = TimeUnit.NANOSECONDS.toMillis(cpuNanos);
+			planCpuTime.addAndGet(cpuNanos);
+			getClassIds(testIdentifier).forEach(id -> classCpuTime.computeIfAbsent(id, k -> new AtomicLong()).addAndGet(cpuNanos));
+		} else if (cpuTimeSupported && !testIdentifier.isTest()) {
+			cpuTime = ofNullable(classCpuTime.remove(testIdentifier.getUniqueId())).map(AtomicLong::get)
+					.map(TimeUnit.NANOSECONDS::toMillis)
+					.orElse(0L);
+		}
+		record(testIdentifier, toStatus(testExecutionResult), duration, cpuTime);
+	}
+
+	@Override
+	public void testPlanExecutionFinished(TestPlan testPlan) {
+		if (file != null && cpuTimeSupported) {
+			reportUtilization();
+		}
+		if (file != null && !results.isEmpty()) {
+			LaunchHistory.update(file, new HashMap<>(results));
+			results.clear();
+		}
+	}
+
+	/**
+	 * Logs the share of available processors which tests kept busy during the launch.
+	 */
+	private void reportUtilization() {
+		long wallTime = System.nanoTime() - planStart;
+		int processors = Runtime.getRuntime().availableProcessors();
+		if (wallTime <= 0) {
+			return;
+		}
+		double utilization = (double) planCpuTime.get() / wallTime / processors;
+		String message = String.format(Locale.US,
+				"Tests used %.1f%% of %d processors: %d ms of CPU time in %d ms",
+				utilization * 100,
+				processors,
+				TimeUnit.NANOSECONDS.toMillis(planCpuTime.get()),
+				TimeUnit.NANOSECONDS.toMillis(wallTime)
+		);
+		LOGGER.info(message);
+		ReportPortal.emitLaunchLog(message, "INFO", Calendar.getInstance().getTime());
+	}
+}
@@ -0,0 +1,408 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.history;
+
+import com.epam.reportportal.junit5.Status;
+import com.epam.reportportal.junit5.utils.LockedFiles;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Results of previous launches kept in a local file: the last status and duration of each test and test class, keyed by JUnit unique
+ * ID. Invocations of test templates and dynamic tests are kept under the key of their test method, so the keys are known at discovery.
+ * <p>
+ * The file is set with {@code historyFile} system property, the history is not recorded if the property is not set.
+ */
+public class LaunchHistory {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(LaunchHistory.class);
+
+	public static final String HISTORY_FILE_PROPERTY = "historyFile";
+
+	private static final String HEADER = "# ReportPortal JUnit 5 agent launch history: status, duration and CPU time in milliseconds, trail, passed durations, unique ID";
+	private static final int TRAIL_LENGTH = 20;
+	private static final int PASSED_DURATIONS_LENGTH = 50;
+	private static final String[] RUNTIME_SEGMENTS = { "/[test-template-invocation:", "/[dynamic-test:", "/[dynamic-container:" };
+
+	/**
+	 * The last result of a test or a test class, with a trail of its recent passes and failures and durations of its recent passes.
+	 */
+	public static class Record {
+		private final Status status;
+		private final long duration;
+		private final long cpuTime;
+		private final String trail;
+		private final long[] passedDurations;
+
+		public Record(Status status, long duration) {
+			this(status, duration, -1);
+		}
+
+		public Record(Status status, long duration, long cpuTime) {
+			this(status,
+					duration,
+					cpuTime,
+					Status.PASSED == status ? "P" : Status.FAILED == status ? "F" : "",
+					Status.PASSED == status ? new long[] { duration } : new long[0]
+			);
+		}
+
+		Record(Status status, long duration, long cpuTime, String trail, long[] passedDurations) {
+			this.status = status;
+			this.duration = duration;
+			this.cpuTime = cpuTime;
+			this.trail = trail;
+			this.passedDurations = passedDurations;
+		}
+
+		public Status getStatus() {
+			return status;
+		}
+
+		/**
+		 * @return duration in milliseconds
+		 */
+		public long getDuration() {
+			return duration;
+		}
+
+		/**
+		 * @return CPU time of test threads in milliseconds, or -1 if it is unknown
+		 */
+		public long getCpuTime() {
+			return cpuTime;
+		}
+
+		/**
+		 * @return recent results, the oldest first: {@code P} for passed and {@code F} for failed launches
+		 */
+		public String getTrail() {
+			return trail;
+		}
+
+		/**
+		 * @return the share of launches in the trail in which the result differed from the previous one, from 0 to 1
+		 */
+		public double getFlakiness() {
+			if (trail.length() < 2) {
+				return 0;
+			}
+			int flips = 0;
+			for (int i = 1; i < trail.length(); i++) {
+				if (trail.charAt(i) != trail.charAt(i - 1)) {
+					flips++;
+				}
+			}
+			return (double) flips / (trail.length() - 1);
+		}
+
+		/**
+		 * @return durations in milliseconds of recent passed launches, the oldest first, kept whatever the last status is
+		 */
+		public long[] getPassedDurations() {
+			return passedDurations.clone();
+		}
+
+		/**
+		 * A percentile of durations of recent passed launches, interpolated between the two nearest durations, so it is below the
+		 * longest one unless there are few durations.
+		 *
+		 * @param percentile a percentile from 0 to 100
+		 * @return the duration in milliseconds, or empty if the test has not passed in recent launches
+		 */
+		public OptionalDouble getPassedDurationPercentile(double percentile) {
+			if (passedDurations.length == 0) {
+				return OptionalDouble.empty();
+			}
+			long[] sorted = getPassedDurations();
+			Arrays.sort(sorted);
+			double rank = percentile / 100 * (sorted.length - 1);
+			int lower = (int) Math.floor(rank);
+			int upper = (int) Math.ceil(rank);
+			return OptionalDouble.of(sorted[lower] + (rank - lower) * (sorted[upper] - sorted[lower]));
+		}
+
+		/**
+		 * Appends a result of a later launch to the trail and the passed durations of the previous result.
+		 */
+		static Record after(Record previous, Record current) {
+			String trail = previous.trail + current.trail;
+			long[] passedDurations = new long[previous.passedDurations.length + current.passedDurations.length];
+			System.arraycopy(previous.passedDurations, 0, passedDurations, 0, previous.passedDurations.length);
+			System.arraycopy(current.passedDurations, 0, passedDurations, previous.passedDurations.length, current.passedDurations.length);
+			return new Record(current.status,
+					current.duration,
+					current.cpuTime,
+					trail.length() > TRAIL_LENGTH ? trail.substring(trail.length() - TRAIL_LENGTH) : trail,
+					Arrays.copyOfRange(passedDurations, Math.max(0, passedDurations.length - PASSED_DURATIONS_LENGTH), passedDurations.length)
+			);
+		}
+
+		/**
+		 * Combines results of invocations of the same test: the worst status and the total duration.
+		 */
+		static Record combine(Record first, Record second) {
+			Status status = severity(first.status) >= severity(second.status) ? first.status : second.status;
+			long cpuTime = first.cpuTime < 0 || second.cpuTime < 0 ? -1 : first.cpuTime + second.cpuTime;
+			return new Record(status, first.duration + second.duration, cpuTime);
+		}
+
+		private static int severity(Status status) {
+			switch (status) {
+				case FAILED:
+					return 2;
+				case SKIPPED:
+					return 1;
+				default:
+					return 0;
+			}
+		}
+	}
+
+	private static volatile LaunchHistory shared;
+
+	private final Map<String, Record> records;
+	private volatile Map<String, Record> methodRecords;
+	private volatile Map<String, Record> classRecords;
+
+	LaunchHistory(Map<String, Record> records) {
+		this.records = records;
+	}
+
+	/**
+	 * @return the history loaded once per JVM from the file set with {@code historyFile} system property
+	 */
+	public static LaunchHistory getShared() {
+		LaunchHistory history = shared;
+		if (history == null) {
+			synchronized (LaunchHistory.class) {
+				history = shared;
+				if (history == null) {
+					history = load();
+					shared = history;
+				}
+			}
+		}
+		return history;
+	}
+
+	/**
+	 * @return the history file set with {@code historyFile} system property
+	 */
+	public static Optional<Path> getHistoryFile() {
+		return ofNullable(System.getProperty(HISTORY_FILE_PROPERTY)).filter(f -> !f.trim().isEmpty()).map(Paths::get);
+	}
+
+	/**
+	 * @return the history from the file set with {@code historyFile} system property, or an empty one
+	 */
+	public static LaunchHistory load() {
+		return getHistoryFile().map(LaunchHistory::load).orElseGet(() -> new LaunchHistory(Collections.emptyMap()));
+	}
+
+	/**
+	 * @param file a history file
+	 * @return the history from the file, or an empty one if the file does not exist or cannot be read
+	 */
+	public static LaunchHistory load(Path file) {
+		Map<String, Record> records = new HashMap<>();
+		if (!Files.exists(file)) {
+			return new LaunchHistory(records);
+		}
+		try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] fields = line.split("\t", 6);
+				if (line.startsWith("#") || fields.length < 3) {
+					continue;
+				}
+				try {
+					Record record = new Record(Status.valueOf(fields[0]), Long.parseLong(fields[1]));
+					// files written by earlier versions have no passed durations column, no CPU time column either, or only status
+					// and duration columns
+					if (fields.length == 6) {
+						record = new Record(record.status, record.duration, Long.parseLong(fields[2]), fields[3], parseDurations(fields[4]));
+					} else if (fields.length == 5) {
+						record = new Record(record.status, record.duration, Long.parseLong(fields[2]), fields[3], record.passedDurations);
+					} else if (fields.length == 4) {
+						record = new Record(record.status, record.duration, -1, fields[2], record.passedDurations);
+					}
+					records.put(fields[fields.length - 1], record);
+				} catch (IllegalArgumentException e) {
+					LOGGER.debug("Skipping malformed history line: {}", line);
+				}
+			}
+		} catch (IOException e) {
+			LOGGER.warn("Unable to read launch history from {}", file, e);
+		}
+		return new LaunchHistory(records);
+	}
+
+	private static long[] parseDurations(String durations) {
+		return durations.isEmpty() ? new long[0] : Arrays.stream(durations.split(",")).mapToLong(Long::parseLong).toArray();
+	}
+
+	/**
+	 * Replaces records of the given keys in the history file, keeping their trails. Records of other keys stay as they are in the file
+	 * at the time of the update, so a launch which runs a part of the tests does not lose the history of the rest.
+	 *
+	 * @param file    a history file
+	 * @param results results of a launch
+	 */
+	public static void update(Path file, Map<String, Record> results) {
+		try {
+			LockedFiles.update(file, () -> {
+				LaunchHistory history = load(file);
+				results.forEach((key, record) -> history.records.merge(key, record, Record::after));
+				return history.toLines();
+			});
+		} catch (IOException e) {
+			LOGGER.warn("Unable to save launch history to {}", file, e);
+		}
+	}
+
+	private List<String> toLines() {
+		List<String> lines = new ArrayList<>();
+		lines.add(HEADER);
+		for (Map.Entry<String, Record> entry : new TreeMap<>(records).entrySet()) {
+			Record record = entry.getValue();
+			lines.add(record.getStatus() + "\t" + record.getDuration() + "\t" + record.getCpuTime() + "\t" + record.getTrail() + "\t"
+					+ Arrays.stream(record.passedDurations).mapToObj(Long::toString).collect(Collectors.joining(",")) + "\t" + entry.getKey());
+		}
+		return lines;
+	}
+
+	/**
+	 * @param uniqueId a JUnit unique ID of a test, an invocation or a dynamic test
+	 * @return the unique ID of the test method the result is kept under
+	 */
+	public static String getKey(String uniqueId) {
+		int end = uniqueId.length();
+		for (String segment : RUNTIME_SEGMENTS) {
+			int index = uniqueId.indexOf(segment);
+			if (index >= 0 && index < end) {
+				end = index;
+			}
+		}
+		return uniqueId.substring(0, end);
+	}
+
+	/**
+	 * @param uniqueId a JUnit unique ID of a test method
+	 * @return a class and a method key of the test, independent of the engine and nesting segments
+	 */
+	static Optional<String> getMethodKey(String uniqueId) {
+		return getTestKey(uniqueId, true);
+	}
+
+	/**
+	 * @param uniqueId a JUnit unique ID of a test class
+	 * @return the binary name of the class, independent of the engine and nesting segments
+	 */
+	static Optional<String> getClassKey(String uniqueId) {
+		return getTestKey(uniqueId, false);
+	}
+
+	private static Optional<String> getTestKey(String uniqueId, boolean method) {
+		if (!uniqueId.startsWith("[") || !uniqueId.endsWith("]")) {
+			return Optional.empty();
+		}
+		String className = null;
+		boolean classSegment = false;
+		for (String segment : uniqueId.substring(1, uniqueId.length() - 1).split("]/\\[")) {
+			int separator = segment.indexOf(':');
+			String type = separator < 0 ? segment : segment.substring(0, separator);
+			String value = segment.substring(separator + 1);
+			switch (type) {
+				case "class":
+					className = value;
+					classSegment = true;
+					break;
+				case "nested-class":
+					className = className + "$" + value;
+					classSegment = true;
+					break;
+				case "method":
+				case "test-template":
+				case "test-factory":
+					return method ? ofNullable(className).map(c -> c + "#" + value) : Optional.empty();
+				default:
+					classSegment = false;
+			}
+		}
+		return method || !classSegment ? Optional.empty() : ofNullable(className);
+	}
+
+	static String getMethodKey(Class<?> testClass, Method method) {
+		return testClass.getName() + "#" + method.getName() + "(" + Arrays.stream(method.getParameterTypes())
+				.map(Class::getName)
+				.collect(Collectors.joining(", ")) + ")";
+	}
+
+	public boolean isEmpty() {
+		return records.isEmpty();
+	}
+
+	public Optional<Record> get(String uniqueId) {
+		return ofNullable(records.get(getKey(uniqueId)));
+	}
+
+	/**
+	 * @param testClass a test class, which can differ from the declaring class of an inherited method
+	 * @param method    a test method
+	 * @return the last result of the test method
+	 */
+	public Optional<Record> get(Class<?> testClass, Method method) {
+		Map<String, Record> index = methodRecords;
+		if (index == null) {
+			Map<String, Record> byMethod = new HashMap<>();
+			records.forEach((uniqueId, record) -> getMethodKey(uniqueId).ifPresent(key -> byMethod.put(key, record)));
+			index = byMethod;
+			methodRecords = index;
+		}
+		return ofNullable(index.get(getMethodKey(testClass, method)));
+	}
+
+	/**
+	 * @param testClass a top level or a nested test class
+	 * @return the last result of the test class
+	 */
+	public Optional<Record> get(Class<?> testClass) {
+		Map<String, Record> index = classRecords;
+		if (index == null) {
+			Map<String, Record> byClass = new HashMap<>();
+			records.forEach((uniqueId, record) -> getClassKey(uniqueId).ifPresent(key -> byClass.put(key, record)));
+			index = byClass;
+			classRecords = index;
+		}
+		return ofNullable(index.get(testClass.getName()));
+	}
+
+	public Map<String, Record> getRecords() {
+		return Collections.unmodifiableMap(records);
+	}
+}
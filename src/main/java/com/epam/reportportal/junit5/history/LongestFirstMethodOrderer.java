@@ -0,0 +1,52 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.history;
+
+import org.junit.jupiter.api.MethodDescriptor;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.MethodOrdererContext;
+
+import java.util.Comparator;
+
+/**
+ * Orders test methods by their duration in the {@link LaunchHistory}, the longest first, which packs methods better when they are
+ * executed concurrently. Methods without history go last and keep their default order.
+ * <p>
+ * Use with {@code @TestMethodOrder(LongestFirstMethodOrderer.class)}.
+ */
+public class LongestFirstMethodOrderer implements MethodOrderer {
+
+	private final LaunchHistory history;
+
+	public LongestFirstMethodOrderer() {
+		this(LaunchHistory.getShared());
+	}
+
+	LongestFirstMethodOrderer(LaunchHistory history) {
+		this.history = history;
+	}
+
+	private long getDuration(Class<?> testClass, MethodDescriptor descriptor) {
+		return history.get(testClass, descriptor.getMethod()).map(LaunchHistory.Record::getDuration).orElse(-1L);
+	}
+
+	@Override
+	public void orderMethods(MethodOrdererContext context) {
+		Class<?> testClass = context.getTestClass();
+		context.getMethodDescriptors().sort(Comparator.comparingLong(descriptor -> -getDuration(testClass, descriptor)));
+	}
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.history;
+
+import java.lang.reflect.Method;
+import java.util.OptionalDouble;
+
+/**
+ * Known-flaky tests: tests whose flakiness in the {@link LaunchHistory}, the share of launches in which the result flipped between
+ * passed and failed, reaches the threshold set with {@code quarantineThreshold} system property. Quarantine is off if the property is
+ * not set.
+ */
+public class Quarantine {
+
+	public static final String QUARANTINE_THRESHOLD_PROPERTY = "quarantineThreshold";
+
+	private final LaunchHistory history;
+	private final double threshold;
+
+	public Quarantine() {
+		this(LaunchHistory.getShared(), getThreshold());
+	}
+
+	public Quarantine(LaunchHistory history, double threshold) {
+		this.history = history;
+		this.threshold = threshold;
+	}
+
+	private static double getThreshold() {
+		try {
+			return Double.parseDouble(System.getProperty(QUARANTINE_THRESHOLD_PROPERTY, "0"));
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	public boolean isEnabled() {
+		return threshold > 0 && !history.isEmpty();
+	}
+
+	/**
+	 * @param testClass a test class
+	 * @param method    a test method
+	 * @return flakiness of the method if it is quarantined, empty otherwise
+	 */
+	public OptionalDouble getFlakiness(Class<?> testClass, Method method) {
+		if (!isEnabled()) {
+			return OptionalDouble.empty();
+		}
+		double flakiness = history.get(testClass, method).map(LaunchHistory.Record::getFlakiness).orElse(0d);
+		return flakiness >= threshold ? OptionalDouble.of(flakiness) : OptionalDouble.empty();
+	}
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.history;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.MethodOrdererContext;
+
+import java.util.Comparator;
+
+/**
+ * Runs quarantined test methods after the other methods of their class, see {@link Quarantine}. Methods keep their default order
+ * otherwise.
+ * <p>
+ * Use with {@code @TestMethodOrder(QuarantineMethodOrderer.class)}.
+ */
+public class QuarantineMethodOrderer implements MethodOrderer {
+
+	private final Quarantine quarantine;
+
+	public QuarantineMethodOrderer() {
+		this(new Quarantine());
+	}
+
+	QuarantineMethodOrderer(Quarantine quarantine) {
+		this.quarantine = quarantine;
+	}
+
+	@Override
+	public void orderMethods(MethodOrdererContext context) {
+		Class<?> testClass = context.getTestClass();
+		if (quarantine.isEnabled()) {
+			context.getMethodDescriptors()
+					.sort(Comparator.comparing(descriptor -> quarantine.getFlakiness(testClass, descriptor.getMethod()).isPresent()));
+		}
+	}
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.history;
+
+import com.epam.reportportal.junit5.ReportPortalExtension;
+import com.epam.reportportal.junit5.Status;
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+
+/**
+ * Selects only tests which failed or were skipped in the previous launch, according to the {@link LaunchHistory} file, when the agent
+ * runs in rerun mode ({@code rp.rerun=true}). Does nothing if there is no history.
+ * <p>
+ * Outside of rerun mode every test is included, so the filter stays a service of the agent jar for all runs. On JUnit Platform 1.6,
+ * which does not load such services, pass it to {@code LauncherDiscoveryRequestBuilder.filters} for a rerun.
+ */
+public class RerunFailedFilter implements PostDiscoveryFilter {
+
+	private final boolean rerun;
+	private final LaunchHistory history;
+
+	public RerunFailedFilter() {
+		this(ReportPortalExtension.REPORT_PORTAL.getParameters().isRerun(), LaunchHistory.getShared());
+	}
+
+	RerunFailedFilter(boolean rerun, LaunchHistory history) {
+		this.rerun = rerun;
+		this.history = history;
+	}
+
+	@Override
+	public FilterResult apply(TestDescriptor descriptor) {
+		if (!rerun || history.isEmpty()) {
+			return FilterResult.included("No history to rerun");
+		}
+		if (!descriptor.isTest() && !descriptor.mayRegisterTests()) {
+			// a container without own tests is pruned by the launcher if none of its children is selected
+			return FilterResult.included("Container");
+		}
+		return history.get(descriptor.getUniqueId().toString())
+				.filter(record -> Status.PASSED != record.getStatus())
+				.map(record -> FilterResult.included(record.getStatus() + " in the previous launch"))
+				.orElseGet(() -> FilterResult.excluded("Passed or not run in the previous launch"));
+	}
+}
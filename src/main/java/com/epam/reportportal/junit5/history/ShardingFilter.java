@@ -0,0 +1,140 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.history;
+
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static java.util.Optional.ofNullable;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Runs only the test classes of one shard, set with {@code shardIndex} (starting with 0) and {@code shardCount} system properties.
+ * <p>
+ * Classes with a known duration in the {@link LaunchHistory} file are distributed greedily, the longest first, to the least loaded
+ * shard. Classes without history are assigned by a hash of their unique ID. All shards should read the same history to get the same
+ * distribution, while each shard records its results into the history file when it ends. So shards which share the file read the
+ * history from a copy made before they start, set with {@code shardingHistoryFile} system property.
+ * <p>
+ * The filter is a registered service of the agent jar, so JUnit Platform 1.7 and later applies it to every run which has the agent on
+ * the classpath, and it includes all classes unless {@code shardCount} is greater than 1. Earlier platforms apply it only if it is added
+ * to a discovery request.
+ */
+public class ShardingFilter implements PostDiscoveryFilter {
+
+	public static final String SHARD_INDEX_PROPERTY = "shardIndex";
+	public static final String SHARD_COUNT_PROPERTY = "shardCount";
+	public static final String SHARDING_HISTORY_FILE_PROPERTY = "shardingHistoryFile";
+
+	private final int shardIndex;
+	private final int shardCount;
+	private final LaunchHistory history;
+	private final Map<String, Map<String, Integer>> assignments = new ConcurrentHashMap<>();
+
+	public ShardingFilter() {
+		this(Integer.getInteger(SHARD_INDEX_PROPERTY, 0), Integer.getInteger(SHARD_COUNT_PROPERTY, 1), getShardingHistory());
+	}
+
+	private static LaunchHistory getShardingHistory() {
+		return ofNullable(System.getProperty(SHARDING_HISTORY_FILE_PROPERTY)).filter(f -> !f.trim().isEmpty())
+				.map(Paths::get)
+				.map(LaunchHistory::load)
+				.orElseGet(LaunchHistory::getShared);
+	}
+
+	ShardingFilter(int shardIndex, int shardCount, LaunchHistory history) {
+		if (shardCount > 1 && (shardIndex < 0 || shardIndex >= shardCount)) {
+			throw new IllegalArgumentException("Shard index " + shardIndex + " is out of range for " + shardCount + " shards");
+		}
+		this.shardIndex = shardIndex;
+		this.shardCount = shardCount;
+		this.history = history;
+	}
+
+	@Override
+	public FilterResult apply(TestDescriptor descriptor) {
+		if (shardCount <= 1) {
+			return FilterResult.included("Sharding is off");
+		}
+		TestDescriptor unit = descriptor;
+		TestDescriptor parent = unit.getParent().orElse(null);
+		if (parent == null) {
+			return FilterResult.included("Engine");
+		}
+		while (parent.getParent().isPresent()) {
+			unit = parent;
+			parent = parent.getParent().get();
+		}
+		TestDescriptor root = parent;
+		// the root is visited first, so its children are collected before any of them is removed
+		Map<String, Integer> shards = assignments.computeIfAbsent(root.getUniqueId().toString(),
+				k -> assign(root.getChildren().stream().map(c -> c.getUniqueId().toString()).collect(toList()),
+						id -> history.get(id).map(LaunchHistory.Record::getDuration).orElse(null),
+						shardCount
+				)
+		);
+		int shard = shards.getOrDefault(unit.getUniqueId().toString(), shardOf(unit.getUniqueId().toString(), shardCount));
+		return shard == shardIndex ?
+				FilterResult.included("Shard " + shard) :
+				FilterResult.excluded("Shard " + shard + " of " + shardCount);
+	}
+
+	/**
+	 * Distributes test classes across shards: the longest known first to the least loaded shard, unknown by hash.
+	 *
+	 * @param ids       unique IDs of test classes
+	 * @param durations duration in milliseconds by unique ID, or {@code null} if unknown
+	 * @param count     number of shards
+	 * @return shard index by unique ID
+	 */
+	static Map<String, Integer> assign(Collection<String> ids, Function<String, Long> durations, int count) {
+		Map<String, Integer> result = new HashMap<>();
+		Map<String, Long> known = new HashMap<>();
+		for (String id : ids) {
+			Long duration = durations.apply(id);
+			if (duration == null) {
+				result.put(id, shardOf(id, count));
+			} else {
+				known.put(id, duration);
+			}
+		}
+		List<String> longestFirst = new ArrayList<>(known.keySet());
+		longestFirst.sort(Comparator.<String, Long>comparing(known::get).reversed().thenComparing(Comparator.naturalOrder()));
+		long[] loads = new long[count];
+		for (String id : longestFirst) {
+			int shard = 0;
+			for (int i = 1; i < count; i++) {
+				if (loads[i] < loads[shard]) {
+					shard = i;
+				}
+			}
+			loads[shard] += known.get(id);
+			result.put(id, shard);
+		}
+		return result;
+	}
+
+	private static int shardOf(String id, int count) {
+		return Math.floorMod(id.hashCode(), count);
+	}
+}
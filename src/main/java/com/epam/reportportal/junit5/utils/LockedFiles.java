@@ -0,0 +1,65 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.utils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Util class for text files which are shared by forks of the same build, like the launch history and the result cache.
+ */
+public class LockedFiles {
+
+	private LockedFiles() {
+		//static only
+	}
+
+	/**
+	 * Replaces the content of a file under a lock of a sibling {@code .lock} file. The new content is written to a temporary sibling file
+	 * which is moved over the file atomically, so readers which do not take the lock never see a partially written file.
+	 *
+	 * @param file    a file to update
+	 * @param content lines of the new content, called under the lock so it can merge the current content of the file
+	 * @throws IOException if the file cannot be locked or written
+	 */
+	public static void update(Path file, Supplier<List<String>> content) throws IOException {
+		ofNullable(file.toAbsolutePath().getParent()).ifPresent(dir -> dir.toFile().mkdirs());
+		Path lockFile = file.resolveSibling(file.getFileName() + ".lock");
+		try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+			// the lock is released when the channel is closed
+			channel.lock();
+			Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+			try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+				for (String line : content.get()) {
+					writer.write(line);
+					writer.newLine();
+				}
+			}
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+	}
+}
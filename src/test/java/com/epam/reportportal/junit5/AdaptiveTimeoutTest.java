@@ -0,0 +1,120 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import com.epam.reportportal.junit5.features.timeout.SlowingDownTest;
+import com.epam.reportportal.junit5.history.LaunchHistory;
+import com.epam.reportportal.junit5.util.TestUtils;
+import com.epam.reportportal.service.Launch;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import io.reactivex.Maybe;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.stubbing.Answer;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.epam.reportportal.junit5.AdaptiveTimeoutTest.AdaptiveTimeoutExtension.CALLS;
+import static com.epam.reportportal.junit5.AdaptiveTimeoutTest.AdaptiveTimeoutExtension.LAUNCH;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AdaptiveTimeoutTest {
+
+	public static class AdaptiveTimeoutExtension extends ReportPortalExtension {
+		static final List<String> CALLS = new ArrayList<>();
+		static Launch LAUNCH;
+		static LaunchHistory HISTORY;
+
+		@Override
+		protected Launch getLaunch(ExtensionContext context) {
+			return LAUNCH;
+		}
+
+		@Override
+		LaunchHistory getHistory() {
+			return HISTORY;
+		}
+	}
+
+	@BeforeEach
+	public void setupMock(@TempDir Path dir) {
+		System.setProperty("adaptiveTimeoutFactor", "2");
+		System.setProperty("adaptiveTimeoutFloor", "200");
+		Path file = dir.resolve("history.txt");
+		String classId = "[engine:junit-jupiter]/[class:" + SlowingDownTest.class.getName() + "]";
+		Map<String, LaunchHistory.Record> records = new HashMap<>();
+		records.put(classId + "/[method:slowedDown()]", new LaunchHistory.Record(Status.PASSED, 100));
+		records.put(classId + "/[method:steady()]", new LaunchHistory.Record(Status.PASSED, 10));
+		LaunchHistory.update(file, records);
+		AdaptiveTimeoutExtension.HISTORY = LaunchHistory.load(file);
+
+		CALLS.clear();
+		AdaptiveTimeoutExtension.LAUNCH = mock(Launch.class);
+		when(LAUNCH.startTestItem(any())).thenAnswer((Answer<Maybe<String>>) invocation -> TestUtils.createMaybeUuid());
+		when(LAUNCH.startTestItem(any(), any())).thenAnswer((Answer<Maybe<String>>) invocation -> TestUtils.createMaybeUuid());
+		when(LAUNCH.finishTestItem(any(), any())).thenAnswer(invocation -> {
+			CALLS.add("finish " + invocation.<FinishTestItemRQ>getArgument(1).getStatus());
+			return null;
+		});
+	}
+
+	@AfterEach
+	public void cleanProperty() {
+		System.clearProperty("adaptiveTimeoutFactor");
+		System.clearProperty("adaptiveTimeoutFloor");
+	}
+
+	@Test
+	public void verify_timeouts_are_derived_from_history_with_floor() {
+		long start = System.nanoTime();
+		TestUtils.runClasses(SlowingDownTest.class);
+
+		assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start), lessThan(30L));
+		// the steady test is limited by the floor, the test without history has no timeout
+		assertThat(CALLS, contains("finish FAILED", "finish PASSED", "finish PASSED", "finish FAILED"));
+	}
+
+	@Test
+	public void verify_test_failed_by_timeout_keeps_timeout_in_next_launch(@TempDir Path dir) {
+		Path file = dir.resolve("history.txt");
+		String slowedDown = "[engine:junit-jupiter]/[class:" + SlowingDownTest.class.getName() + "]/[method:slowedDown()]";
+		LaunchHistory.update(file, Collections.singletonMap(slowedDown, new LaunchHistory.Record(Status.PASSED, 100)));
+		LaunchHistory.update(file, Collections.singletonMap(slowedDown, new LaunchHistory.Record(Status.FAILED, 200)));
+		AdaptiveTimeoutExtension.HISTORY = LaunchHistory.load(file);
+
+		long start = System.nanoTime();
+		TestUtils.runClasses(SlowingDownTest.class);
+
+		assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start), lessThan(30L));
+		assertThat(CALLS.get(0), equalTo("finish FAILED"));
+	}
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import com.epam.reportportal.junit5.features.aggregation.AggregatedParameterizedTest;
+import com.epam.reportportal.junit5.features.aggregation.SoakParameterizedTest;
+import com.epam.reportportal.junit5.util.TestUtils;
+import com.epam.reportportal.service.Launch;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import com.epam.ta.reportportal.ws.model.ParameterResource;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import com.epam.ta.reportportal.ws.model.attribute.ItemAttributesRQ;
+import io.reactivex.Maybe;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.mockito.ArgumentCaptor;
+import org.mockito.stubbing.Answer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static com.epam.reportportal.junit5.AggregatedInvocationsTest.AggregationExtension.LAUNCH;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class AggregatedInvocationsTest {
+
+	public static class AggregationExtension extends ReportPortalExtension {
+		static Launch LAUNCH;
+		static final List<AggregationExtension> INSTANCES = new CopyOnWriteArrayList<>();
+		static final AtomicInteger MAX_RETAINED_ENTRIES = new AtomicInteger();
+
+		public AggregationExtension() {
+			INSTANCES.add(this);
+		}
+
+		@Override
+		protected Launch getLaunch(ExtensionContext context) {
+			return LAUNCH;
+		}
+
+		@Override
+		public void afterEach(ExtensionContext context) {
+			super.afterEach(context);
+			int entries = getRetainedEntries().values().stream().mapToInt(Integer::intValue).sum();
+			MAX_RETAINED_ENTRIES.accumulateAndGet(entries, Math::max);
+		}
+	}
+
+	@BeforeEach
+	public void setupMock() {
+		AggregationExtension.INSTANCES.clear();
+		AggregationExtension.MAX_RETAINED_ENTRIES.set(0);
+		LAUNCH = mock(Launch.class);
+		when(LAUNCH.startTestItem(any())).thenAnswer((Answer<Maybe<String>>) invocation -> TestUtils.createMaybeUuid());
+		when(LAUNCH.startTestItem(any(), any())).thenAnswer((Answer<Maybe<String>>) invocation -> TestUtils.createMaybeUuid());
+	}
+
+	@Test
+	public void verify_only_invocations_below_threshold_and_failed_ones_are_reported() {
+		TestUtils.runClasses(AggregatedParameterizedTest.class);
+
+		verify(LAUNCH, times(1)).startTestItem(any()); // Start parent Suite
+		ArgumentCaptor<StartTestItemRQ> captorStart = ArgumentCaptor.forClass(StartTestItemRQ.class);
+		verify(LAUNCH, times(5)).startTestItem(notNull(), captorStart.capture()); // Start a template, three tests and a failed one
+
+		List<StartTestItemRQ> steps = captorStart.getAllValues().subList(1, 5);
+		assertThat(steps.stream()
+				.map(rq -> rq.getParameters().get(0))
+				.map(ParameterResource::getValue)
+				.collect(Collectors.toList()), contains("1", "2", "3", String.valueOf(AggregatedParameterizedTest.FAILED_VALUE)));
+	}
+
+	@Test
+	public void verify_template_finish_contains_invocation_statistics() {
+		TestUtils.runClasses(AggregatedParameterizedTest.class);
+
+		ArgumentCaptor<FinishTestItemRQ> captorFinish = ArgumentCaptor.forClass(FinishTestItemRQ.class);
+		verify(LAUNCH, times(6)).finishTestItem(notNull(), captorFinish.capture()); // finish four tests, a template and a suite
+
+		List<FinishTestItemRQ> withStatistics = captorFinish.getAllValues()
+				.stream()
+				.filter(rq -> rq.getAttributes() != null && !rq.getAttributes().isEmpty())
+				.collect(Collectors.toList());
+		assertThat(withStatistics, hasSize(1));
+		Map<String, String> statistics = withStatistics.get(0)
+				.getAttributes()
+				.stream()
+				.collect(Collectors.toMap(ItemAttributesRQ::getKey, ItemAttributesRQ::getValue));
+		assertThat(statistics, hasEntry("invocations", "10"));
+		assertThat(statistics, hasEntry("passed", "8"));
+		assertThat(statistics, hasEntry("failed", "1"));
+		assertThat(statistics, hasEntry("skipped", "1"));
+		assertThat(statistics.keySet(), hasItems("p50", "p90", "p99", "max"));
+	}
+
+	@Test
+	public void verify_agent_state_of_aggregated_invocations_stays_bounded() throws InterruptedException {
+		SoakParameterizedTest.ROW_REFERENCES.clear();
+		TestUtils.runClasses(SoakParameterizedTest.class);
+
+		// a template, invocations below the threshold and failed ones
+		int failed = SoakParameterizedTest.ROWS / SoakParameterizedTest.FAILED_EVERY;
+		verify(LAUNCH, times(1 + SoakParameterizedTest.REPORTED + failed)).startTestItem(notNull(), any());
+		// a suite, a template and statistics of the template, with a running invocation
+		assertThat(AggregationExtension.MAX_RETAINED_ENTRIES.get(), lessThanOrEqualTo(4));
+		assertThat(AggregationExtension.INSTANCES, not(empty()));
+		AggregationExtension.INSTANCES.forEach(extension -> assertThat(extension.getRetainedEntries().toString(),
+				extension.getRetainedEntries().values(),
+				everyItem(equalTo(0))
+		));
+
+		assertThat(SoakParameterizedTest.ROW_REFERENCES, hasSize(SoakParameterizedTest.ROWS));
+		for (int i = 0; i < 10 && SoakParameterizedTest.ROW_REFERENCES.stream().anyMatch(r -> r.get() != null); i++) {
+			System.gc();
+			Thread.sleep(50);
+		}
+		assertThat("Arguments kept reachable",
+				SoakParameterizedTest.ROW_REFERENCES.stream().filter(r -> r.get() != null).count(),
+				equalTo(0L)
+		);
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import com.epam.reportportal.annotations.attribute.Attribute;
+import com.epam.reportportal.annotations.attribute.Attributes;
+import com.epam.ta.reportportal.ws.model.attribute.ItemAttributesRQ;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AttributeSetsTest {
+
+	private final AttributeSets attributeSets = new AttributeSets();
+
+	@Attributes(attributes = @Attribute(key = "key", value = "value"))
+	public void annotated() {
+	}
+
+	@Attributes(attributes = @Attribute(key = "key", value = "value"))
+	public void sameAnnotation() {
+	}
+
+	public void notAnnotated() {
+	}
+
+	@Test
+	public void verify_equal_tag_sets_share_one_attribute_set() {
+		Set<ItemAttributesRQ> first = attributeSets.fromTags(new HashSet<>(Arrays.asList("one", "two")));
+		Set<ItemAttributesRQ> second = attributeSets.fromTags(new HashSet<>(Arrays.asList("two", "one")));
+
+		assertThat(second, sameInstance(first));
+		assertThat(first.stream().map(ItemAttributesRQ::getValue).collect(Collectors.toList()), containsInAnyOrder("one", "two"));
+	}
+
+	@Test
+	public void verify_attribute_sets_are_immutable() {
+		Set<ItemAttributesRQ> attributes = attributeSets.fromTags(new HashSet<>(Arrays.asList("one", "two")));
+
+		assertThrows(UnsupportedOperationException.class, () -> attributes.add(new ItemAttributesRQ("three")));
+	}
+
+	@Test
+	public void verify_annotations_with_the_same_attributes_share_one_attribute_set() throws NoSuchMethodException {
+		Set<ItemAttributesRQ> first = attributeSets.fromAnnotation(getClass().getMethod("annotated"));
+		Set<ItemAttributesRQ> second = attributeSets.fromAnnotation(getClass().getMethod("sameAnnotation"));
+
+		assertThat(first, hasSize(1));
+		assertThat(second, sameInstance(first));
+	}
+
+	@Test
+	public void verify_union_is_cached_and_keeps_both_sets() throws NoSuchMethodException {
+		Method method = getClass().getMethod("annotated");
+		Set<ItemAttributesRQ> tags = attributeSets.fromTags(new HashSet<>(Arrays.asList("one", "two")));
+
+		Set<ItemAttributesRQ> union = attributeSets.union(attributeSets.fromAnnotation(method), tags);
+
+		assertThat(union, hasSize(3));
+		assertThat(attributeSets.union(attributeSets.fromAnnotation(method), tags), sameInstance(union));
+	}
+
+	@Test
+	public void verify_union_with_an_empty_set_returns_the_other_set() throws NoSuchMethodException {
+		Set<ItemAttributesRQ> tags = attributeSets.fromTags(new HashSet<>(Arrays.asList("one", "two")));
+
+		assertThat(attributeSets.union(attributeSets.fromAnnotation(getClass().getMethod("notAnnotated")), tags), sameInstance(tags));
+	}
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import com.epam.reportportal.junit5.features.checkpoint.FirstClassTest;
+import com.epam.reportportal.junit5.features.checkpoint.SecondClassTest;
+import com.epam.reportportal.junit5.util.TestUtils;
+import com.epam.reportportal.listeners.ListenerParameters;
+import com.epam.reportportal.service.Launch;
+import com.epam.reportportal.service.ReportPortal;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import com.epam.ta.reportportal.ws.model.OperationCompletionRS;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import com.epam.ta.reportportal.ws.model.launch.StartLaunchRQ;
+import io.reactivex.Maybe;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.stubbing.Answer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.epam.reportportal.junit5.CheckpointTest.CheckpointExtension.CALLS;
+import static com.epam.reportportal.junit5.CheckpointTest.CheckpointExtension.LAUNCH;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CheckpointTest {
+
+	public static class CheckpointExtension extends ReportPortalExtension {
+		static final List<String> CALLS = new ArrayList<>();
+		static Launch LAUNCH;
+		static ReportPortal REPORTER;
+
+		@Override
+		protected Launch getLaunch(ExtensionContext context) {
+			return LAUNCH;
+		}
+
+		@Override
+		ReportPortal getReporter() {
+			return REPORTER;
+		}
+	}
+
+	@TempDir
+	Path dir;
+
+	private Path file;
+
+	@BeforeEach
+	public void setupMock() {
+		file = dir.resolve("checkpoint.txt");
+		System.setProperty(Checkpoint.CHECKPOINT_FILE_PROPERTY, file.toString());
+		CALLS.clear();
+		CheckpointExtension.LAUNCH = mock(Launch.class);
+		when(LAUNCH.startTestItem(any())).thenAnswer((Answer<Maybe<String>>) invocation -> {
+			CALLS.add("start " + invocation.<StartTestItemRQ>getArgument(0).getName());
+			return TestUtils.createMaybeUuid();
+		});
+		when(LAUNCH.startTestItem(any(), any())).thenAnswer((Answer<Maybe<String>>) invocation -> {
+			CALLS.add("start " + invocation.<StartTestItemRQ>getArgument(1).getName());
+			return TestUtils.createMaybeUuid();
+		});
+		when(LAUNCH.finishTestItem(any(), any())).thenAnswer((Answer<Maybe<OperationCompletionRS>>) invocation -> TestUtils.createMaybe(
+				new OperationCompletionRS()));
+	}
+
+	@AfterEach
+	public void cleanProperties() {
+		System.clearProperty(Checkpoint.CHECKPOINT_FILE_PROPERTY);
+		System.clearProperty(Checkpoint.RESUME_PROPERTY);
+	}
+
+	private void writeInterruptedRun() throws IOException {
+		Files.write(file,
+				Arrays.asList("launch\tlaunch-uuid",
+						"start\tfirst-item",
+						"start\tfirst-step",
+						"finish\tfirst-step",
+						"start\tsecond-item",
+						"finish\tfirst-item",
+						"done\t" + FirstClassTest.class.getName(),
+						"start\tsecond-step",
+						"start"
+				)
+		);
+		System.setProperty(Checkpoint.RESUME_PROPERTY, Boolean.TRUE.toString());
+	}
+
+	@Test
+	public void verify_started_and_completed_classes_are_journaled() throws IOException {
+		TestUtils.runClasses(FirstClassTest.class);
+
+		List<String> lines = Files.readAllLines(file);
+		assertThat(lines, hasSize(5));
+		assertThat(lines.subList(0, 2), everyItem(startsWith("start\t")));
+		assertThat(lines.subList(2, 4), everyItem(startsWith("finish\t")));
+		// the step is finished before its class
+		assertThat(lines.get(2), equalTo(lines.get(1).replace("start", "finish")));
+		assertThat(lines.get(3), equalTo(lines.get(0).replace("start", "finish")));
+		assertThat(lines.get(4), equalTo("done\t" + FirstClassTest.class.getName()));
+	}
+
+	@Test
+	public void verify_class_is_not_journaled_as_completed_if_its_finish_fails() throws IOException {
+		when(LAUNCH.finishTestItem(any(), any())).thenReturn(Maybe.error(new IllegalStateException("Finish failed")));
+
+		TestUtils.runClasses(FirstClassTest.class);
+
+		List<String> lines = Files.readAllLines(file);
+		assertThat(lines, hasSize(2));
+		assertThat(lines, everyItem(startsWith("start\t")));
+	}
+
+	@Test
+	public void verify_completed_classes_are_skipped_on_resume() throws IOException {
+		writeInterruptedRun();
+
+		TestUtils.runClasses(FirstClassTest.class, SecondClassTest.class);
+
+		assertThat(CALLS, contains("start " + SecondClassTest.class.getSimpleName(), "start test()"));
+		assertThat(Files.readAllLines(file), hasItem("done\t" + SecondClassTest.class.getName()));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void verify_resumed_launch_is_rerun_and_dangling_items_are_finished() throws IOException {
+		writeInterruptedRun();
+		CheckpointExtension.REPORTER = mock(ReportPortal.class);
+		when(CheckpointExtension.REPORTER.getParameters()).thenReturn(mock(ListenerParameters.class));
+		when(CheckpointExtension.REPORTER.newLaunch(any())).thenReturn(LAUNCH);
+		when(LAUNCH.start()).thenReturn(TestUtils.createMaybe("launch-uuid"));
+
+		new CheckpointExtension().startLaunch("checkpoint");
+
+		ArgumentCaptor<StartLaunchRQ> launchCaptor = ArgumentCaptor.forClass(StartLaunchRQ.class);
+		verify(CheckpointExtension.REPORTER).newLaunch(launchCaptor.capture());
+		assertThat(launchCaptor.getValue().isRerun(), equalTo(true));
+		assertThat(launchCaptor.getValue().getRerunOf(), equalTo("launch-uuid"));
+
+		ArgumentCaptor<Maybe<String>> itemCaptor = ArgumentCaptor.forClass(Maybe.class);
+		ArgumentCaptor<FinishTestItemRQ> finishCaptor = ArgumentCaptor.forClass(FinishTestItemRQ.class);
+		verify(LAUNCH, times(2)).finishTestItem(itemCaptor.capture(), finishCaptor.capture());
+		assertThat(itemCaptor.getAllValues().stream().map(Maybe::blockingGet).collect(Collectors.toList()),
+				contains("second-step", "second-item")
+		);
+		assertThat(finishCaptor.getAllValues(), everyItem(hasProperty("status", equalTo(Status.INTERRUPTED.name()))));
+		assertThat(Files.readAllLines(file), hasItems("finish\tsecond-step", "finish\tsecond-item"));
+	}
+}
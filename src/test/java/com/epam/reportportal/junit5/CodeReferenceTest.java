@@ -1,5 +1,6 @@
 package com.epam.reportportal.junit5;
 
+import com.epam.reportportal.junit5.features.coderef.NestedDynamicContainerTest;
 import com.epam.reportportal.junit5.features.coderef.SingleDynamicTest;
 import com.epam.reportportal.junit5.features.coderef.SingleTest;
 import com.epam.reportportal.junit5.util.TestUtils;
@@ -14,8 +15,10 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.stubbing.Answer;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -74,4 +77,21 @@ public class CodeReferenceTest {
 		assertThat(rqValues.get(1).getCodeRef(), equalTo(testName + "$" + SingleDynamicTest.TEST_CASE_DISPLAY_NAME));
 	}
 
+	@Test
+	public void verify_nested_dynamic_container_code_reference_generation() {
+		TestUtils.runClasses(NestedDynamicContainerTest.class);
+
+		Launch launch = CodeReferenceTestExtension.LAUNCH;
+
+		ArgumentCaptor<StartTestItemRQ> captor = ArgumentCaptor.forClass(StartTestItemRQ.class);
+		verify(launch, atLeastOnce()).startTestItem(captor.capture());
+		verify(launch, atLeastOnce()).startTestItem(notNull(), captor.capture());
+
+		String className = NestedDynamicContainerTest.class.getCanonicalName();
+		String testName = className + ".testForTestFactory";
+		assertThat(captor.getAllValues().stream().map(StartTestItemRQ::getCodeRef).collect(Collectors.toList()),
+				containsInAnyOrder(className, testName, testName + "$outer$inner$leaf", testName + "$outer$sibling")
+		);
+	}
+
 }
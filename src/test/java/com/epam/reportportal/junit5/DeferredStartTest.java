@@ -0,0 +1,170 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import com.epam.reportportal.junit5.features.deferred.DeferredStepWithBeforeEachTest;
+import com.epam.reportportal.junit5.features.deferred.LongDeferredStepTest;
+import com.epam.reportportal.junit5.util.TestUtils;
+import com.epam.reportportal.listeners.ListenerParameters;
+import com.epam.reportportal.service.Launch;
+import com.epam.reportportal.service.ReportPortal;
+import com.epam.reportportal.service.step.StepReporter;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import io.reactivex.Maybe;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.mockito.ArgumentCaptor;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.epam.reportportal.junit5.DeferredStartTest.DeferredStartExtension.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class DeferredStartTest {
+
+	public static class DeferredStartExtension extends ReportPortalExtension {
+		public static final AtomicInteger STARTS = new AtomicInteger();
+		public static final AtomicInteger STARTS_SENT_IN_TEST_BODY = new AtomicInteger();
+		static final List<String> CALLS = new ArrayList<>();
+		static final List<String> START_THREADS = new ArrayList<>();
+		static Launch LAUNCH;
+		static ReportPortal REPORT_PORTAL;
+		static String LAUNCH_ID;
+		static volatile boolean agentLaunch;
+
+		@Override
+		protected Launch getLaunch(ExtensionContext context) {
+			return agentLaunch ? super.getLaunch(context) : LAUNCH;
+		}
+
+		@Override
+		ReportPortal getReporter() {
+			return REPORT_PORTAL;
+		}
+
+		@Override
+		String getLaunchId(ExtensionContext context) {
+			return LAUNCH_ID;
+		}
+	}
+
+	@BeforeEach
+	public void setupMock() {
+		System.setProperty("deferItemStart", Boolean.TRUE.toString());
+		STARTS.set(0);
+		STARTS_SENT_IN_TEST_BODY.set(-1);
+		CALLS.clear();
+		START_THREADS.clear();
+		agentLaunch = false;
+		LAUNCH_ID = UUID.randomUUID().toString();
+		LAUNCH = mock(Launch.class);
+		when(LAUNCH.start()).thenReturn(TestUtils.createMaybeUuid());
+		when(LAUNCH.getStepReporter()).thenReturn(mock(StepReporter.class));
+		when(LAUNCH.startTestItem(any())).thenAnswer((Answer<Maybe<String>>) invocation -> {
+			STARTS.incrementAndGet();
+			CALLS.add("start " + invocation.<StartTestItemRQ>getArgument(0).getName());
+			return TestUtils.createMaybeUuid();
+		});
+		when(LAUNCH.startTestItem(any(), any())).thenAnswer((Answer<Maybe<String>>) invocation -> {
+			STARTS.incrementAndGet();
+			CALLS.add("start " + invocation.<StartTestItemRQ>getArgument(1).getName());
+			START_THREADS.add(Thread.currentThread().getName());
+			return TestUtils.createMaybeUuid();
+		});
+		REPORT_PORTAL = mock(ReportPortal.class);
+		when(REPORT_PORTAL.newLaunch(any())).thenReturn(LAUNCH);
+		ListenerParameters parameters = mock(ListenerParameters.class);
+		when(parameters.getBatchLogsSize()).thenReturn(10);
+		when(REPORT_PORTAL.getParameters()).thenReturn(parameters);
+		when(LAUNCH.finishTestItem(any(), any())).thenAnswer(invocation -> {
+			CALLS.add("finish " + invocation.<FinishTestItemRQ>getArgument(1).getStatus());
+			return null;
+		});
+	}
+
+	@AfterEach
+	public void cleanProperty() {
+		System.clearProperty("deferItemStart");
+		System.clearProperty("deferItemTimeout");
+	}
+
+	@Test
+	public void verify_step_and_fixture_starts_are_sent_together_with_finishes() {
+		TestUtils.runClasses(DeferredStepWithBeforeEachTest.class);
+
+		assertThat("Only suite and @BeforeEach starts are sent before the test body", STARTS_SENT_IN_TEST_BODY.get(), equalTo(2));
+		assertThat(CALLS,
+				contains("start " + DeferredStepWithBeforeEachTest.class.getSimpleName(),
+						"start beforeEach()",
+						"finish PASSED",
+						"start test()",
+						"finish PASSED",
+						"finish PASSED"
+				)
+		);
+	}
+
+	@Test
+	public void verify_deferred_step_keeps_its_start_time() {
+		TestUtils.runClasses(DeferredStepWithBeforeEachTest.class);
+
+		ArgumentCaptor<StartTestItemRQ> startCaptor = ArgumentCaptor.forClass(StartTestItemRQ.class);
+		verify(LAUNCH, times(2)).startTestItem(notNull(), startCaptor.capture());
+		ArgumentCaptor<FinishTestItemRQ> finishCaptor = ArgumentCaptor.forClass(FinishTestItemRQ.class);
+		verify(LAUNCH, times(3)).finishTestItem(notNull(), finishCaptor.capture());
+
+		StartTestItemRQ testStart = startCaptor.getAllValues().get(1);
+		FinishTestItemRQ testFinish = finishCaptor.getAllValues().get(1);
+		assertThat(testStart.getStartTime(), lessThanOrEqualTo(testFinish.getEndTime()));
+	}
+
+	@Test
+	public void verify_deferred_start_is_sent_after_timeout_while_step_runs() {
+		System.setProperty("deferItemTimeout", "100");
+		agentLaunch = true;
+		TestUtils.runClasses(LongDeferredStepTest.class);
+
+		assertThat("Step start is sent by the timeout before the test body ends", STARTS_SENT_IN_TEST_BODY.get(), equalTo(2));
+		assertThat(CALLS,
+				contains("start " + LongDeferredStepTest.class.getSimpleName(), "start test()", "finish PASSED", "finish PASSED")
+		);
+		assertThat(START_THREADS, hasItem("rp-deferred-start"));
+	}
+
+	@Test
+	public void verify_items_of_overridden_launch_are_not_started_by_timeout() {
+		System.setProperty("deferItemTimeout", "100");
+		TestUtils.runClasses(LongDeferredStepTest.class);
+
+		// the client would leave the logging context of the step on the timer thread
+		assertThat("Only the suite start is sent before the test body ends", STARTS_SENT_IN_TEST_BODY.get(), equalTo(1));
+		assertThat(CALLS,
+				contains("start " + LongDeferredStepTest.class.getSimpleName(), "start test()", "finish PASSED", "finish PASSED")
+		);
+		assertThat(START_THREADS, not(hasItem("rp-deferred-start")));
+	}
+}
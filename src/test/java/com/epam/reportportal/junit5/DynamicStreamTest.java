@@ -0,0 +1,190 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import com.epam.reportportal.junit5.features.stream.SoakStreamedDynamicTest;
+import com.epam.reportportal.junit5.features.stream.StreamedDynamicTest;
+import com.epam.reportportal.junit5.util.TestUtils;
+import com.epam.reportportal.service.Launch;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import io.reactivex.Maybe;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.mockito.ArgumentCaptor;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.epam.reportportal.junit5.DynamicStreamTest.StreamExtension.CALLS;
+import static com.epam.reportportal.junit5.DynamicStreamTest.StreamExtension.LAUNCH;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DynamicStreamTest {
+
+	public static class StreamExtension extends ReportPortalExtension {
+		static final List<String> CALLS = Collections.synchronizedList(new ArrayList<>());
+		static final List<StreamExtension> INSTANCES = new ArrayList<>();
+		static Launch LAUNCH;
+
+		public StreamExtension() {
+			INSTANCES.add(this);
+		}
+
+		@Override
+		protected Launch getLaunch(ExtensionContext context) {
+			return LAUNCH;
+		}
+	}
+
+	private static String finish(FinishTestItemRQ rq) {
+		String invocations = rq.getAttributes() == null ? "" : rq.getAttributes()
+				.stream()
+				.filter(a -> "invocations".equals(a.getKey()))
+				.map(a -> " " + a.getValue())
+				.findAny()
+				.orElse("");
+		return "finish " + rq.getStatus() + invocations;
+	}
+
+	@BeforeEach
+	public void setupMock() {
+		System.setProperty("streamDynamicTests", Boolean.TRUE.toString());
+		System.setProperty("dynamicContainerDepth", "1");
+		CALLS.clear();
+		StreamExtension.INSTANCES.clear();
+		LAUNCH = mock(Launch.class);
+		when(LAUNCH.startTestItem(any())).thenAnswer((Answer<Maybe<String>>) invocation -> {
+			CALLS.add("start " + invocation.<StartTestItemRQ>getArgument(0).getName());
+			return TestUtils.createMaybeUuid();
+		});
+		when(LAUNCH.startTestItem(any(), any())).thenAnswer((Answer<Maybe<String>>) invocation -> {
+			CALLS.add("start " + invocation.<StartTestItemRQ>getArgument(1).getName());
+			return TestUtils.createMaybeUuid();
+		});
+		when(LAUNCH.finishTestItem(any(), any())).thenAnswer(invocation -> {
+			CALLS.add(finish(invocation.getArgument(1)));
+			return null;
+		});
+	}
+
+	@AfterEach
+	public void cleanProperties() {
+		System.clearProperty("streamDynamicTests");
+		System.clearProperty("dynamicContainerDepth");
+		System.clearProperty("junit.jupiter.execution.parallel.enabled");
+		System.clearProperty("junit.jupiter.execution.parallel.mode.default");
+		System.clearProperty("junit.jupiter.execution.parallel.config.strategy");
+		System.clearProperty("junit.jupiter.execution.parallel.config.fixed.parallelism");
+	}
+
+	@Test
+	public void verify_only_failed_dynamic_tests_and_containers_are_reported() {
+		TestUtils.runClasses(StreamedDynamicTest.class);
+
+		assertThat(CALLS,
+				contains("start " + StreamedDynamicTest.class.getSimpleName(),
+						"start testFactory()",
+						"start first",
+						"start broken",
+						"finish FAILED",
+						"finish FAILED 4",
+						"start second",
+						"finish PASSED 2",
+						"finish PASSED",
+						"finish PASSED"
+				)
+		);
+	}
+
+	private static StartTestItemRQ getBrokenTestStart() {
+		ArgumentCaptor<StartTestItemRQ> captor = ArgumentCaptor.forClass(StartTestItemRQ.class);
+		verify(LAUNCH, atLeast(0)).startTestItem(captor.capture());
+		verify(LAUNCH, atLeast(0)).startTestItem(any(), captor.capture());
+		return captor.getAllValues().stream().filter(rq -> "broken".equals(rq.getName())).findAny().orElseThrow(AssertionError::new);
+	}
+
+	@Test
+	public void verify_failed_streamed_test_is_reported_as_in_regular_mode() {
+		TestUtils.runClasses(StreamedDynamicTest.class);
+		StartTestItemRQ streamed = getBrokenTestStart();
+
+		setupMock();
+		System.clearProperty("streamDynamicTests");
+		TestUtils.runClasses(StreamedDynamicTest.class);
+		StartTestItemRQ regular = getBrokenTestStart();
+
+		assertThat(streamed.getUniqueId(), equalTo(regular.getUniqueId()));
+		assertThat(streamed.getCodeRef(), equalTo(regular.getCodeRef()));
+		assertThat(streamed.getTestCaseId(), equalTo(regular.getTestCaseId()));
+		assertThat(streamed.getAttributes(), equalTo(regular.getAttributes()));
+		assertThat(streamed.getType(), equalTo(regular.getType()));
+	}
+
+	@Test
+	public void verify_streamed_state_is_bounded_by_container_depth() {
+		TestUtils.runClasses(SoakStreamedDynamicTest.class);
+
+		// suite, factory and a reported container per top level container
+		assertThat(CALLS.stream().filter(c -> c.startsWith("start ")).count(), equalTo(2L + SoakStreamedDynamicTest.CONTAINERS));
+		int open = 0;
+		int maxOpen = 0;
+		for (String call : CALLS) {
+			open += call.startsWith("start ") ? 1 : -1;
+			maxOpen = Math.max(maxOpen, open);
+		}
+		assertThat("Items left open", open, equalTo(0));
+		assertThat("Items open at the same time", maxOpen, equalTo(3));
+		String invocations = "finish PASSED " + SoakStreamedDynamicTest.INNER_CONTAINERS * SoakStreamedDynamicTest.TESTS;
+		assertThat(CALLS.stream().filter(invocations::equals).count(), equalTo((long) SoakStreamedDynamicTest.CONTAINERS));
+		assertThat(StreamExtension.INSTANCES, not(empty()));
+		StreamExtension.INSTANCES.forEach(extension -> assertThat(extension.getRetainedEntries().toString(),
+				extension.getRetainedEntries().values(),
+				everyItem(equalTo(0))
+		));
+	}
+
+	@Test
+	public void verify_concurrent_dynamic_tests_finish_their_containers_before_the_factory() {
+		System.setProperty("junit.jupiter.execution.parallel.enabled", Boolean.TRUE.toString());
+		System.setProperty("junit.jupiter.execution.parallel.mode.default", "concurrent");
+		System.setProperty("junit.jupiter.execution.parallel.config.strategy", "fixed");
+		System.setProperty("junit.jupiter.execution.parallel.config.fixed.parallelism", "4");
+		TestUtils.runClasses(SoakStreamedDynamicTest.class);
+
+		assertThat(CALLS.stream().filter(c -> c.startsWith("start ")).count(), equalTo(2L + SoakStreamedDynamicTest.CONTAINERS));
+		assertThat(CALLS.stream().filter(c -> c.startsWith("finish ")).count(), equalTo(2L + SoakStreamedDynamicTest.CONTAINERS));
+		String invocations = "finish PASSED " + SoakStreamedDynamicTest.INNER_CONTAINERS * SoakStreamedDynamicTest.TESTS;
+		assertThat(CALLS.stream().filter(invocations::equals).count(), equalTo((long) SoakStreamedDynamicTest.CONTAINERS));
+		// the factory and the suite are finished after all containers
+		assertThat(CALLS.subList(CALLS.size() - 2, CALLS.size()), contains("finish PASSED", "finish PASSED"));
+		StreamExtension.INSTANCES.forEach(extension -> assertThat(extension.getRetainedEntries().toString(),
+				extension.getRetainedEntries().values(),
+				everyItem(equalTo(0))
+		));
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import com.epam.reportportal.junit5.features.failfast.FailingFirstTest;
+import com.epam.reportportal.junit5.features.failfast.RemainingTest;
+import com.epam.reportportal.junit5.util.TestUtils;
+import com.epam.reportportal.service.Launch;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import io.reactivex.Maybe;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.mockito.ArgumentCaptor;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.epam.reportportal.junit5.FailFastTest.FailFastExtension.CALLS;
+import static com.epam.reportportal.junit5.FailFastTest.FailFastExtension.LAUNCH;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class FailFastTest {
+
+	public static class FailFastExtension extends ReportPortalExtension {
+		static final List<String> CALLS = new ArrayList<>();
+		static Launch LAUNCH;
+		static String LAUNCH_ID;
+
+		@Override
+		protected Launch getLaunch(ExtensionContext context) {
+			return LAUNCH;
+		}
+
+		@Override
+		String getLaunchId(ExtensionContext context) {
+			return LAUNCH_ID;
+		}
+	}
+
+	@BeforeEach
+	public void setupMock() {
+		System.setProperty("failFastAfter", "2");
+		FailFastExtension.LAUNCH_ID = UUID.randomUUID().toString();
+		CALLS.clear();
+		FailFastExtension.LAUNCH = mock(Launch.class);
+		when(LAUNCH.startTestItem(any())).thenAnswer((Answer<Maybe<String>>) invocation -> {
+			CALLS.add("start " + invocation.<StartTestItemRQ>getArgument(0).getName());
+			return TestUtils.createMaybeUuid();
+		});
+		when(LAUNCH.startTestItem(any(), any())).thenAnswer((Answer<Maybe<String>>) invocation -> {
+			CALLS.add("start " + invocation.<StartTestItemRQ>getArgument(1).getName());
+			return TestUtils.createMaybeUuid();
+		});
+		when(LAUNCH.finishTestItem(any(), any())).thenAnswer(invocation -> {
+			CALLS.add("finish " + invocation.<FinishTestItemRQ>getArgument(1).getStatus());
+			return null;
+		});
+	}
+
+	@AfterEach
+	public void cleanProperty() {
+		System.clearProperty("failFastAfter");
+	}
+
+	@Test
+	public void verify_tests_after_failure_budget_are_reported_as_one_skipped_item() {
+		TestUtils.runClasses(FailingFirstTest.class);
+
+		assertThat(CALLS,
+				contains("start " + FailingFirstTest.class.getSimpleName(),
+						"start failFirst()",
+						"finish FAILED",
+						"start failSecond()",
+						"finish FAILED",
+						"start 2 tests skipped",
+						"finish SKIPPED",
+						"finish FAILED"
+				)
+		);
+		ArgumentCaptor<FinishTestItemRQ> captor = ArgumentCaptor.forClass(FinishTestItemRQ.class);
+		verify(LAUNCH, times(4)).finishTestItem(any(), captor.capture());
+		assertThat(captor.getAllValues().get(2).getIssue(), sameInstance(ReportPortalExtension.SKIPPED_NOT_ISSUE.getIssue()));
+	}
+
+	@Test
+	public void verify_classes_after_failure_budget_are_reported_as_skipped_suites() {
+		TestUtils.runClasses(FailingFirstTest.class);
+		CALLS.clear();
+
+		TestUtils.runClasses(RemainingTest.class);
+
+		assertThat(CALLS, contains("start " + RemainingTest.class.getSimpleName(), "finish SKIPPED"));
+	}
+}
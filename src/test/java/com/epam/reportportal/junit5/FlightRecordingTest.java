@@ -0,0 +1,109 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import com.epam.reportportal.junit5.features.jfr.SlowAndFastTest;
+import com.epam.reportportal.junit5.util.TestUtils;
+import com.epam.reportportal.service.Launch;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import com.epam.ta.reportportal.ws.model.attribute.ItemAttributesRQ;
+import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
+import io.reactivex.Maybe;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.mockito.ArgumentCaptor;
+import org.mockito.stubbing.Answer;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static com.epam.reportportal.junit5.FlightRecordingTest.FlightRecordingExtension.LAUNCH;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class FlightRecordingTest {
+
+	public static class FlightRecordingExtension extends ReportPortalExtension {
+		static Launch LAUNCH;
+
+		@Override
+		protected Launch getLaunch(ExtensionContext context) {
+			return LAUNCH;
+		}
+	}
+
+	@BeforeEach
+	public void setupMock() {
+		System.setProperty("flightRecordingThreshold", "300");
+		FlightRecordingExtension.LAUNCH = mock(Launch.class);
+		when(LAUNCH.startTestItem(any())).thenAnswer((Answer<Maybe<String>>) invocation -> TestUtils.createMaybeUuid());
+		when(LAUNCH.startTestItem(any(), any())).thenAnswer((Answer<Maybe<String>>) invocation -> TestUtils.createMaybeUuid());
+	}
+
+	@AfterEach
+	public void cleanProperty() {
+		System.clearProperty("flightRecordingThreshold");
+	}
+
+	private static List<String> getRecordings(FinishTestItemRQ rq) {
+		return Optional.ofNullable(rq.getAttributes())
+				.map(attributes -> attributes.stream()
+						.filter(a -> "flightRecording".equals(a.getKey()))
+						.map(ItemAttributesRQ::getValue)
+						.collect(Collectors.toList()))
+				.orElse(Collections.emptyList());
+	}
+
+	@Test
+	public void verify_only_slow_test_gets_flight_recording() {
+		assumeTrue(FlightRecordings.start());
+		TestUtils.runClasses(SlowAndFastTest.class);
+
+		ArgumentCaptor<FinishTestItemRQ> finishCaptor = ArgumentCaptor.forClass(FinishTestItemRQ.class);
+		verify(LAUNCH, times(3)).finishTestItem(any(), finishCaptor.capture());
+		List<FinishTestItemRQ> finishes = finishCaptor.getAllValues();
+
+		List<String> slow = getRecordings(finishes.get(0));
+		assertThat(slow, hasSize(1));
+		assertThat(slow.get(0), endsWith(".jfr"));
+		assertThat(getRecordings(finishes.get(1)), empty());
+	}
+
+	@Test
+	public void verify_dump_covers_given_time_only() {
+		assumeTrue(FlightRecordings.start());
+		Instant end = Instant.now();
+
+		SaveLogRQ.File recording = FlightRecordings.dump("slow()", end.minusSeconds(1), end).orElseThrow(AssertionError::new);
+
+		assertThat(recording.getName(), allOf(startsWith("rp-slow__-"), endsWith(".jfr")));
+		assertThat(recording.getContent().length, greaterThan(0));
+		// nothing was recorded before the launch
+		assertThat(FlightRecordings.dump("slow()", Instant.EPOCH, Instant.EPOCH.plusSeconds(1)).isPresent(), equalTo(false));
+	}
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import com.epam.reportportal.junit5.features.fold.FailingBeforeEachTest;
+import com.epam.reportportal.junit5.features.fold.PassingFixturesTest;
+import com.epam.reportportal.junit5.util.TestUtils;
+import com.epam.reportportal.service.Launch;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import com.epam.ta.reportportal.ws.model.attribute.ItemAttributesRQ;
+import io.reactivex.Maybe;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.mockito.ArgumentCaptor;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.epam.reportportal.junit5.FoldPassedFixturesTest.FoldExtension.CALLS;
+import static com.epam.reportportal.junit5.FoldPassedFixturesTest.FoldExtension.LAUNCH;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.notNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class FoldPassedFixturesTest {
+
+	public static class FoldExtension extends ReportPortalExtension {
+		static final List<String> CALLS = new ArrayList<>();
+		static Launch LAUNCH;
+
+		@Override
+		protected Launch getLaunch(ExtensionContext context) {
+			return LAUNCH;
+		}
+	}
+
+	@BeforeEach
+	public void setupMock() {
+		System.setProperty("foldPassedFixtures", Boolean.TRUE.toString());
+		CALLS.clear();
+		FoldExtension.LAUNCH = mock(Launch.class);
+		when(LAUNCH.startTestItem(any())).thenAnswer((Answer<Maybe<String>>) invocation -> {
+			CALLS.add("start " + invocation.<StartTestItemRQ>getArgument(0).getName());
+			return TestUtils.createMaybeUuid();
+		});
+		when(LAUNCH.startTestItem(any(), any())).thenAnswer((Answer<Maybe<String>>) invocation -> {
+			CALLS.add("start " + invocation.<StartTestItemRQ>getArgument(1).getName());
+			return TestUtils.createMaybeUuid();
+		});
+		when(LAUNCH.finishTestItem(any(), any())).thenAnswer(invocation -> {
+			CALLS.add("finish " + invocation.<FinishTestItemRQ>getArgument(1).getStatus());
+			return null;
+		});
+	}
+
+	@AfterEach
+	public void cleanProperty() {
+		System.clearProperty("foldPassedFixtures");
+	}
+
+	@Test
+	public void verify_passed_fixtures_are_not_reported_as_items() {
+		TestUtils.runClasses(PassingFixturesTest.class);
+
+		assertThat(CALLS,
+				contains("start " + PassingFixturesTest.class.getSimpleName(), "start test()", "finish PASSED", "finish PASSED")
+		);
+	}
+
+	@Test
+	public void verify_passed_fixture_durations_are_recorded_on_the_step() {
+		TestUtils.runClasses(PassingFixturesTest.class);
+
+		ArgumentCaptor<FinishTestItemRQ> finishCaptor = ArgumentCaptor.forClass(FinishTestItemRQ.class);
+		verify(LAUNCH, times(2)).finishTestItem(notNull(), finishCaptor.capture());
+
+		FinishTestItemRQ stepFinish = finishCaptor.getAllValues().get(0);
+		assertThat(stepFinish.getAttributes().stream().map(ItemAttributesRQ::getKey).collect(Collectors.toList()),
+				containsInAnyOrder("@BeforeEach beforeEach()", "@AfterEach afterEach()")
+		);
+		stepFinish.getAttributes().forEach(a -> assertThat(a.getValue(), endsWith(" ms")));
+	}
+
+	@Test
+	public void verify_failed_fixture_is_reported_and_the_step_is_skipped() {
+		TestUtils.runClasses(FailingBeforeEachTest.class);
+
+		assertThat(CALLS,
+				contains("start " + FailingBeforeEachTest.class.getSimpleName(),
+						"start beforeEach()",
+						"finish FAILED",
+						"start test()",
+						"finish SKIPPED",
+						"finish PASSED"
+				)
+		);
+	}
+}
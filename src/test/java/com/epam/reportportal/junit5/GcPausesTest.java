@@ -0,0 +1,105 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import com.epam.reportportal.junit5.features.gc.PausingTest;
+import com.epam.reportportal.junit5.util.TestUtils;
+import com.epam.reportportal.service.Launch;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import com.epam.ta.reportportal.ws.model.attribute.ItemAttributesRQ;
+import io.reactivex.Maybe;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.mockito.ArgumentCaptor;
+import org.mockito.stubbing.Answer;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.epam.reportportal.junit5.GcPausesTest.GcPausesExtension.LAUNCH;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class GcPausesTest {
+
+	public static class GcPausesExtension extends ReportPortalExtension {
+		static Launch LAUNCH;
+
+		@Override
+		protected Launch getLaunch(ExtensionContext context) {
+			return LAUNCH;
+		}
+	}
+
+	public static void pause(long duration) {
+		GcPauses.onPause(new GcPauses.Pause(new Date(), duration, "GC pause of " + duration + " ms"));
+	}
+
+	@BeforeEach
+	public void setupMock() {
+		System.setProperty("gcPauseThreshold", "100");
+		GcPausesExtension.LAUNCH = mock(Launch.class);
+		when(LAUNCH.startTestItem(any())).thenAnswer((Answer<Maybe<String>>) invocation -> TestUtils.createMaybeUuid());
+		when(LAUNCH.startTestItem(any(), any())).thenAnswer((Answer<Maybe<String>>) invocation -> TestUtils.createMaybeUuid());
+	}
+
+	@AfterEach
+	public void cleanProperty() {
+		System.clearProperty("gcPauseThreshold");
+	}
+
+	@Test
+	public void verify_tracker_keeps_long_pauses_and_total_time_until_stopped() {
+		GcPauses.Tracker tracker = GcPauses.track(100);
+		GcPauses.onPause(new GcPauses.Pause(new Date(), 50, "short"));
+		GcPauses.onPause(new GcPauses.Pause(new Date(), 150, "long"));
+		tracker.stop();
+		GcPauses.onPause(new GcPauses.Pause(new Date(), 200, "after"));
+
+		assertThat(tracker.getTotalTime(), equalTo(200L));
+		assertThat(tracker.getPauses().stream().map(GcPauses.Pause::getDescription).collect(Collectors.toList()), contains("long"));
+	}
+
+	@Test
+	public void verify_suite_reports_total_gc_time_of_its_tests() {
+		assumeTrue(GcPauses.isSupported());
+		TestUtils.runClasses(PausingTest.class);
+
+		ArgumentCaptor<FinishTestItemRQ> finishCaptor = ArgumentCaptor.forClass(FinishTestItemRQ.class);
+		verify(LAUNCH, times(2)).finishTestItem(any(), finishCaptor.capture());
+		List<FinishTestItemRQ> finishes = finishCaptor.getAllValues();
+
+		assertThat(finishes.get(0).getAttributes() == null || finishes.get(0).getAttributes().isEmpty(), equalTo(true));
+		List<ItemAttributesRQ> suiteAttributes = finishes.get(1)
+				.getAttributes()
+				.stream()
+				.filter(a -> GcPauses.GC_TIME_ATTRIBUTE.equals(a.getKey()))
+				.collect(Collectors.toList());
+		assertThat(suiteAttributes, hasSize(1));
+		// real collections during the run can add to the simulated pause
+		assertThat(Long.parseLong(suiteAttributes.get(0).getValue().replace(" ms", "")), greaterThanOrEqualTo(1500L));
+	}
+}
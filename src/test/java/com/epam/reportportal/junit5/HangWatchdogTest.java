@@ -0,0 +1,142 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import com.epam.reportportal.junit5.features.hang.HangingTest;
+import com.epam.reportportal.junit5.util.TestUtils;
+import com.epam.reportportal.service.Launch;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import io.reactivex.Maybe;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.epam.reportportal.junit5.HangWatchdogTest.HangWatchdogExtension.CALLS;
+import static com.epam.reportportal.junit5.HangWatchdogTest.HangWatchdogExtension.LAUNCH;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class HangWatchdogTest {
+
+	public static class HangWatchdogExtension extends ReportPortalExtension {
+		static final List<String> CALLS = new ArrayList<>();
+		static Launch LAUNCH;
+
+		@Override
+		protected Launch getLaunch(ExtensionContext context) {
+			return LAUNCH;
+		}
+	}
+
+	@BeforeEach
+	public void setupMock() {
+		System.setProperty("hangThreshold", "300");
+		System.setProperty("interruptHungTests", Boolean.TRUE.toString());
+		CALLS.clear();
+		HangWatchdogExtension.LAUNCH = mock(Launch.class);
+		when(LAUNCH.startTestItem(any())).thenAnswer((Answer<Maybe<String>>) invocation -> TestUtils.createMaybeUuid());
+		when(LAUNCH.startTestItem(any(), any())).thenAnswer((Answer<Maybe<String>>) invocation -> TestUtils.createMaybeUuid());
+		when(LAUNCH.finishTestItem(any(), any())).thenAnswer(invocation -> {
+			CALLS.add("finish " + invocation.<FinishTestItemRQ>getArgument(1).getStatus());
+			return null;
+		});
+	}
+
+	@AfterEach
+	public void cleanProperty() {
+		System.clearProperty("hangThreshold");
+		System.clearProperty("interruptHungTests");
+	}
+
+	@Test
+	public void verify_hung_tests_are_interrupted_and_failed() {
+		long start = System.nanoTime();
+		TestUtils.runClasses(HangingTest.class);
+
+		assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start), lessThan(30L));
+		assertThat(CALLS, contains("finish FAILED", "finish FAILED", "finish PASSED", "finish FAILED"));
+	}
+
+	@Test
+	public void verify_thread_dump_shows_deadlocked_threads_first() throws InterruptedException {
+		ReentrantLock first = new ReentrantLock();
+		ReentrantLock second = new ReentrantLock();
+		CountDownLatch locked = new CountDownLatch(2);
+		Thread one = new Thread(() -> lockBoth(first, second, locked), "deadlocked-one");
+		Thread two = new Thread(() -> lockBoth(second, first, locked), "deadlocked-two");
+		one.start();
+		two.start();
+		try {
+			locked.await();
+			String dump = "";
+			for (int i = 0; i < 50 && !dump.startsWith("Deadlocked threads"); i++) {
+				Thread.sleep(20);
+				dump = HangWatchdog.dumpThreads();
+			}
+
+			assertThat(dump, startsWith("Deadlocked threads"));
+			String deadlocked = dump.substring(0, dump.indexOf("All threads:"));
+			assertThat(deadlocked, allOf(containsString("\"deadlocked-one\""), containsString("\"deadlocked-two\"")));
+		} finally {
+			one.interrupt();
+			two.interrupt();
+			one.join();
+			two.join();
+		}
+	}
+
+	@Test
+	public void verify_stop_clears_delivered_interrupt_and_stopped_watch_is_not_interrupted() {
+		HangWatchdog.Watch interrupted = HangWatchdog.watch("interrupted", 0, true);
+		HangWatchdog.check();
+		assertThat(interrupted.isInterrupted(), equalTo(true));
+		interrupted.stop();
+		assertThat(Thread.currentThread().isInterrupted(), equalTo(false));
+
+		HangWatchdog.Watch stopped = HangWatchdog.watch("stopped", 0, true).stop();
+		HangWatchdog.check();
+		assertThat(stopped.isInterrupted(), equalTo(false));
+		assertThat(Thread.currentThread().isInterrupted(), equalTo(false));
+	}
+
+	private static void lockBoth(ReentrantLock first, ReentrantLock second, CountDownLatch locked) {
+		try {
+			first.lockInterruptibly();
+			try {
+				locked.countDown();
+				locked.await();
+				second.lockInterruptibly();
+				second.unlock();
+			} finally {
+				first.unlock();
+			}
+		} catch (InterruptedException ignored) {
+			// the deadlock is broken by the test
+		}
+	}
+}
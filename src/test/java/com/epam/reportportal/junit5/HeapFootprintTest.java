@@ -0,0 +1,168 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import com.epam.reportportal.junit5.features.footprint.SyntheticSuiteTest;
+import com.epam.reportportal.junit5.util.RetainedSize;
+import com.epam.reportportal.junit5.util.TestUtils;
+import com.epam.reportportal.listeners.ListenerParameters;
+import com.epam.reportportal.service.Launch;
+import com.epam.reportportal.service.ReportPortal;
+import io.reactivex.Maybe;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.mockito.stubbing.Answer;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Runs a large synthetic suite and checks what the agent keeps after the run while its extension instances are still reachable: the bytes
+ * reachable from them and from the static state of the agent, the entries of its per-item structures, the launch registry, the item tree
+ * and the test contexts.
+ * The budget can be overridden with the {@code heapBudgetPerTest} system property (bytes per executed test).
+ */
+public class HeapFootprintTest {
+
+	private static final String BUDGET_PROPERTY = "heapBudgetPerTest";
+	private static final long DEFAULT_BUDGET = 4 * 1024;
+
+	public static class FootprintExtension extends ReportPortalExtension {
+		static final ReportPortal REPORT_PORTAL;
+		static final List<FootprintExtension> INSTANCES = new CopyOnWriteArrayList<>();
+		static final Set<ExtensionContext> CONTEXTS = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+		static volatile String launchId;
+		static volatile boolean trackContexts;
+
+		static {
+			// stub-only mocks do not record invocations, so they do not keep test objects themselves
+			Launch launch = mock(Launch.class, withSettings().stubOnly());
+			when(launch.start()).thenReturn(TestUtils.createMaybeUuid());
+			when(launch.startTestItem(any())).thenAnswer((Answer<Maybe<String>>) invocation -> TestUtils.createMaybeUuid());
+			when(launch.startTestItem(any(), any())).thenAnswer((Answer<Maybe<String>>) invocation -> TestUtils.createMaybeUuid());
+			REPORT_PORTAL = mock(ReportPortal.class, withSettings().stubOnly());
+			when(REPORT_PORTAL.newLaunch(any())).thenReturn(launch);
+			when(REPORT_PORTAL.getParameters()).thenReturn(mock(ListenerParameters.class, withSettings().stubOnly()));
+		}
+
+		public FootprintExtension() {
+			INSTANCES.add(this);
+		}
+
+		@Override
+		ReportPortal getReporter() {
+			return REPORT_PORTAL;
+		}
+
+		@Override
+		String getLaunchId(ExtensionContext context) {
+			return launchId;
+		}
+
+		@Override
+		protected Launch getLaunch(ExtensionContext context) {
+			if (trackContexts) {
+				CONTEXTS.add(context);
+			}
+			return super.getLaunch(context);
+		}
+	}
+
+	@BeforeEach
+	public void setupLaunch() {
+		FootprintExtension.launchId = UUID.randomUUID().toString();
+		FootprintExtension.INSTANCES.clear();
+	}
+
+	@AfterEach
+	public void releaseInstances() {
+		FootprintExtension.INSTANCES.clear();
+	}
+
+	private static long agentRetainedBytes() {
+		return RetainedSize.of(FootprintExtension.INSTANCES,
+				RetainedSize.staticFields(ReportPortalExtension.class),
+				RetainedSize.staticFields(FailureBudget.class)
+		);
+	}
+
+	@Test
+	public void agent_retained_bytes_per_executed_test_fit_the_budget() {
+		// warm up: lazily initialized static state should not be attributed to the tests
+		TestUtils.runClasses(SyntheticSuiteTest.class);
+		FootprintExtension.INSTANCES.clear();
+
+		long before = agentRetainedBytes();
+		TestUtils.runClasses(SyntheticSuiteTest.class);
+		long after = agentRetainedBytes();
+
+		long perTest = Math.max(0, after - before) / SyntheticSuiteTest.TESTS;
+		long budget = Long.getLong(BUDGET_PROPERTY, DEFAULT_BUDGET);
+		assertThat("Retained bytes per executed test", perTest, lessThanOrEqualTo(budget));
+	}
+
+	@Test
+	public void finished_items_leave_no_entries_in_agent_structures() {
+		int launches = ReportPortalExtension.getLaunchCount();
+		int treeItems = ReportPortalExtension.TEST_ITEM_TREE.getTestItems().size();
+
+		TestUtils.runClasses(SyntheticSuiteTest.class);
+
+		assertThat(FootprintExtension.INSTANCES, not(empty()));
+		FootprintExtension.INSTANCES.forEach(extension -> assertThat(extension.getRetainedEntries().toString(),
+				extension.getRetainedEntries().values(),
+				everyItem(equalTo(0))
+		));
+		assertThat("Launches registered by the run", ReportPortalExtension.getLaunchCount() - launches, equalTo(1));
+		assertThat("Item tree leaves without callback reporting",
+				ReportPortalExtension.TEST_ITEM_TREE.getTestItems().size(),
+				equalTo(treeItems)
+		);
+	}
+
+	@Test
+	public void finished_test_contexts_are_not_retained_by_the_agent() throws InterruptedException {
+		FootprintExtension.CONTEXTS.clear();
+		FootprintExtension.trackContexts = true;
+		try {
+			TestUtils.runClasses(SyntheticSuiteTest.class);
+		} finally {
+			FootprintExtension.trackContexts = false;
+		}
+
+		// extension instances are still reachable, so any context kept by them survives the collections
+		int bound = SyntheticSuiteTest.TESTS / 100;
+		for (int i = 0; i < 10 && FootprintExtension.CONTEXTS.size() > bound; i++) {
+			System.gc();
+			Thread.sleep(50);
+		}
+		assertThat("Contexts retained after the run", FootprintExtension.CONTEXTS.size(), lessThanOrEqualTo(bound));
+	}
+}
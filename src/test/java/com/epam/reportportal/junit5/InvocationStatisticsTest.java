@@ -0,0 +1,51 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class InvocationStatisticsTest {
+
+	@Test
+	public void verify_bucket_bounds_contain_the_value() {
+		for (long value = 0; value < 1_000_000; value += 37) {
+			int bucket = InvocationStatistics.bucket(value);
+			assertThat(InvocationStatistics.upperBound(bucket), greaterThanOrEqualTo(value));
+			assertThat(InvocationStatistics.upperBound(bucket) - value, lessThanOrEqualTo(Math.max(0, value / 16)));
+		}
+	}
+
+	@Test
+	public void verify_percentiles_of_recorded_durations() {
+		InvocationStatistics statistics = new InvocationStatistics();
+		for (int i = 1; i <= 100; i++) {
+			statistics.record(Status.PASSED, TimeUnit.MILLISECONDS.toNanos(i));
+		}
+
+		assertThat(statistics.getAttributes()
+				.stream()
+				.filter(a -> "p50".equals(a.getKey()))
+				.map(a -> Double.parseDouble(a.getValue().replace(" ms", "")))
+				.findAny()
+				.orElseThrow(IllegalStateException::new), allOf(greaterThanOrEqualTo(50.0), lessThan(50.0 * 17 / 16)));
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import com.epam.reportportal.junit5.features.quarantine.FlakyTest;
+import com.epam.reportportal.junit5.history.LaunchHistory;
+import com.epam.reportportal.junit5.history.Quarantine;
+import com.epam.reportportal.junit5.util.TestUtils;
+import com.epam.reportportal.service.Launch;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import com.epam.ta.reportportal.ws.model.attribute.ItemAttributesRQ;
+import io.reactivex.Maybe;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.stubbing.Answer;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class QuarantineTest {
+
+	public static class QuarantineExtension extends ReportPortalExtension {
+		static Launch LAUNCH;
+		static Quarantine QUARANTINE;
+
+		@Override
+		protected Launch getLaunch(ExtensionContext context) {
+			return LAUNCH;
+		}
+
+		@Override
+		Quarantine getQuarantine() {
+			return QUARANTINE;
+		}
+	}
+
+	@BeforeEach
+	public void setupMock(@TempDir Path dir) {
+		Path file = dir.resolve("history.txt");
+		String classId = "[engine:junit-jupiter]/[class:" + FlakyTest.class.getName() + "]";
+		for (Status status : new Status[] { Status.FAILED, Status.PASSED, Status.FAILED }) {
+			LaunchHistory.update(file, Collections.singletonMap(classId + "/[method:flaky()]", new LaunchHistory.Record(status, 10)));
+			LaunchHistory.update(file, Collections.singletonMap(classId + "/[method:failing()]", new LaunchHistory.Record(Status.FAILED, 10)));
+		}
+		QuarantineExtension.QUARANTINE = new Quarantine(LaunchHistory.load(file), 0.5);
+		FlakyTest.FLAKY_CALLS.set(0);
+		FlakyTest.FAILING_CALLS.set(0);
+		FlakyTest.BEFORE_EACH_CALLS.set(0);
+		FlakyTest.BEFORE_ALL_CALLS.set(0);
+
+		QuarantineExtension.LAUNCH = mock(Launch.class);
+		when(QuarantineExtension.LAUNCH.startTestItem(any())).thenAnswer((Answer<Maybe<String>>) invocation -> TestUtils.createMaybeUuid());
+		when(QuarantineExtension.LAUNCH.startTestItem(any(), any())).thenAnswer((Answer<Maybe<String>>) invocation -> TestUtils.createMaybeUuid());
+	}
+
+	private static Map<String, String> toMap(FinishTestItemRQ rq) {
+		return rq.getAttributes().stream().collect(Collectors.toMap(ItemAttributesRQ::getKey, ItemAttributesRQ::getValue));
+	}
+
+	@Test
+	public void verify_quarantined_test_is_retried_through_junit_and_marked_with_attributes() {
+		TestUtils.runClasses(FlakyTest.class);
+
+		assertThat(FlakyTest.FLAKY_CALLS.get(), equalTo(2));
+		assertThat(FlakyTest.FAILING_CALLS.get(), equalTo(1));
+		// the retry runs with its fixtures
+		assertThat(FlakyTest.BEFORE_EACH_CALLS.get(), equalTo(3));
+		// while the class set up by the original execution is still live
+		assertThat(FlakyTest.BEFORE_ALL_CALLS.get(), equalTo(1));
+
+		verify(QuarantineExtension.LAUNCH, times(1)).startTestItem(any());
+		ArgumentCaptor<StartTestItemRQ> startCaptor = ArgumentCaptor.forClass(StartTestItemRQ.class);
+		verify(QuarantineExtension.LAUNCH, atLeastOnce()).startTestItem(any(), startCaptor.capture());
+		List<StartTestItemRQ> steps = startCaptor.getAllValues()
+				.stream()
+				.filter(rq -> ItemType.STEP.name().equals(rq.getType()))
+				.collect(Collectors.toList());
+		assertThat(steps.stream().map(StartTestItemRQ::getName).collect(Collectors.toList()), contains("failing()", "flaky()", "flaky()"));
+		assertThat(steps.stream().map(StartTestItemRQ::isRetry).collect(Collectors.toList()), contains(false, false, true));
+		assertThat(startCaptor.getAllValues().stream().filter(rq -> ItemType.BEFORE_CLASS.name().equals(rq.getType())).count(), equalTo(1L));
+
+		ArgumentCaptor<FinishTestItemRQ> finishCaptor = ArgumentCaptor.forClass(FinishTestItemRQ.class);
+		verify(QuarantineExtension.LAUNCH, atLeastOnce()).finishTestItem(any(), finishCaptor.capture());
+		List<FinishTestItemRQ> quarantined = finishCaptor.getAllValues()
+				.stream()
+				.filter(rq -> rq.getAttributes() != null && toMap(rq).containsKey("quarantined"))
+				.collect(Collectors.toList());
+		assertThat(quarantined, hasSize(2));
+		// the retry finishes before the test which started it
+		assertThat(quarantined.get(0).getStatus(), equalTo("PASSED"));
+		assertThat(toMap(quarantined.get(0)), allOf(hasEntry("quarantined", "1.00"), hasEntry("attempts", "2")));
+		assertThat(quarantined.get(1).getStatus(), equalTo("PASSED"));
+		assertThat(toMap(quarantined.get(1)), allOf(hasEntry("quarantined", "1.00"), hasEntry("attempts", "2")));
+		// three steps with their @BeforeEach methods, the @BeforeAll method and the class, which is not finished again by the retry
+		assertThat(finishCaptor.getAllValues(), hasSize(8));
+	}
+}
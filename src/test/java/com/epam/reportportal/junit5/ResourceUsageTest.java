@@ -0,0 +1,106 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import com.epam.reportportal.junit5.features.resources.AllocatingTest;
+import com.epam.reportportal.junit5.util.TestUtils;
+import com.epam.reportportal.service.Launch;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import com.epam.ta.reportportal.ws.model.attribute.ItemAttributesRQ;
+import io.reactivex.Maybe;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.mockito.ArgumentCaptor;
+import org.mockito.stubbing.Answer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.epam.reportportal.junit5.ResourceUsageTest.ResourceUsageExtension.LAUNCH;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ResourceUsageTest {
+
+	public static class ResourceUsageExtension extends ReportPortalExtension {
+		static Launch LAUNCH;
+
+		@Override
+		protected Launch getLaunch(ExtensionContext context) {
+			return LAUNCH;
+		}
+	}
+
+	@BeforeEach
+	public void setupMock() {
+		System.setProperty("resourceUsage", Boolean.TRUE.toString());
+		ResourceUsageExtension.LAUNCH = mock(Launch.class);
+		when(LAUNCH.startTestItem(any())).thenAnswer((Answer<Maybe<String>>) invocation -> TestUtils.createMaybeUuid());
+		when(LAUNCH.startTestItem(any(), any())).thenAnswer((Answer<Maybe<String>>) invocation -> TestUtils.createMaybeUuid());
+	}
+
+	@AfterEach
+	public void cleanProperty() {
+		System.clearProperty("resourceUsage");
+	}
+
+	private static long getAllocatedKb(FinishTestItemRQ rq) {
+		Map<String, String> attributes = rq.getAttributes()
+				.stream()
+				.collect(Collectors.toMap(ItemAttributesRQ::getKey, ItemAttributesRQ::getValue));
+		assertThat(attributes, hasKey(ResourceUsage.CPU_TIME_ATTRIBUTE));
+		assertThat(attributes.get(ResourceUsage.CPU_TIME_ATTRIBUTE), endsWith(" ms"));
+		return Long.parseLong(attributes.get(ResourceUsage.ALLOCATED_ATTRIBUTE).replace(" KB", ""));
+	}
+
+	@Test
+	public void verify_steps_and_suites_report_cpu_time_and_allocations() {
+		TestUtils.runClasses(AllocatingTest.class);
+
+		ArgumentCaptor<FinishTestItemRQ> finishCaptor = ArgumentCaptor.forClass(FinishTestItemRQ.class);
+		// each step is finished after its @BeforeEach and @AfterEach items
+		verify(LAUNCH, times(7)).finishTestItem(any(), finishCaptor.capture());
+		List<FinishTestItemRQ> finishes = finishCaptor.getAllValues();
+
+		long first = getAllocatedKb(finishes.get(2));
+		long second = getAllocatedKb(finishes.get(5));
+		long suite = getAllocatedKb(finishes.get(6));
+		// @BeforeEach and @AfterEach allocations are included into each step
+		assertThat(first, greaterThanOrEqualTo(7L * 1024));
+		assertThat(second, greaterThanOrEqualTo(7L * 1024));
+		// the suite sums bytes, so its rounding can differ from the sum of rounded step values
+		assertThat(suite, both(greaterThanOrEqualTo(first + second)).and(lessThanOrEqualTo(first + second + 1)));
+	}
+
+	@Test
+	public void verify_no_resource_attributes_without_property() {
+		System.clearProperty("resourceUsage");
+		TestUtils.runClasses(AllocatingTest.class);
+
+		ArgumentCaptor<FinishTestItemRQ> finishCaptor = ArgumentCaptor.forClass(FinishTestItemRQ.class);
+		verify(LAUNCH, times(7)).finishTestItem(any(), finishCaptor.capture());
+		finishCaptor.getAllValues().forEach(rq -> assertThat(rq.getAttributes() == null || rq.getAttributes().isEmpty(), equalTo(true)));
+	}
+}
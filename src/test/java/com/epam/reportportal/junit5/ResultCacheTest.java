@@ -0,0 +1,175 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import com.epam.reportportal.junit5.cache.ResultCache;
+import com.epam.reportportal.junit5.features.cache.CachedTest;
+import com.epam.reportportal.junit5.features.cache.FailingCachedTest;
+import com.epam.reportportal.junit5.features.cache.TwoMethodsCachedTest;
+import com.epam.reportportal.junit5.util.TestUtils;
+import com.epam.reportportal.service.Launch;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import com.epam.ta.reportportal.ws.model.attribute.ItemAttributesRQ;
+import io.reactivex.Maybe;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.core.LauncherConfig;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.mockito.ArgumentCaptor;
+import org.mockito.stubbing.Answer;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.epam.reportportal.junit5.ResultCacheTest.CacheExtension.CALLS;
+import static com.epam.reportportal.junit5.ResultCacheTest.CacheExtension.LAUNCH;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectMethod;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ResultCacheTest {
+
+	public static class CacheExtension extends ReportPortalExtension {
+		static final List<String> CALLS = new ArrayList<>();
+		static Launch LAUNCH;
+		static String LAUNCH_ID;
+
+		@Override
+		protected Launch getLaunch(ExtensionContext context) {
+			return LAUNCH;
+		}
+
+		@Override
+		String getLaunchId(ExtensionContext context) {
+			return LAUNCH_ID;
+		}
+	}
+
+	@TempDir
+	Path dir;
+
+	private Path file;
+
+	@BeforeEach
+	public void setupMock() {
+		file = dir.resolve("result-cache.txt");
+		System.setProperty(ResultCache.RESULT_CACHE_FILE_PROPERTY, file.toString());
+		setupLaunch();
+	}
+
+	private static void setupLaunch() {
+		CALLS.clear();
+		CacheExtension.LAUNCH_ID = UUID.randomUUID().toString();
+		CacheExtension.LAUNCH = mock(Launch.class);
+		when(LAUNCH.startTestItem(any())).thenAnswer((Answer<Maybe<String>>) invocation -> {
+			CALLS.add("start " + invocation.<StartTestItemRQ>getArgument(0).getName());
+			return TestUtils.createMaybeUuid();
+		});
+		when(LAUNCH.startTestItem(any(), any())).thenAnswer((Answer<Maybe<String>>) invocation -> {
+			CALLS.add("start " + invocation.<StartTestItemRQ>getArgument(1).getName());
+			return TestUtils.createMaybeUuid();
+		});
+		when(LAUNCH.finishTestItem(any(), any())).thenAnswer(invocation -> {
+			CALLS.add("finish " + invocation.<FinishTestItemRQ>getArgument(1).getStatus());
+			return null;
+		});
+	}
+
+	@AfterEach
+	public void cleanProperty() {
+		System.clearProperty(ResultCache.RESULT_CACHE_FILE_PROPERTY);
+		System.clearProperty("failFastAfter");
+	}
+
+	@Test
+	public void verify_unchanged_passed_class_is_reported_as_cached() {
+		TestUtils.runClasses(CachedTest.class);
+		assertThat(CALLS, contains("start " + CachedTest.class.getSimpleName(), "start test()", "finish PASSED", "finish PASSED"));
+
+		setupLaunch();
+		TestUtils.runClasses(CachedTest.class);
+
+		assertThat(CALLS, contains("start " + CachedTest.class.getSimpleName(), "finish SKIPPED"));
+		ArgumentCaptor<FinishTestItemRQ> captor = ArgumentCaptor.forClass(FinishTestItemRQ.class);
+		verify(LAUNCH).finishTestItem(any(), captor.capture());
+		FinishTestItemRQ rq = captor.getValue();
+		assertThat(rq.getIssue(), sameInstance(ReportPortalExtension.SKIPPED_NOT_ISSUE.getIssue()));
+		assertThat(rq.getAttributes(), hasSize(1));
+		ItemAttributesRQ attribute = rq.getAttributes().iterator().next();
+		assertThat(attribute.getKey(), equalTo("cached"));
+		assertThat(attribute.getValue(), equalTo("true"));
+	}
+
+	@Test
+	public void verify_failed_class_runs_again() {
+		TestUtils.runClasses(FailingCachedTest.class);
+
+		setupLaunch();
+		TestUtils.runClasses(FailingCachedTest.class);
+
+		assertThat(CALLS, hasItem("start test()"));
+		assertThat(ResultCache.getShared().isUnchanged(FailingCachedTest.class), equalTo(false));
+	}
+
+	@Test
+	public void verify_results_are_saved_to_the_cache_file() {
+		TestUtils.runClasses(CachedTest.class, FailingCachedTest.class);
+
+		ResultCache.getShared().save();
+
+		ResultCache cache = ResultCache.load(file);
+		assertThat(cache.isUnchanged(CachedTest.class), equalTo(true));
+		assertThat(cache.isUnchanged(FailingCachedTest.class), equalTo(false));
+	}
+
+	@Test
+	public void verify_class_is_not_cached_when_only_some_methods_ran() {
+		LauncherDiscoveryRequest request = LauncherDiscoveryRequestBuilder.request()
+				.selectors(selectMethod(TwoMethodsCachedTest.class, "first"))
+				.build();
+		LauncherFactory.create(LauncherConfig.builder().enableTestExecutionListenerAutoRegistration(false).build()).execute(request);
+
+		assertThat(CALLS, hasItem("start first()"));
+		assertThat(ResultCache.getShared().isUnchanged(TwoMethodsCachedTest.class), equalTo(false));
+
+		setupLaunch();
+		TestUtils.runClasses(TwoMethodsCachedTest.class);
+
+		assertThat(CALLS, hasItems("start first()", "start second()"));
+		assertThat(ResultCache.getShared().isUnchanged(TwoMethodsCachedTest.class), equalTo(true));
+	}
+
+	@Test
+	public void verify_class_is_not_cached_when_its_tests_are_skipped_by_fail_fast() {
+		System.setProperty("failFastAfter", "1");
+
+		TestUtils.runClasses(FailingCachedTest.class, TwoMethodsCachedTest.class);
+
+		assertThat(CALLS, not(hasItem("start first()")));
+		assertThat(ResultCache.getShared().isUnchanged(TwoMethodsCachedTest.class), equalTo(false));
+	}
+}
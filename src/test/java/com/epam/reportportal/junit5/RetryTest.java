@@ -16,9 +16,12 @@
 
 package com.epam.reportportal.junit5;
 
+import com.epam.reportportal.junit5.features.retry.FlakyRepeatedTest;
+import com.epam.reportportal.junit5.features.retry.RetriedThenFollowingTest;
 import com.epam.reportportal.junit5.features.retry.RetryThreeTimesTest;
 import com.epam.reportportal.junit5.util.TestUtils;
 import com.epam.reportportal.service.Launch;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
 import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
 import io.reactivex.Maybe;
 import org.junit.jupiter.api.Assertions;
@@ -27,10 +30,15 @@ import org.junit.jupiter.api.extension.ExtensionContext;
 import org.mockito.ArgumentCaptor;
 import org.mockito.stubbing.Answer;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -58,6 +66,90 @@ public class RetryTest {
 		retriedSteps.stream().map(StartTestItemRQ::isRetry).forEach(Assertions::assertTrue);
 	}
 
+	@Test
+	void verify_only_final_attempt_is_reported_with_summary_of_earlier_ones() {
+		System.setProperty("reportFinalAttemptOnly", Boolean.TRUE.toString());
+		FlakyRepeatedTest.ATTEMPTS.set(0);
+		FinalAttemptExtension.LAUNCH = mock(Launch.class);
+		when(FinalAttemptExtension.LAUNCH.startTestItem(any())).thenAnswer((Answer<Maybe<String>>) invocation -> TestUtils.createMaybeUuid());
+		when(FinalAttemptExtension.LAUNCH.startTestItem(any(), any())).thenAnswer((Answer<Maybe<String>>) invocation -> TestUtils.createMaybeUuid());
+		try {
+			TestUtils.runClasses(FlakyRepeatedTest.class);
+		} finally {
+			System.clearProperty("reportFinalAttemptOnly");
+		}
+
+		Launch launch = FinalAttemptExtension.LAUNCH;
+		ArgumentCaptor<StartTestItemRQ> startCaptor = ArgumentCaptor.forClass(StartTestItemRQ.class);
+		verify(launch, times(2)).startTestItem(notNull(), startCaptor.capture()); // Start a template and the final attempt
+
+		StartTestItemRQ finalAttempt = startCaptor.getAllValues().get(1);
+		assertFalse(finalAttempt.isRetry());
+		assertThat(finalAttempt.getDescription(), allOf(containsString("Attempt 1: FAILED"), containsString("Attempt 2: FAILED")));
+
+		ArgumentCaptor<FinishTestItemRQ> finishCaptor = ArgumentCaptor.forClass(FinishTestItemRQ.class);
+		verify(launch, times(3)).finishTestItem(notNull(), finishCaptor.capture());
+		assertEquals("PASSED", finishCaptor.getAllValues().get(0).getStatus());
+		// JUnit fails a repeated test with failed repetitions, so the template and the class stay failed
+		assertEquals("FAILED", finishCaptor.getAllValues().get(1).getStatus());
+		assertEquals("FAILED", finishCaptor.getAllValues().get(2).getStatus());
+	}
+
+	private static boolean runRetriedThenFollowing(int passedFromAttempt, int failFastAfter) {
+		System.setProperty("reportFinalAttemptOnly", Boolean.TRUE.toString());
+		System.setProperty("failFastAfter", String.valueOf(failFastAfter));
+		RetriedThenFollowingTest.ATTEMPTS.set(0);
+		RetriedThenFollowingTest.FOLLOWING_RUN.set(false);
+		RetriedThenFollowingTest.passedFromAttempt = passedFromAttempt;
+		FinalAttemptExtension.LAUNCH_ID = UUID.randomUUID().toString();
+		FinalAttemptExtension.LAUNCH = mock(Launch.class);
+		when(FinalAttemptExtension.LAUNCH.startTestItem(any())).thenAnswer((Answer<Maybe<String>>) invocation -> TestUtils.createMaybeUuid());
+		when(FinalAttemptExtension.LAUNCH.startTestItem(any(), any())).thenAnswer((Answer<Maybe<String>>) invocation -> TestUtils.createMaybeUuid());
+		try {
+			TestUtils.runClasses(RetriedThenFollowingTest.class);
+		} finally {
+			System.clearProperty("reportFinalAttemptOnly");
+			System.clearProperty("failFastAfter");
+		}
+		return RetriedThenFollowingTest.FOLLOWING_RUN.get();
+	}
+
+	@Test
+	void verify_failed_attempts_count_towards_failure_budget_without_skipping_retries() {
+		assertFalse(runRetriedThenFollowing(Integer.MAX_VALUE, 1));
+		assertEquals(3, RetriedThenFollowingTest.ATTEMPTS.get());
+		assertFalse(runRetriedThenFollowing(3, 1));
+	}
+
+	@Test
+	void verify_retried_test_counts_towards_failure_budget_once() {
+		assertTrue(runRetriedThenFollowing(Integer.MAX_VALUE, 2));
+	}
+
+	@Test
+	void verify_annotation_retry_detector_matches_annotations_by_name() throws NoSuchMethodException {
+		ExtensionContext context = mock(ExtensionContext.class);
+		when(context.getTestMethod()).thenReturn(Optional.of(RetryThreeTimesTest.class.getDeclaredMethod("test")));
+
+		assertTrue(new AnnotationRetryDetector().isRetry(context));
+		assertFalse(new AnnotationRetryDetector(Collections.singleton("org.junitpioneer.jupiter.RetryingTest")).isRetry(context));
+	}
+
+	public static class FinalAttemptExtension extends ReportPortalExtension {
+		static Launch LAUNCH;
+		static String LAUNCH_ID = UUID.randomUUID().toString();
+
+		@Override
+		String getLaunchId(ExtensionContext context) {
+			return LAUNCH_ID;
+		}
+
+		@Override
+		protected Launch getLaunch(ExtensionContext context) {
+			return LAUNCH;
+		}
+	}
+
 	public static class RetryTestExtension extends ReportPortalExtension {
 		static final Launch LAUNCH;
 
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5;
+
+import com.epam.reportportal.junit5.distribution.SharedLaunch;
+import com.epam.reportportal.junit5.features.shared.ReportedIntoSharedLaunchTest;
+import com.epam.reportportal.junit5.util.TestUtils;
+import com.epam.reportportal.listeners.ListenerParameters;
+import com.epam.reportportal.service.Launch;
+import com.epam.reportportal.service.ReportPortal;
+import com.epam.ta.reportportal.ws.model.FinishExecutionRQ;
+import com.epam.ta.reportportal.ws.model.attribute.ItemAttributesRQ;
+import com.epam.ta.reportportal.ws.model.launch.StartLaunchRQ;
+import io.reactivex.Maybe;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.mockito.ArgumentCaptor;
+import org.mockito.stubbing.Answer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class SharedLaunchTest {
+
+	public static class SharedLaunchExtension extends ReportPortalExtension {
+		static ReportPortal REPORT_PORTAL;
+		static String LAUNCH_ID;
+
+		@Override
+		ReportPortal getReporter() {
+			return REPORT_PORTAL;
+		}
+
+		@Override
+		String getLaunchId(ExtensionContext context) {
+			return LAUNCH_ID;
+		}
+	}
+
+	private final String launchUuid = UUID.randomUUID().toString();
+	private ReportPortal reportPortal;
+	private Launch launch;
+
+	@BeforeEach
+	public void setupMock() {
+		launch = mock(Launch.class);
+		when(launch.start()).thenReturn(Maybe.just(launchUuid));
+		when(launch.startTestItem(any())).thenAnswer((Answer<Maybe<String>>) invocation -> TestUtils.createMaybeUuid());
+		when(launch.startTestItem(any(), any())).thenAnswer((Answer<Maybe<String>>) invocation -> TestUtils.createMaybeUuid());
+		ListenerParameters params = new ListenerParameters();
+		params.setLaunchName("shared");
+		reportPortal = mock(ReportPortal.class);
+		when(reportPortal.getParameters()).thenReturn(params);
+		when(reportPortal.newLaunch(any())).thenReturn(launch);
+		when(reportPortal.withLaunch(any())).thenReturn(launch);
+		SharedLaunchExtension.REPORT_PORTAL = reportPortal;
+		SharedLaunchExtension.LAUNCH_ID = UUID.randomUUID().toString();
+	}
+
+	@AfterEach
+	public void cleanProperty() {
+		System.clearProperty(ReportPortalExtension.SHARED_LAUNCH_UUID_PROPERTY);
+	}
+
+	@Test
+	public void verify_shards_report_into_shared_launch_without_starting_or_finishing_it() {
+		System.setProperty(ReportPortalExtension.SHARED_LAUNCH_UUID_PROPERTY, launchUuid);
+
+		TestUtils.runClasses(ReportedIntoSharedLaunchTest.class);
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<Maybe<String>> captor = ArgumentCaptor.forClass(Maybe.class);
+		verify(reportPortal).withLaunch(captor.capture());
+		assertThat(captor.getValue().blockingGet(), equalTo(launchUuid));
+		verify(reportPortal, never()).newLaunch(any());
+		verify(launch, times(2)).finishTestItem(any(), any());
+		verify(launch, never()).finish(any());
+	}
+
+	@Test
+	public void verify_shared_launch_is_started_with_given_uuid_and_system_attributes() {
+		assertThat(SharedLaunch.start(reportPortal, launchUuid), equalTo(launchUuid));
+
+		ArgumentCaptor<StartLaunchRQ> captor = ArgumentCaptor.forClass(StartLaunchRQ.class);
+		verify(reportPortal).newLaunch(captor.capture());
+		StartLaunchRQ rq = captor.getValue();
+		assertThat(rq.getUuid(), equalTo(launchUuid));
+		assertThat(rq.getName(), equalTo("shared"));
+		assertThat(rq.getAttributes(), hasItem(both(hasProperty("key", equalTo("skippedIssue"))).and(hasProperty("system", equalTo(true)))));
+		assertThat(rq.getAttributes().stream().filter(ItemAttributesRQ::isSystem).count(), greaterThan(1L));
+	}
+
+	@Test
+	public void verify_shared_launch_is_finished_by_uuid() {
+		SharedLaunch.finish(reportPortal, launchUuid);
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<Maybe<String>> captor = ArgumentCaptor.forClass(Maybe.class);
+		verify(reportPortal).withLaunch(captor.capture());
+		assertThat(captor.getValue().blockingGet(), equalTo(launchUuid));
+		verify(launch).finish(any(FinishExecutionRQ.class));
+	}
+
+	@Test
+	public void verify_shared_launch_is_finished_by_last_shard_once() throws IOException {
+		Path counter = Files.createTempDirectory("shards").resolve("shards.txt");
+		String otherLaunch = UUID.randomUUID().toString();
+
+		assertThat(SharedLaunch.finishShard(reportPortal, launchUuid, counter, 1, 3), equalTo(false));
+		assertThat(SharedLaunch.finishShard(reportPortal, otherLaunch, counter, 0, 3), equalTo(false));
+		assertThat(SharedLaunch.finishShard(reportPortal, launchUuid, counter, 1, 3), equalTo(false));
+		assertThat(SharedLaunch.finishShard(reportPortal, launchUuid, counter, 0, 3), equalTo(false));
+		verify(launch, never()).finish(any());
+
+		assertThat(SharedLaunch.finishShard(reportPortal, launchUuid, counter, 2, 3), equalTo(true));
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<Maybe<String>> captor = ArgumentCaptor.forClass(Maybe.class);
+		verify(reportPortal).withLaunch(captor.capture());
+		assertThat(captor.getValue().blockingGet(), equalTo(launchUuid));
+		verify(launch).finish(any(FinishExecutionRQ.class));
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.cache;
+
+import com.epam.reportportal.junit5.features.cache.CachedHelper;
+import com.epam.reportportal.junit5.features.cache.CachedTest;
+import com.epam.reportportal.junit5.features.cache.LoadedByNameTest;
+import com.epam.reportportal.junit5.features.cache.NamedHelper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ClassHashesTest {
+
+	private static byte[] bytecode(Class<?> type) throws IOException {
+		try (InputStream in = type.getResourceAsStream(type.getSimpleName() + ".class")) {
+			byte[] buffer = new byte[64 * 1024];
+			int length = 0;
+			int read;
+			while ((read = in.read(buffer, length, buffer.length - length)) > 0) {
+				length += read;
+			}
+			byte[] result = new byte[length];
+			System.arraycopy(buffer, 0, result, 0, length);
+			return result;
+		}
+	}
+
+	@Test
+	public void verify_constant_pool_references_are_read() throws IOException {
+		Set<String> references = ClassHashes.references(bytecode(CachedTest.class));
+
+		assertThat(references, hasItems("com/epam/reportportal/junit5/features/cache/CachedHelper", "org/junit/jupiter/api/Test"));
+	}
+
+	/**
+	 * @return a loader which does not find the given class
+	 */
+	private static ClassLoader hiding(Class<?> hidden) {
+		return new ClassLoader(ClassHashesTest.class.getClassLoader()) {
+			@Override
+			public URL getResource(String name) {
+				return name.equals(hidden.getName().replace('.', '/') + ".class") ? null : super.getResource(name);
+			}
+		};
+	}
+
+	@Test
+	public void verify_hash_is_stable_and_depends_on_dependencies() throws IOException {
+		String hash = ClassHashes.hash(CachedTest.class).orElseThrow(IllegalStateException::new);
+
+		assertThat(ClassHashes.hash(CachedTest.class), equalTo(Optional.of(hash)));
+		assertThat(ClassHashes.hash(CachedHelper.class), not(equalTo(Optional.of(hash))));
+		assertThat(hash.length(), equalTo(64));
+	}
+
+	@Test
+	public void verify_class_with_unresolved_reference_is_not_hashed() throws IOException {
+		assertThat(ClassHashes.hash(CachedTest.class.getName(), hiding(CachedHelper.class)), equalTo(Optional.empty()));
+	}
+
+	@Test
+	public void verify_classes_loaded_by_name_are_hashed() throws IOException {
+		assertThat(ClassHashes.namedClasses(bytecode(LoadedByNameTest.class)), hasItem("com/epam/reportportal/junit5/features/cache/NamedHelper"));
+
+		Optional<String> hash = ClassHashes.hash(LoadedByNameTest.class);
+		Optional<String> withoutHelper = ClassHashes.hash(LoadedByNameTest.class.getName(), hiding(NamedHelper.class));
+
+		assertThat(hash.isPresent(), equalTo(true));
+		assertThat(withoutHelper.isPresent(), equalTo(true));
+		assertThat(hash, not(equalTo(withoutHelper)));
+	}
+
+	@Test
+	public void verify_classes_are_read_once_per_loader() throws IOException {
+		List<String> reads = new CopyOnWriteArrayList<>();
+		ClassLoader loader = new ClassLoader(ClassHashesTest.class.getClassLoader()) {
+			@Override
+			public URL getResource(String name) {
+				reads.add(name);
+				return super.getResource(name);
+			}
+		};
+
+		Optional<String> hash = ClassHashes.hash(CachedTest.class.getName(), loader);
+		assertThat(reads, hasItem(CachedHelper.class.getName().replace('.', '/') + ".class"));
+		reads.clear();
+		Optional<String> helperHash = ClassHashes.hash(CachedHelper.class.getName(), loader);
+
+		assertThat(reads, empty());
+		assertThat(hash, equalTo(ClassHashes.hash(CachedTest.class)));
+		assertThat(helperHash, equalTo(ClassHashes.hash(CachedHelper.class)));
+	}
+}
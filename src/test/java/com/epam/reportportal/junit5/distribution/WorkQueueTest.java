@@ -0,0 +1,172 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.distribution;
+
+import com.epam.reportportal.junit5.Status;
+import com.epam.reportportal.junit5.history.LaunchHistory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.platform.engine.UniqueId;
+
+import java.io.BufferedReader;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class WorkQueueTest {
+
+	private static List<String> takeAll(int port) throws Exception {
+		List<String> taken = new ArrayList<>();
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+				BufferedReader reader = WorkQueue.reader(socket);
+				Writer writer = WorkQueue.writer(socket)) {
+			Optional<String> next;
+			while ((next = WorkQueue.take(reader, writer)).isPresent()) {
+				taken.add(next.get());
+			}
+		}
+		return taken;
+	}
+
+	private static String classId(String className) {
+		return UniqueId.forEngine("junit-jupiter").append("class", className).toString();
+	}
+
+	/**
+	 * Takes a class and disconnects before it is done, like a crashed worker.
+	 */
+	private static String takeAndDrop(int port) throws Exception {
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+				BufferedReader reader = WorkQueue.reader(socket);
+				Writer writer = WorkQueue.writer(socket)) {
+			return WorkQueue.take(reader, writer).orElseThrow(AssertionError::new);
+		}
+	}
+
+	@Test
+	public void verify_each_class_is_handed_out_once_to_concurrent_workers() throws Exception {
+		List<String> classes = IntStream.range(0, 100).mapToObj(i -> "test.Class" + i).collect(Collectors.toList());
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try (WorkQueue queue = new WorkQueue(classes)) {
+			int port = queue.start();
+			List<Future<List<String>>> workers = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				workers.add(executor.submit(() -> takeAll(port)));
+			}
+			List<String> taken = new ArrayList<>();
+			for (Future<List<String>> worker : workers) {
+				taken.addAll(worker.get(10, TimeUnit.SECONDS));
+			}
+
+			assertThat(taken, hasSize(classes.size()));
+			assertThat(taken, containsInAnyOrder(classes.toArray()));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void verify_classes_without_history_go_first_then_longest(@TempDir Path dir) {
+		Path file = dir.resolve("history.txt");
+		String vintage = UniqueId.forEngine("junit-vintage").append("runner", "a.Vintage").toString();
+		Map<String, LaunchHistory.Record> results = new HashMap<>();
+		results.put(classId("a.Short"), new LaunchHistory.Record(Status.PASSED, 10));
+		results.put(classId("a.Long"), new LaunchHistory.Record(Status.PASSED, 1000));
+		results.put(vintage, new LaunchHistory.Record(Status.PASSED, 100));
+		LaunchHistory.update(file, results);
+
+		List<String> order = Coordinator.order(Arrays.asList(classId("a.Short"), vintage, classId("a.New"), classId("a.Long")),
+				LaunchHistory.load(file)
+		);
+
+		assertThat(order, contains(classId("a.New"), classId("a.Long"), vintage, classId("a.Short")));
+	}
+
+	@Test
+	public void verify_on_demand_workers_finish_earlier_than_static_forks(@TempDir Path dir) throws Exception {
+		Map<String, Long> durations = new LinkedHashMap<>();
+		durations.put(classId("a.Long"), 800L);
+		IntStream.range(0, 8).forEach(i -> durations.put(classId("a.Short" + i), 100L));
+		Path file = dir.resolve("history.txt");
+		Map<String, LaunchHistory.Record> results = new HashMap<>();
+		durations.forEach((c, d) -> results.put(c, new LaunchHistory.Record(Status.PASSED, d)));
+		LaunchHistory.update(file, results);
+		List<String> classes = new ArrayList<>(durations.keySet());
+
+		// static forks get a fixed part of the classes in discovery order before they start, like forks of build tools do
+		long[] forks = new long[2];
+		IntStream.range(0, classes.size()).forEach(c -> forks[c % 2] += durations.get(classes.get(c)));
+		long staticTime = Math.max(forks[0], forks[1]);
+
+		// on-demand workers are simulated on a virtual clock: the worker which is free first takes the next class
+		List<List<String>> assigned = Arrays.asList(new ArrayList<>(), new ArrayList<>());
+		long[] busyUntil = new long[2];
+		boolean[] done = new boolean[2];
+		try (WorkQueue queue = new WorkQueue(Coordinator.order(classes, LaunchHistory.load(file)));
+				Socket first = new Socket(InetAddress.getLoopbackAddress(), queue.start());
+				Socket second = new Socket(InetAddress.getLoopbackAddress(), first.getPort())) {
+			List<BufferedReader> readers = Arrays.asList(WorkQueue.reader(first), WorkQueue.reader(second));
+			List<Writer> writers = Arrays.asList(WorkQueue.writer(first), WorkQueue.writer(second));
+			while (!done[0] || !done[1]) {
+				int worker = done[0] || (!done[1] && busyUntil[1] < busyUntil[0]) ? 1 : 0;
+				Optional<String> next = WorkQueue.take(readers.get(worker), writers.get(worker));
+				if (next.isPresent()) {
+					assigned.get(worker).add(next.get());
+					busyUntil[worker] += durations.get(next.get());
+				} else {
+					done[worker] = true;
+				}
+			}
+		}
+		long onDemandTime = Math.max(busyUntil[0], busyUntil[1]);
+
+		assertThat(assigned.get(0), contains(classId("a.Long")));
+		assertThat(assigned.get(1), containsInAnyOrder(classes.subList(1, classes.size()).toArray()));
+		assertThat(staticTime, equalTo(1200L));
+		assertThat(onDemandTime, equalTo(800L));
+	}
+
+	@Test
+	public void verify_class_of_disconnected_worker_is_handed_out_again_once() throws Exception {
+		try (WorkQueue queue = new WorkQueue(Arrays.asList(classId("a.First"), classId("a.Second")))) {
+			int port = queue.start();
+
+			assertThat(takeAndDrop(port), equalTo(classId("a.First")));
+			queue.awaitDisconnected();
+			assertThat(queue.size(), equalTo(2));
+			assertThat(takeAndDrop(port), equalTo(classId("a.Second")));
+			queue.awaitDisconnected();
+			assertThat(takeAndDrop(port), equalTo(classId("a.First")));
+			queue.awaitDisconnected();
+
+			assertThat(takeAll(port), contains(classId("a.Second")));
+			assertThat(takeAll(port), empty());
+			assertThat(queue.getHandedOut(), equalTo(4));
+		}
+	}
+}
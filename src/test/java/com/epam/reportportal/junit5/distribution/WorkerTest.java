@@ -0,0 +1,98 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.distribution;
+
+import com.epam.reportportal.junit5.ReportPortalExtension;
+import com.epam.reportportal.junit5.features.distribution.FailingDistributedTest;
+import com.epam.reportportal.junit5.features.distribution.FirstDistributedTest;
+import com.epam.reportportal.junit5.features.distribution.SecondDistributedTest;
+import com.epam.reportportal.junit5.util.TestUtils;
+import com.epam.reportportal.service.Launch;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import io.reactivex.Maybe;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.launcher.core.LauncherConfig;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.mockito.ArgumentCaptor;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class WorkerTest {
+
+	public static class WorkerExtension extends ReportPortalExtension {
+		static Launch LAUNCH;
+
+		@Override
+		protected Launch getLaunch(ExtensionContext context) {
+			return LAUNCH;
+		}
+	}
+
+	@BeforeEach
+	public void setupMock() {
+		WorkerExtension.LAUNCH = mock(Launch.class);
+		when(WorkerExtension.LAUNCH.startTestItem(any())).thenAnswer((Answer<Maybe<String>>) invocation -> TestUtils.createMaybeUuid());
+		when(WorkerExtension.LAUNCH.startTestItem(any(), any())).thenAnswer((Answer<Maybe<String>>) invocation -> TestUtils.createMaybeUuid());
+	}
+
+	@Test
+	public void verify_workers_run_each_class_from_coordinator_once_and_count_failures() throws Exception {
+		List<String> classes = Stream.of(FirstDistributedTest.class, FailingDistributedTest.class, SecondDistributedTest.class)
+				.map(c -> UniqueId.forEngine("junit-jupiter").append("class", c.getName()).toString())
+				.collect(Collectors.toList());
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try (WorkQueue queue = new WorkQueue(classes)) {
+			int port = queue.start();
+			LauncherConfig config = LauncherConfig.builder().enableTestExecutionListenerAutoRegistration(false).build();
+			List<Future<Long>> workers = new ArrayList<>();
+			for (int i = 0; i < 2; i++) {
+				workers.add(executor.submit(() -> Worker.run(port, LauncherFactory.create(config))));
+			}
+			long failures = 0;
+			for (Future<Long> worker : workers) {
+				failures += worker.get(30, TimeUnit.SECONDS);
+			}
+
+			assertThat(failures, equalTo(1L));
+		} finally {
+			executor.shutdownNow();
+		}
+
+		ArgumentCaptor<StartTestItemRQ> captor = ArgumentCaptor.forClass(StartTestItemRQ.class);
+		verify(WorkerExtension.LAUNCH, times(3)).startTestItem(captor.capture());
+		assertThat(captor.getAllValues().stream().map(StartTestItemRQ::getName).collect(Collectors.toList()),
+				containsInAnyOrder("FirstDistributedTest", "FailingDistributedTest", "SecondDistributedTest")
+		);
+		verify(WorkerExtension.LAUNCH, times(3)).startTestItem(any(), any());
+	}
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.features.aggregation;
+
+import com.epam.reportportal.junit5.AggregateInvocations;
+import com.epam.reportportal.junit5.AggregatedInvocationsTest;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@ExtendWith(AggregatedInvocationsTest.AggregationExtension.class)
+public class AggregatedParameterizedTest {
+
+	public static final int FAILED_VALUE = 7;
+	public static final int SKIPPED_VALUE = 9;
+
+	@ParameterizedTest
+	@AggregateInvocations(3)
+	@ValueSource(ints = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 })
+	public void test(int value) {
+		assumeTrue(value != SKIPPED_VALUE);
+		assertNotEquals(FAILED_VALUE, value);
+	}
+}
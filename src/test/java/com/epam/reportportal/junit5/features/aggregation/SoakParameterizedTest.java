@@ -0,0 +1,70 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.features.aggregation;
+
+import com.epam.reportportal.junit5.AggregateInvocations;
+import com.epam.reportportal.junit5.AggregatedInvocationsTest;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+@ExtendWith(AggregatedInvocationsTest.AggregationExtension.class)
+public class SoakParameterizedTest {
+
+	public static final int ROWS = 10000;
+	public static final int REPORTED = 10;
+	public static final int FAILED_EVERY = 1000;
+	public static final List<WeakReference<Row>> ROW_REFERENCES = new CopyOnWriteArrayList<>();
+
+	public static class Row {
+		private final int index;
+		// a user fixture which the agent should not keep reachable
+		private final byte[] payload = new byte[1024];
+
+		Row(int index) {
+			this.index = index;
+		}
+
+		@Override
+		public String toString() {
+			return "row " + index;
+		}
+	}
+
+	static Stream<Row> rows() {
+		return IntStream.range(0, ROWS).mapToObj(i -> {
+			Row row = new Row(i);
+			ROW_REFERENCES.add(new WeakReference<>(row));
+			return row;
+		});
+	}
+
+	@ParameterizedTest
+	@AggregateInvocations(REPORTED)
+	@MethodSource("rows")
+	public void test(Row row) {
+		assertNotEquals(FAILED_EVERY - 1, row.index % FAILED_EVERY);
+	}
+}
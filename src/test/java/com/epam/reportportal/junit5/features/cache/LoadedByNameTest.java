@@ -0,0 +1,33 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.features.cache;
+
+import com.epam.reportportal.junit5.ResultCacheTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith(ResultCacheTest.CacheExtension.class)
+public class LoadedByNameTest {
+
+	@Test
+	public void test() throws Exception {
+		Class<?> helper = Class.forName("com.epam.reportportal.junit5.features.cache.NamedHelper");
+		assertEquals(4, helper.getMethod("twice", int.class).invoke(null, 2));
+	}
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.features.coderef;
+
+import com.epam.reportportal.junit5.CodeReferenceTest;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.DynamicContainer.dynamicContainer;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+@ExtendWith(CodeReferenceTest.CodeReferenceTestExtension.class)
+public class NestedDynamicContainerTest {
+
+	@TestFactory
+	Stream<DynamicNode> testForTestFactory() {
+		return Stream.of(dynamicContainer("outer",
+				Stream.of(dynamicContainer("inner", Stream.of(dynamicTest("leaf", () -> {
+				}))), dynamicTest("sibling", () -> {
+				}))
+		));
+	}
+}
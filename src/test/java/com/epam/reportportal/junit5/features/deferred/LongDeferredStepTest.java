@@ -0,0 +1,36 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.features.deferred;
+
+import com.epam.reportportal.junit5.DeferredStartTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.concurrent.TimeUnit;
+
+@ExtendWith(DeferredStartTest.DeferredStartExtension.class)
+public class LongDeferredStepTest {
+
+	@Test
+	public void test() throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (DeferredStartTest.DeferredStartExtension.STARTS.get() < 2 && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		DeferredStartTest.DeferredStartExtension.STARTS_SENT_IN_TEST_BODY.set(DeferredStartTest.DeferredStartExtension.STARTS.get());
+	}
+}
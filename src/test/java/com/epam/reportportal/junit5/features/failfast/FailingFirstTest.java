@@ -0,0 +1,48 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.features.failfast;
+
+import com.epam.reportportal.junit5.FailFastTest;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+@ExtendWith(FailFastTest.FailFastExtension.class)
+@TestMethodOrder(MethodOrderer.Alphanumeric.class)
+public class FailingFirstTest {
+
+	@Test
+	public void failFirst() {
+		fail("First failure");
+	}
+
+	@Test
+	public void failSecond() {
+		fail("Second failure");
+	}
+
+	@Test
+	public void passFirst() {
+	}
+
+	@Test
+	public void passSecond() {
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.features.footprint;
+
+import com.epam.reportportal.junit5.HeapFootprintTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+@ExtendWith(HeapFootprintTest.FootprintExtension.class)
+public class SyntheticSuiteTest {
+
+	public static final int INVOCATIONS = 2000;
+
+	public static final int TESTS = INVOCATIONS * 3;
+
+	static IntStream rows() {
+		return IntStream.range(0, INVOCATIONS);
+	}
+
+	@BeforeEach
+	public void setUp() {
+	}
+
+	@ParameterizedTest
+	@MethodSource("rows")
+	public void parameterizedTest(int row) {
+	}
+
+	@RepeatedTest(INVOCATIONS)
+	public void repeatedTest() {
+	}
+
+	@TestFactory
+	public Stream<DynamicTest> dynamicTests() {
+		return rows().mapToObj(i -> dynamicTest("Dynamic test " + i, () -> {
+		}));
+	}
+}
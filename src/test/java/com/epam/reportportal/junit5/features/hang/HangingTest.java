@@ -0,0 +1,51 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.features.hang;
+
+import com.epam.reportportal.junit5.HangWatchdogTest;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.concurrent.TimeUnit;
+
+@ExtendWith(HangWatchdogTest.HangWatchdogExtension.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class HangingTest {
+
+	@Test
+	@Order(1)
+	public void sleeping() throws InterruptedException {
+		Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+	}
+
+	@Test
+	@Order(2)
+	public void ignoringInterruption() {
+		long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+		while (System.nanoTime() < end) {
+			Thread.yield();
+		}
+	}
+
+	@Test
+	@Order(3)
+	public void fast() {
+	}
+}
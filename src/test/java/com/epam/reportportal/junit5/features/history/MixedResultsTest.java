@@ -0,0 +1,43 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.features.history;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+public class MixedResultsTest {
+
+	@Test
+	public void passing() {
+	}
+
+	@Test
+	public void failing() {
+		fail("Failing test");
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = { 1, 2 })
+	public void partiallyFailing(int value) {
+		if (value == 2) {
+			fail("Failing invocation");
+		}
+	}
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.features.jfr;
+
+import com.epam.reportportal.junit5.FlightRecordingTest;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(FlightRecordingTest.FlightRecordingExtension.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class SlowAndFastTest {
+
+	@Test
+	@Order(1)
+	public void slow() throws InterruptedException {
+		Thread.sleep(500);
+	}
+
+	@Test
+	@Order(2)
+	public void fast() {
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.features.quarantine;
+
+import com.epam.reportportal.junit5.QuarantineTest;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+@ExtendWith(QuarantineTest.QuarantineExtension.class)
+@TestMethodOrder(MethodOrderer.Alphanumeric.class)
+public class FlakyTest {
+
+	public static final AtomicInteger FLAKY_CALLS = new AtomicInteger();
+	public static final AtomicInteger FAILING_CALLS = new AtomicInteger();
+	public static final AtomicInteger BEFORE_EACH_CALLS = new AtomicInteger();
+	public static final AtomicInteger BEFORE_ALL_CALLS = new AtomicInteger();
+
+	@BeforeAll
+	public static void setUpClass() {
+		BEFORE_ALL_CALLS.incrementAndGet();
+	}
+
+	@BeforeEach
+	public void setUp() {
+		BEFORE_EACH_CALLS.incrementAndGet();
+	}
+
+	@Test
+	public void failing() {
+		FAILING_CALLS.incrementAndGet();
+		fail("Always fails");
+	}
+
+	@Test
+	public void flaky() {
+		if (FLAKY_CALLS.incrementAndGet() == 1) {
+			fail("Fails on the first attempt");
+		}
+	}
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.features.resources;
+
+import com.epam.reportportal.junit5.ResourceUsageTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(ResourceUsageTest.ResourceUsageExtension.class)
+public class AllocatingTest {
+
+	public static volatile byte[] buffer;
+
+	@BeforeEach
+	public void beforeEach() {
+		buffer = new byte[1024 * 1024];
+	}
+
+	@AfterEach
+	public void afterEach() {
+		buffer = new byte[4 * 1024 * 1024];
+	}
+
+	@Test
+	public void first() {
+		buffer = new byte[2 * 1024 * 1024];
+	}
+
+	@Test
+	public void second() {
+		buffer = new byte[2 * 1024 * 1024];
+	}
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.features.retry;
+
+import com.epam.reportportal.junit5.RetryTest;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(RetryTest.FinalAttemptExtension.class)
+public class FlakyRepeatedTest {
+
+	public static final AtomicInteger ATTEMPTS = new AtomicInteger();
+
+	@RepeatedTest(3)
+	void test() {
+		assertTrue(ATTEMPTS.incrementAndGet() > 2, "Flaky failure");
+	}
+}
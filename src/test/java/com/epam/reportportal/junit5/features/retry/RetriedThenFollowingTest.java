@@ -0,0 +1,51 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.features.retry;
+
+import com.epam.reportportal.junit5.RetryTest;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(RetryTest.FinalAttemptExtension.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class RetriedThenFollowingTest {
+
+	public static final AtomicInteger ATTEMPTS = new AtomicInteger();
+	public static final AtomicBoolean FOLLOWING_RUN = new AtomicBoolean();
+	public static volatile int passedFromAttempt;
+
+	@Order(1)
+	@RepeatedTest(3)
+	void retried() {
+		assertTrue(ATTEMPTS.incrementAndGet() >= passedFromAttempt, "Retried failure");
+	}
+
+	@Order(2)
+	@Test
+	void following() {
+		FOLLOWING_RUN.set(true);
+	}
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.features.stream;
+
+import com.epam.reportportal.junit5.DynamicStreamTest;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.DynamicContainer.dynamicContainer;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+@ExtendWith(DynamicStreamTest.StreamExtension.class)
+public class SoakStreamedDynamicTest {
+
+	public static final int CONTAINERS = 50;
+	public static final int INNER_CONTAINERS = 4;
+	public static final int TESTS = 50;
+
+	@TestFactory
+	Stream<DynamicNode> testFactory() {
+		return IntStream.range(0, CONTAINERS)
+				.mapToObj(c -> dynamicContainer("container " + c,
+						IntStream.range(0, INNER_CONTAINERS)
+								.mapToObj(i -> dynamicContainer("inner " + i, IntStream.range(0, TESTS).mapToObj(t -> dynamicTest("test " + t, () -> {
+								}))))
+				));
+	}
+}
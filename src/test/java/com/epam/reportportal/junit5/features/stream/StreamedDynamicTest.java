@@ -0,0 +1,47 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.features.stream;
+
+import com.epam.reportportal.junit5.DynamicStreamTest;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.DynamicContainer.dynamicContainer;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+@ExtendWith(DynamicStreamTest.StreamExtension.class)
+public class StreamedDynamicTest {
+
+	@TestFactory
+	Stream<DynamicNode> testFactory() {
+		return Stream.of(dynamicContainer("first",
+				Stream.concat(IntStream.range(0, 3).mapToObj(i -> dynamicTest("passed " + i, () -> {
+				})), Stream.of(dynamicTest("broken", () -> {
+					throw new IllegalStateException("Broken dynamic test");
+				})))
+				),
+				dynamicContainer("second",
+						Stream.of(dynamicContainer("inner", IntStream.range(0, 2).mapToObj(i -> dynamicTest("inner " + i, () -> {
+						}))))
+				)
+		);
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.history;
+
+import com.epam.reportportal.junit5.Status;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.OptionalDouble;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+
+public class HistoryParallelExecutionStrategyTest {
+
+	private static final String ROOT = "[engine:junit-jupiter]/[class:com.example.";
+
+	@Test
+	public void verify_utilization_is_calculated_for_top_level_classes_with_cpu_time() {
+		Map<String, LaunchHistory.Record> records = new HashMap<>();
+		records.put(ROOT + "IoTest]", new LaunchHistory.Record(Status.PASSED, 1000, 100));
+		records.put(ROOT + "CpuTest]", new LaunchHistory.Record(Status.PASSED, 1000, 900));
+		records.put(ROOT + "CpuTest]/[method:test()]", new LaunchHistory.Record(Status.PASSED, 1000, 900));
+		records.put(ROOT + "CpuTest]/[nested-class:Inner]", new LaunchHistory.Record(Status.PASSED, 500, 500));
+		records.put(ROOT + "UnknownTest]", new LaunchHistory.Record(Status.PASSED, 1000));
+
+		OptionalDouble utilization = new HistoryParallelExecutionStrategy(new LaunchHistory(records)).getCpuUtilization();
+
+		assertThat(utilization.getAsDouble(), closeTo(0.5, 0.001));
+	}
+
+	@Test
+	public void verify_parallelism_follows_cpu_utilization_within_max_factor() {
+		assertThat(HistoryParallelExecutionStrategy.getParallelism(8, OptionalDouble.empty(), 4), equalTo(8));
+		assertThat(HistoryParallelExecutionStrategy.getParallelism(8, OptionalDouble.of(1), 4), equalTo(8));
+		assertThat(HistoryParallelExecutionStrategy.getParallelism(8, OptionalDouble.of(0.5), 4), equalTo(16));
+		assertThat(HistoryParallelExecutionStrategy.getParallelism(8, OptionalDouble.of(0.01), 4), equalTo(32));
+		assertThat(HistoryParallelExecutionStrategy.getParallelism(1, OptionalDouble.of(4), 4), equalTo(1));
+	}
+
+	@Test
+	public void verify_class_cpu_time_is_capped_at_its_wall_time() {
+		Map<String, LaunchHistory.Record> records = new HashMap<>();
+		records.put(ROOT + "IoTest]", new LaunchHistory.Record(Status.PASSED, 1000, 0));
+		records.put(ROOT + "ParallelMethodsTest]", new LaunchHistory.Record(Status.PASSED, 1000, 4000));
+		records.put("[engine:junit-jupiter]/[unknown", new LaunchHistory.Record(Status.PASSED, 1000, 1000));
+
+		OptionalDouble utilization = new HistoryParallelExecutionStrategy(new LaunchHistory(records)).getCpuUtilization();
+
+		assertThat(utilization.getAsDouble(), closeTo(0.5, 0.001));
+	}
+
+	@Test
+	public void verify_max_pool_size_follows_the_most_io_bound_class() {
+		Map<String, LaunchHistory.Record> records = new HashMap<>();
+		records.put(ROOT + "IoTest]", new LaunchHistory.Record(Status.PASSED, 1000, 250));
+		records.put(ROOT + "CpuTest]", new LaunchHistory.Record(Status.PASSED, 3000, 2750));
+		HistoryParallelExecutionStrategy strategy = new HistoryParallelExecutionStrategy(new LaunchHistory(records));
+
+		assertThat(strategy.getMinCpuUtilization().getAsDouble(), closeTo(0.25, 0.001));
+		int parallelism = HistoryParallelExecutionStrategy.getParallelism(8, strategy.getCpuUtilization(), 4);
+		assertThat(parallelism, equalTo(11));
+		assertThat(HistoryParallelExecutionStrategy.getMaxPoolSize(8, parallelism, strategy.getMinCpuUtilization(), 4), equalTo(32));
+		assertThat(HistoryParallelExecutionStrategy.getMaxPoolSize(8, 8, OptionalDouble.empty(), 4), equalTo(8 + 256));
+		assertThat(HistoryParallelExecutionStrategy.getMaxPoolSize(8, 8, OptionalDouble.of(0.01), 2), equalTo(16));
+	}
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.history;
+
+import com.epam.reportportal.junit5.Status;
+import com.epam.reportportal.junit5.features.history.MixedResultsTest;
+import org.junit.jupiter.api.MethodDescriptor;
+import org.junit.jupiter.api.MethodOrdererContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.junit.platform.launcher.core.LauncherConfig;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class LaunchHistoryTest {
+
+	private static Launcher launcher() {
+		return LauncherFactory.create(LauncherConfig.builder().enableTestExecutionListenerAutoRegistration(false).build());
+	}
+
+	private static void record(Path file) {
+		LauncherDiscoveryRequest request = LauncherDiscoveryRequestBuilder.request().selectors(selectClass(MixedResultsTest.class)).build();
+		launcher().execute(request, new HistoryRecorder(file));
+	}
+
+	@Test
+	public void verify_invocation_keys_are_stripped_to_test_method() {
+		String method = "[engine:junit-jupiter]/[class:a.B]/[test-template:test(int)]";
+
+		assertThat(LaunchHistory.getKey(method + "/[test-template-invocation:#2]"), equalTo(method));
+		assertThat(LaunchHistory.getKey(method), equalTo(method));
+	}
+
+	@Test
+	public void verify_launch_results_are_recorded_and_merged(@TempDir Path dir) {
+		Path file = dir.resolve("history.txt");
+		LaunchHistory.update(file, Collections.singletonMap("[engine:junit-jupiter]/[class:other.Test]", new LaunchHistory.Record(Status.PASSED, 5)));
+
+		record(file);
+
+		LaunchHistory history = LaunchHistory.load(file);
+		String classId = "[engine:junit-jupiter]/[class:" + MixedResultsTest.class.getName() + "]";
+		assertThat(history.get(classId + "/[method:passing()]").map(LaunchHistory.Record::getStatus).orElse(null), equalTo(Status.PASSED));
+		assertThat(history.get(classId + "/[method:failing()]").map(LaunchHistory.Record::getStatus).orElse(null), equalTo(Status.FAILED));
+		assertThat(history.get(classId + "/[test-template:partiallyFailing(int)]/[test-template-invocation:#1]")
+				.map(LaunchHistory.Record::getStatus)
+				.orElse(null), equalTo(Status.FAILED));
+		assertThat(history.get(classId).isPresent(), equalTo(true));
+		assertThat(history.get("[engine:junit-jupiter]/[class:other.Test]").isPresent(), equalTo(true));
+	}
+
+	@Test
+	public void verify_rerun_filter_selects_only_failed_tests(@TempDir Path dir) {
+		Path file = dir.resolve("history.txt");
+		record(file);
+
+		LauncherDiscoveryRequest request = LauncherDiscoveryRequestBuilder.request()
+				.selectors(selectClass(MixedResultsTest.class))
+				.filters(new RerunFailedFilter(true, LaunchHistory.load(file)))
+				.build();
+		TestPlan plan = launcher().discover(request);
+
+		List<String> selected = plan.getRoots()
+				.stream()
+				.flatMap(root -> plan.getDescendants(root).stream())
+				.filter(TestIdentifier::isTest)
+				.map(TestIdentifier::getDisplayName)
+				.collect(Collectors.toList());
+		assertThat(selected, contains("failing()"));
+		assertThat(plan.containsTests(), equalTo(true));
+	}
+
+	@Test
+	public void verify_rerun_filter_keeps_everything_without_rerun_mode(@TempDir Path dir) {
+		Path file = dir.resolve("history.txt");
+		record(file);
+
+		LauncherDiscoveryRequest request = LauncherDiscoveryRequestBuilder.request()
+				.selectors(selectClass(MixedResultsTest.class))
+				.filters(new RerunFailedFilter(false, LaunchHistory.load(file)))
+				.build();
+		TestPlan plan = launcher().discover(request);
+
+		assertThat(plan.countTestIdentifiers(TestIdentifier::isTest), equalTo(2L));
+	}
+
+	@Test
+	public void verify_method_keys_do_not_depend_on_nesting_segments() throws NoSuchMethodException {
+		String uniqueId = "[engine:junit-jupiter]/[class:a.B]/[nested-class:C]/[method:test(java.lang.String, int)]";
+
+		assertThat(LaunchHistory.getMethodKey(uniqueId).orElse(null), equalTo("a.B$C#test(java.lang.String, int)"));
+		assertThat(LaunchHistory.getMethodKey(MixedResultsTest.class, MixedResultsTest.class.getMethod("partiallyFailing", int.class)),
+				equalTo(MixedResultsTest.class.getName() + "#partiallyFailing(int)")
+		);
+	}
+
+	@Test
+	public void verify_class_keys_do_not_depend_on_nesting_segments() {
+		assertThat(LaunchHistory.getClassKey("[engine:junit-jupiter]/[class:a.B]/[nested-class:C]").orElse(null), equalTo("a.B$C"));
+		assertThat(LaunchHistory.getClassKey("[engine:junit-jupiter]/[class:a.B]").orElse(null), equalTo("a.B"));
+		assertThat(LaunchHistory.getClassKey("[engine:junit-jupiter]/[class:a.B]/[method:test()]").isPresent(), equalTo(false));
+	}
+
+	@Test
+	public void verify_class_results_are_found_by_class(@TempDir Path dir) {
+		Path file = dir.resolve("history.txt");
+		record(file);
+
+		LaunchHistory history = LaunchHistory.load(file);
+		String classId = "[engine:junit-jupiter]/[class:" + MixedResultsTest.class.getName() + "]";
+		assertThat(history.get(MixedResultsTest.class).isPresent(), equalTo(true));
+		assertThat(history.get(MixedResultsTest.class), equalTo(history.get(classId)));
+		assertThat(history.get(LaunchHistoryTest.class).isPresent(), equalTo(false));
+	}
+
+	@Test
+	public void verify_failing_first_and_longest_first_orders(@TempDir Path dir) throws NoSuchMethodException {
+		Path file = dir.resolve("history.txt");
+		String classId = "[engine:junit-jupiter]/[class:" + MixedResultsTest.class.getName() + "]";
+		Map<String, LaunchHistory.Record> results = new HashMap<>();
+		results.put(classId + "/[method:passing()]", new LaunchHistory.Record(Status.PASSED, 30));
+		results.put(classId + "/[method:failing()]", new LaunchHistory.Record(Status.FAILED, 10));
+		results.put(classId + "/[test-template:partiallyFailing(int)]", new LaunchHistory.Record(Status.SKIPPED, 20));
+		LaunchHistory.update(file, results);
+		LaunchHistory history = LaunchHistory.load(file);
+
+		List<MethodDescriptor> descriptors = new ArrayList<>(Arrays.asList(descriptor("passing"),
+				descriptor("partiallyFailing", int.class),
+				descriptor("failing")
+		));
+		MethodOrdererContext context = mock(MethodOrdererContext.class);
+		when(context.getTestClass()).thenAnswer(invocation -> MixedResultsTest.class);
+		when(context.getMethodDescriptors()).thenAnswer(invocation -> descriptors);
+
+		new FailingFirstMethodOrderer(history).orderMethods(context);
+		assertThat(names(descriptors), contains("failing", "partiallyFailing", "passing"));
+
+		new LongestFirstMethodOrderer(history).orderMethods(context);
+		assertThat(names(descriptors), contains("passing", "partiallyFailing", "failing"));
+	}
+
+	@Test
+	public void verify_trails_are_kept_across_launches(@TempDir Path dir) throws IOException {
+		Path file = dir.resolve("history.txt");
+		Files.write(file, Collections.singletonList("FAILED\t10\t[engine:junit-jupiter]/[class:a.B]/[method:test()]"));
+		String key = "[engine:junit-jupiter]/[class:a.B]/[method:test()]";
+
+		LaunchHistory.update(file, Collections.singletonMap(key, new LaunchHistory.Record(Status.PASSED, 10)));
+		LaunchHistory.update(file, Collections.singletonMap(key, new LaunchHistory.Record(Status.SKIPPED, 0)));
+		LaunchHistory.update(file, Collections.singletonMap(key, new LaunchHistory.Record(Status.PASSED, 10)));
+
+		LaunchHistory.Record record = LaunchHistory.load(file).get(key).orElseThrow(IllegalStateException::new);
+		assertThat(record.getTrail(), equalTo("FPP"));
+		assertThat(record.getFlakiness(), closeTo(0.5, 0.001));
+	}
+
+	@Test
+	public void verify_passed_durations_are_kept_whatever_the_last_status(@TempDir Path dir) {
+		Path file = dir.resolve("history.txt");
+		String key = "[engine:junit-jupiter]/[class:a.B]/[method:test()]";
+		for (int i = 1; i <= 60; i++) {
+			LaunchHistory.update(file, Collections.singletonMap(key, new LaunchHistory.Record(Status.PASSED, i * 10)));
+		}
+		LaunchHistory.update(file, Collections.singletonMap(key, new LaunchHistory.Record(Status.FAILED, 5000)));
+
+		LaunchHistory.Record record = LaunchHistory.load(file).get(key).orElseThrow(IllegalStateException::new);
+		assertThat(record.getStatus(), equalTo(Status.FAILED));
+		assertThat(record.getPassedDurations().length, equalTo(50));
+		assertThat(record.getPassedDurations()[0], equalTo(110L));
+		assertThat(record.getPassedDurationPercentile(99).getAsDouble(), closeTo(595.1, 0.001));
+		assertThat(record.getPassedDurationPercentile(50).getAsDouble(), closeTo(355, 0.001));
+		assertThat(new LaunchHistory.Record(Status.FAILED, 10).getPassedDurationPercentile(99).isPresent(), equalTo(false));
+	}
+
+	@Test
+	public void verify_quarantined_methods_run_last(@TempDir Path dir) throws NoSuchMethodException {
+		Path file = dir.resolve("history.txt");
+		String classId = "[engine:junit-jupiter]/[class:" + MixedResultsTest.class.getName() + "]";
+		for (Status status : new Status[] { Status.PASSED, Status.FAILED, Status.PASSED }) {
+			LaunchHistory.update(file, Collections.singletonMap(classId + "/[method:passing()]", new LaunchHistory.Record(status, 10)));
+		}
+		Quarantine quarantine = new Quarantine(LaunchHistory.load(file), 0.5);
+
+		List<MethodDescriptor> descriptors = new ArrayList<>(Arrays.asList(descriptor("passing"), descriptor("failing")));
+		MethodOrdererContext context = mock(MethodOrdererContext.class);
+		when(context.getTestClass()).thenAnswer(invocation -> MixedResultsTest.class);
+		when(context.getMethodDescriptors()).thenAnswer(invocation -> descriptors);
+
+		new QuarantineMethodOrderer(quarantine).orderMethods(context);
+
+		assertThat(names(descriptors), contains("failing", "passing"));
+		assertThat(quarantine.getFlakiness(MixedResultsTest.class, MixedResultsTest.class.getMethod("passing")).isPresent(), equalTo(true));
+	}
+
+	private static MethodDescriptor descriptor(String name, Class<?>... parameterTypes) throws NoSuchMethodException {
+		Method method = MixedResultsTest.class.getMethod(name, parameterTypes);
+		MethodDescriptor descriptor = mock(MethodDescriptor.class);
+		when(descriptor.getMethod()).thenReturn(method);
+		return descriptor;
+	}
+
+	private static List<String> names(List<MethodDescriptor> descriptors) {
+		return descriptors.stream().map(d -> d.getMethod().getName()).collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.junit5.history;
+
+import com.epam.reportportal.junit5.Status;
+import com.epam.reportportal.junit5.features.fold.PassingFixturesTest;
+import com.epam.reportportal.junit5.features.history.MixedResultsTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.TestPlan;
+import org.junit.platform.launcher.core.LauncherConfig;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+
+public class ShardingFilterTest {
+
+	private static Set<String> discover(ShardingFilter filter) {
+		LauncherDiscoveryRequest request = LauncherDiscoveryRequestBuilder.request()
+				.selectors(selectClass(MixedResultsTest.class), selectClass(PassingFixturesTest.class))
+				.filters(filter)
+				.build();
+		TestPlan plan = LauncherFactory.create(LauncherConfig.builder().enableTestExecutionListenerAutoRegistration(false).build())
+				.discover(request);
+		return plan.getRoots()
+				.stream()
+				.flatMap(root -> plan.getChildren(root).stream())
+				.map(identifier -> identifier.getSource().map(s -> ((ClassSource) s).getClassName()).orElse(null))
+				.collect(Collectors.toSet());
+	}
+
+	@Test
+	public void verify_longest_classes_are_distributed_to_least_loaded_shards() {
+		Map<String, Long> durations = new HashMap<>();
+		durations.put("a", 50L);
+		durations.put("b", 40L);
+		durations.put("c", 30L);
+		durations.put("d", 20L);
+		durations.put("e", 10L);
+
+		Map<String, Integer> shards = ShardingFilter.assign(durations.keySet(), durations::get, 2);
+
+		assertThat(shards, allOf(hasEntry("a", 0), hasEntry("b", 1), hasEntry("c", 1), hasEntry("d", 0), hasEntry("e", 0)));
+	}
+
+	@Test
+	public void verify_classes_without_history_are_assigned_by_hash() {
+		List<String> ids = Arrays.asList("a", "b", "c", "d");
+
+		Map<String, Integer> first = ShardingFilter.assign(ids, id -> null, 3);
+		Map<String, Integer> second = ShardingFilter.assign(ids, id -> null, 3);
+
+		assertThat(first, equalTo(second));
+		assertThat(first.values(), everyItem(both(greaterThanOrEqualTo(0)).and(lessThan(3))));
+	}
+
+	@Test
+	public void verify_shards_cover_all_classes_once(@TempDir Path dir) {
+		Path file = dir.resolve("history.txt");
+		Map<String, LaunchHistory.Record> results = new HashMap<>();
+		results.put("[engine:junit-jupiter]/[class:" + MixedResultsTest.class.getName() + "]", new LaunchHistory.Record(Status.FAILED, 300));
+		results.put("[engine:junit-jupiter]/[class:" + PassingFixturesTest.class.getName() + "]", new LaunchHistory.Record(Status.PASSED, 200));
+		LaunchHistory.update(file, results);
+		LaunchHistory history = LaunchHistory.load(file);
+
+		Set<String> first = discover(new ShardingFilter(0, 2, history));
+		Set<String> second = discover(new ShardingFilter(1, 2, history));
+
+		assertThat(first, contains(MixedResultsTest.class.getName()));
+		assertThat(second, contains(PassingFixturesTest.class.getName()));
+	}
+
+	@Test
+	public void verify_all_classes_are_selected_without_sharding() {
+		assertThat(discover(new ShardingFilter(0, 1, new LaunchHistory(Collections.emptyMap()))),
+				containsInAnyOrder(MixedResultsTest.class.getName(), PassingFixturesTest.class.getName())
+		);
+	}
+
+	@Test
+	public void verify_shards_read_history_from_sharding_snapshot(@TempDir Path dir) {
+		Path snapshot = dir.resolve("history-snapshot.txt");
+		Map<String, LaunchHistory.Record> results = new HashMap<>();
+		results.put("[engine:junit-jupiter]/[class:" + MixedResultsTest.class.getName() + "]", new LaunchHistory.Record(Status.FAILED, 200));
+		results.put("[engine:junit-jupiter]/[class:" + PassingFixturesTest.class.getName() + "]", new LaunchHistory.Record(Status.PASSED, 300));
+		LaunchHistory.update(snapshot, results);
+
+		System.setProperty(ShardingFilter.SHARD_INDEX_PROPERTY, "0");
+		System.setProperty(ShardingFilter.SHARD_COUNT_PROPERTY, "2");
+		System.setProperty(ShardingFilter.SHARDING_HISTORY_FILE_PROPERTY, snapshot.toString());
+		try {
+			assertThat(discover(new ShardingFilter()), contains(PassingFixturesTest.class.getName()));
+		} finally {
+			System.clearProperty(ShardingFilter.SHARD_INDEX_PROPERTY);
+			System.clearProperty(ShardingFilter.SHARD_COUNT_PROPERTY);
+			System.clearProperty(ShardingFilter.SHARDING_HISTORY_FILE_PROPERTY);
+		}
+	}
+}
@@ -0,0 +1,169 @@
+package com.epam.reportportal.junit5.util;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Estimates the number of bytes reachable from given roots by walking the object graph reflectively. Objects are sized as a 64-bit JVM
+ * with compressed references lays them out. Classes, class loaders and threads are not followed. Objects whose fields cannot be read,
+ * like JDK collections on Java 9 and later, are followed through their public API if they are maps, collections or references, and
+ * counted with their shallow size otherwise.
+ */
+public class RetainedSize {
+
+	private static final int HEADER = 12;
+	private static final int ARRAY_HEADER = 16;
+	private static final int REFERENCE = 4;
+	private static final int ENTRY = 32;
+	private static final int ALIGNMENT = 8;
+
+	private final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+	private final Deque<Object> pending = new ArrayDeque<>();
+	private final Map<Class<?>, Optional<List<Field>>> references = new HashMap<>();
+	private final Map<Class<?>, Long> shallowSizes = new HashMap<>();
+	private long size;
+
+	private RetainedSize() {
+	}
+
+	/**
+	 * @param roots objects to start from
+	 * @return the estimated number of bytes reachable from the roots
+	 */
+	public static long of(Object... roots) {
+		RetainedSize walk = new RetainedSize();
+		for (Object root : roots) {
+			walk.push(root);
+		}
+		while (!walk.pending.isEmpty()) {
+			walk.visit(walk.pending.pop());
+		}
+		return walk.size;
+	}
+
+	/**
+	 * @param type a class
+	 * @return values of static reference fields of the class, to use as roots
+	 */
+	public static Object[] staticFields(Class<?> type) {
+		List<Object> values = new ArrayList<>();
+		for (Field field : type.getDeclaredFields()) {
+			if (Modifier.isStatic(field.getModifiers()) && !field.getType().isPrimitive()) {
+				try {
+					field.setAccessible(true);
+					values.add(field.get(null));
+				} catch (IllegalAccessException | RuntimeException e) {
+					// an inaccessible field is not a root
+				}
+			}
+		}
+		return values.toArray();
+	}
+
+	private void push(Object object) {
+		if (object == null || object instanceof Class || object instanceof ClassLoader || object instanceof Thread) {
+			return;
+		}
+		if (visited.add(object)) {
+			pending.push(object);
+		}
+	}
+
+	private void visit(Object object) {
+		Class<?> type = object.getClass();
+		if (type.isArray()) {
+			int length = Array.getLength(object);
+			Class<?> component = type.getComponentType();
+			size += align(ARRAY_HEADER + (long) length * (component.isPrimitive() ? primitiveSize(component) : REFERENCE));
+			if (!component.isPrimitive()) {
+				for (int i = 0; i < length; i++) {
+					push(Array.get(object, i));
+				}
+			}
+			return;
+		}
+		size += shallowSizes.computeIfAbsent(type, RetainedSize::shallowSize);
+		if (object instanceof String) {
+			size += align(ARRAY_HEADER + ((String) object).length());
+			return;
+		}
+		Optional<List<Field>> fields = references.computeIfAbsent(type, RetainedSize::accessibleReferences);
+		if (fields.isPresent()) {
+			for (Field field : fields.get()) {
+				try {
+					push(field.get(object));
+				} catch (IllegalAccessException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+		} else if (object instanceof Map) {
+			Map<?, ?> map = (Map<?, ?>) object;
+			size += align(ARRAY_HEADER + (long) map.size() * REFERENCE) + (long) map.size() * ENTRY;
+			map.forEach((key, value) -> {
+				push(key);
+				push(value);
+			});
+		} else if (object instanceof Collection) {
+			Collection<?> collection = (Collection<?>) object;
+			size += align(ARRAY_HEADER + (long) collection.size() * REFERENCE);
+			collection.forEach(this::push);
+		} else if (object instanceof Optional) {
+			((Optional<?>) object).ifPresent(this::push);
+		} else if (object instanceof AtomicReference) {
+			push(((AtomicReference<?>) object).get());
+		}
+	}
+
+	/**
+	 * @return reference fields of the class and its superclasses, or empty if any of them cannot be read
+	 */
+	private static Optional<List<Field>> accessibleReferences(Class<?> type) {
+		List<Field> fields = new ArrayList<>();
+		for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+			for (Field field : c.getDeclaredFields()) {
+				if (Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive()) {
+					continue;
+				}
+				try {
+					field.setAccessible(true);
+				} catch (RuntimeException e) {
+					return Optional.empty();
+				}
+				fields.add(field);
+			}
+		}
+		return Optional.of(fields);
+	}
+
+	private static long shallowSize(Class<?> type) {
+		long size = HEADER;
+		for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+			for (Field field : c.getDeclaredFields()) {
+				if (!Modifier.isStatic(field.getModifiers())) {
+					size += field.getType().isPrimitive() ? primitiveSize(field.getType()) : REFERENCE;
+				}
+			}
+		}
+		return align(size);
+	}
+
+	private static int primitiveSize(Class<?> type) {
+		if (type == long.class || type == double.class) {
+			return 8;
+		}
+		if (type == int.class || type == float.class) {
+			return 4;
+		}
+		if (type == short.class || type == char.class) {
+			return 2;
+		}
+		return 1;
+	}
+
+	private static long align(long size) {
+		return (size + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+	}
+}